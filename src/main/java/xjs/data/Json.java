@@ -12,6 +12,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -225,6 +227,10 @@ public final class Json {
         if (unknown == null) return JsonLiteral.jsonNull();
         if (unknown instanceof JsonValue) return (JsonValue) unknown;
         if (unknown instanceof JsonReference) return ((JsonReference) unknown).get();
+        if (unknown instanceof Long || unknown instanceof Integer
+            || unknown instanceof Short || unknown instanceof Byte) return value(((Number) unknown).longValue());
+        if (unknown instanceof BigDecimal) return new JsonNumber((BigDecimal) unknown);
+        if (unknown instanceof BigInteger) return new JsonNumber(new BigDecimal((BigInteger) unknown));
         if (unknown instanceof Number) return value(((Number) unknown).doubleValue());
         if (unknown instanceof Boolean) return value((boolean) unknown);
         if (unknown instanceof String) return value((String) unknown);
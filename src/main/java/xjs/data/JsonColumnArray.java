@@ -0,0 +1,1208 @@
+package xjs.data;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.data.serialization.util.HashIndexTable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.RandomAccess;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+/**
+ * A {@link JsonArray} of objects which all have the same keys, in which the
+ * values are stored by column instead of in a separate object for each row.
+ *
+ * <p>This array supports every operation of a regular {@link JsonArray}.
+ * However, an object is only created for a row when it is needed by the
+ * caller, i.e. when the element is accessed by {@link #get(int)}, {@link
+ * #getReference(int)}, or by iterating over the array. Until then, each
+ * column may be read or scanned without touching any other column:
+ *
+ * <pre>{@code
+ *   final JsonColumnArray table = JsonColumnArray.from(Json.array()
+ *     .add(Json.object().add("name", "a").add("price", 2))
+ *     .add(Json.object().add("name", "b").add("price", 3)));
+ *   assert table.sum("price") == 5;
+ * }</pre>
+ *
+ * <p>Columns of numbers, strings, and booleans are stored as primitives or
+ * strings, and any of these may also contain <code>null</code>. A column
+ * holding any other mix of values simply stores each value as-is.
+ *
+ * <p>Like an {@link JsonValue#unformatted unformatted} copy, rows which are
+ * stored in columns have no formatting or comments. Once an object has been
+ * created for a row, it replaces the values in each column and is retained
+ * as-is, meaning it may be modified freely, but is no longer compact.
+ */
+public class JsonColumnArray extends JsonArray {
+
+    private final RowList rows;
+
+    /**
+     * Constructs a new columnar array containing no rows.
+     *
+     * @param keys The keys of every row in this array, in order.
+     * @throws IllegalArgumentException If any key is repeated.
+     */
+    public JsonColumnArray(final String... keys) {
+        this(new RowList(List.of(keys)));
+    }
+
+    /**
+     * Constructs a new columnar array containing no rows.
+     *
+     * @param keys The keys of every row in this array, in order.
+     * @throws IllegalArgumentException If any key is repeated.
+     */
+    public JsonColumnArray(final List<String> keys) {
+        this(new RowList(List.copyOf(keys)));
+    }
+
+    private JsonColumnArray(final RowList rows) {
+        super(rows);
+        this.rows = rows;
+    }
+
+    /**
+     * Indicates whether the given array may be {@link #from converted} into
+     * a columnar array, i.e. whether every element is an object having the
+     * same, unique keys in the same order.
+     *
+     * @param array The array being inspected.
+     * @return <code>true</code>, if the array can be converted.
+     */
+    public static boolean canConvert(final JsonArray array) {
+        return array instanceof JsonColumnArray || getKeys(array) != null;
+    }
+
+    /**
+     * Copies every object in the given array into a new columnar array.
+     *
+     * <p>The values in each object are copied without any formatting or
+     * comments, meaning the original array is not retained.
+     *
+     * @param array The array of objects being converted.
+     * @return A new columnar array containing the same rows.
+     * @throws UnsupportedOperationException If the objects do not have the
+     *                                       same, unique keys in the same
+     *                                       order.
+     */
+    public static JsonColumnArray from(final JsonArray array) {
+        if (array instanceof JsonColumnArray) {
+            return ((JsonColumnArray) array).copy(JsonCopy.UNFORMATTED);
+        }
+        final List<String> keys = getKeys(array);
+        if (keys == null) {
+            throw new UnsupportedOperationException("Not an array of objects with the same keys");
+        }
+        final RowList rows = new RowList(List.copyOf(keys));
+        rows.ensureCapacity(array.size());
+        for (final JsonReference reference : array.references) {
+            rows.addRecord((JsonObject) reference.getOnly());
+        }
+        return new JsonColumnArray(rows);
+    }
+
+    private static @Nullable List<String> getKeys(final JsonArray array) {
+        JsonObject first = null;
+        for (final JsonReference reference : array.references) {
+            final JsonValue value = reference.getOnly();
+            if (!(value instanceof JsonObject)) {
+                return null;
+            }
+            final JsonObject object = (JsonObject) value;
+            if (first == null) {
+                first = object;
+            } else if (!object.hasSameShape(first) && !object.keys().equals(first.keys())) {
+                return null;
+            }
+        }
+        if (first == null) {
+            return List.of();
+        }
+        final List<String> keys = first.keys();
+        return isUnique(keys) ? keys : null;
+    }
+
+    // each key must map to exactly one column
+    private static boolean isUnique(final List<String> keys) {
+        return keys.size() < 2 || new HashSet<>(keys).size() == keys.size();
+    }
+
+    /**
+     * Returns an unmodifiable view of the keys in every row of this array.
+     *
+     * @return The keys of each row, in order.
+     */
+    public List<String> keys() {
+        return this.rows.keys;
+    }
+
+    /**
+     * Returns the index of the column for the given key.
+     *
+     * @param key The key of the column.
+     * @return The index of the column with this key, or else -1.
+     */
+    public int getColumnIndex(final String key) {
+        return this.rows.table.get(key);
+    }
+
+    /**
+     * Gets the type of every value which is stored in the given column,
+     * not including <code>null</code>. If the column contains only nulls,
+     * the type will be {@link JsonType#NULL}.
+     *
+     * <p>Rows which have been {@link #isBoxed boxed} are not considered.
+     *
+     * @param column The index of the column.
+     * @return The type of each value, or else <code>null</code> if mixed.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public @Nullable JsonType getColumnType(final int column) {
+        return this.rows.columns[column].type();
+    }
+
+    /**
+     * Copies an object into this array if it has exactly the same keys as
+     * every other row. The values are stored in each column, meaning the
+     * original object is not retained.
+     *
+     * @param value The value being added into the container.
+     * @return <code>true</code>, if the value is a matching object and was added.
+     */
+    public boolean addIfRecord(final JsonValue value) {
+        if (value instanceof JsonObject && ((JsonObject) value).keys().equals(this.rows.keys)) {
+            this.rows.addRecord((JsonObject) value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether the given cell is <code>null</code> or missing.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return <code>true</code>, if the cell contains no value.
+     * @throws IndexOutOfBoundsException If either index is out of bounds.
+     */
+    public boolean isNull(final int row, final int column) {
+        return this.rows.isNull(row, column);
+    }
+
+    /**
+     * Returns the number in the given cell as a decimal, without creating
+     * an object for the row.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return The number as a decimal.
+     * @throws IndexOutOfBoundsException If either index is out of bounds.
+     * @throws UnsupportedOperationException If the cell is not a number.
+     */
+    public double getDouble(final int row, final int column) {
+        return this.rows.getDouble(row, column);
+    }
+
+    /**
+     * Returns the number in the given cell as an integer, without creating
+     * an object for the row.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return The number as an integer.
+     * @throws IndexOutOfBoundsException If either index is out of bounds.
+     * @throws UnsupportedOperationException If the cell is not a number.
+     */
+    public long getLong(final int row, final int column) {
+        return this.rows.getLong(row, column);
+    }
+
+    /**
+     * Indicates whether the number in the given cell is stored as an integer.
+     * This is meaningful only for {@link JsonType#NUMBER number} columns when
+     * the row is not {@link #isBoxed boxed}.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return <code>true</code>, if the cell is stored as an integer.
+     */
+    public boolean isInteger(final int row, final int column) {
+        return this.rows.columns[column].isInteger(row);
+    }
+
+    /**
+     * Returns the string in the given cell, without creating an object for
+     * the row.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return The string in the cell.
+     * @throws IndexOutOfBoundsException If either index is out of bounds.
+     * @throws UnsupportedOperationException If the cell is not a string.
+     */
+    public String getString(final int row, final int column) {
+        return this.rows.getString(row, column);
+    }
+
+    /**
+     * Returns the boolean in the given cell, without creating an object for
+     * the row.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return The boolean in the cell.
+     * @throws IndexOutOfBoundsException If either index is out of bounds.
+     * @throws UnsupportedOperationException If the cell is not a boolean.
+     */
+    public boolean getBoolean(final int row, final int column) {
+        return this.rows.getBoolean(row, column);
+    }
+
+    /**
+     * Returns the value in the given cell, without creating an object for
+     * the row. If the row is not {@link #isBoxed boxed}, the value is a new
+     * copy of the cell.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column.
+     * @return The value in the cell, or else a null literal if missing.
+     * @throws IndexOutOfBoundsException If either index is out of bounds.
+     */
+    public JsonValue getValue(final int row, final int column) {
+        return this.rows.getValue(row, column);
+    }
+
+    /**
+     * Adds every number in the given column, ignoring nulls.
+     *
+     * @param key The key of the column.
+     * @return The sum of every number in the column.
+     * @throws IllegalArgumentException If no column has this key.
+     * @throws UnsupportedOperationException If any other value is not a number.
+     */
+    public double sum(final String key) {
+        final int column = this.requireColumn(key);
+        double sum = 0;
+        for (int i = 0; i < this.rows.size; i++) {
+            if (!this.rows.isNull(i, column)) {
+                sum += this.rows.getDouble(i, column);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the smallest number in the given column, ignoring nulls.
+     *
+     * @param key The key of the column.
+     * @return The smallest number, or else empty if there are no numbers.
+     * @throws IllegalArgumentException If no column has this key.
+     * @throws UnsupportedOperationException If any other value is not a number.
+     */
+    public OptionalDouble min(final String key) {
+        return this.reduce(key, true);
+    }
+
+    /**
+     * Finds the largest number in the given column, ignoring nulls.
+     *
+     * @param key The key of the column.
+     * @return The largest number, or else empty if there are no numbers.
+     * @throws IllegalArgumentException If no column has this key.
+     * @throws UnsupportedOperationException If any other value is not a number.
+     */
+    public OptionalDouble max(final String key) {
+        return this.reduce(key, false);
+    }
+
+    private OptionalDouble reduce(final String key, final boolean min) {
+        final int column = this.requireColumn(key);
+        boolean found = false;
+        double result = 0;
+        for (int i = 0; i < this.rows.size; i++) {
+            if (!this.rows.isNull(i, column)) {
+                final double value = this.rows.getDouble(i, column);
+                if (!found) {
+                    result = value;
+                    found = true;
+                } else {
+                    result = min ? Math.min(result, value) : Math.max(result, value);
+                }
+            }
+        }
+        return found ? OptionalDouble.of(result) : OptionalDouble.empty();
+    }
+
+    /**
+     * Copies every row whose number in the given column matches a predicate
+     * into a new columnar array. Rows having <code>null</code> in this column
+     * are never included.
+     *
+     * @param key       The key of the column being tested.
+     * @param predicate The condition for including each row.
+     * @return A new array containing only the matching rows.
+     * @throws IllegalArgumentException If no column has this key.
+     * @throws UnsupportedOperationException If any other value is not a number.
+     */
+    public JsonColumnArray filterNumbers(final String key, final DoublePredicate predicate) {
+        final int column = this.requireColumn(key);
+        final int[] matches = new int[this.rows.size];
+        int count = 0;
+        for (int i = 0; i < this.rows.size; i++) {
+            if (!this.rows.isNull(i, column) && predicate.test(this.rows.getDouble(i, column))) {
+                matches[count++] = i;
+            }
+        }
+        return new JsonColumnArray(this.rows.select(matches, count, JsonCopy.DEEP));
+    }
+
+    /**
+     * Copies every row whose string in the given column matches a predicate
+     * into a new columnar array. Rows having <code>null</code> in this column
+     * are never included.
+     *
+     * @param key       The key of the column being tested.
+     * @param predicate The condition for including each row.
+     * @return A new array containing only the matching rows.
+     * @throws IllegalArgumentException If no column has this key.
+     * @throws UnsupportedOperationException If any other value is not a string.
+     */
+    public JsonColumnArray filterStrings(final String key, final Predicate<String> predicate) {
+        final int column = this.requireColumn(key);
+        final int[] matches = new int[this.rows.size];
+        int count = 0;
+        for (int i = 0; i < this.rows.size; i++) {
+            if (!this.rows.isNull(i, column) && predicate.test(this.rows.getString(i, column))) {
+                matches[count++] = i;
+            }
+        }
+        return new JsonColumnArray(this.rows.select(matches, count, JsonCopy.DEEP));
+    }
+
+    private int requireColumn(final String key) {
+        final int column = this.rows.table.get(key);
+        if (column == -1) {
+            throw new IllegalArgumentException("No such column: " + key);
+        }
+        return column;
+    }
+
+    /**
+     * Indicates whether an object has been created for the row at the given
+     * index, in which case the object replaces the values in each column.
+     *
+     * @param row The index of the row.
+     * @return <code>true</code>, if the row has been boxed.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public boolean isBoxed(final int row) {
+        return this.rows.boxed(row) != null;
+    }
+
+    /**
+     * Indicates whether every row in this array is stored in columns and
+     * every value is a string, number, boolean, or <code>null</code>. Flat
+     * arrays may be written without creating any objects.
+     *
+     * @return <code>true</code>, if no rows are boxed or contain containers.
+     */
+    public boolean isFlat() {
+        return this.rows.isFlat();
+    }
+
+    @Override
+    public JsonColumnArray copy(final int options) {
+        final JsonColumnArray copy = new JsonColumnArray(this.rows.copy(options));
+        if ((options & JsonCopy.FORMATTING) == JsonCopy.FORMATTING) {
+            copy.setLinesTrailing(this.linesTrailing);
+        }
+        return withMetadata(copy, this, options);
+    }
+
+    /**
+     * A list of references to objects which are created on demand from a
+     * set of columns.
+     *
+     * <p>Every row occupies a slot in each column, even after it has been
+     * boxed. The slots of boxed rows are simply ignored.
+     */
+    private static final class RowList extends AbstractList<JsonReference> implements RandomAccess {
+        static final int DEFAULT_CAPACITY = 10;
+
+        final List<String> keys;
+        final HashIndexTable table;
+        final @Nullable ObjectShape shape;
+        Column[] columns;
+        JsonReference @Nullable [] boxed;
+        int capacity;
+        int size;
+
+        RowList(final List<String> keys) {
+            if (!isUnique(keys)) {
+                throw new IllegalArgumentException("Duplicate keys: " + keys);
+            }
+            this.keys = keys;
+            this.shape = ObjectShape.of(keys);
+            if (this.shape != null) {
+                this.table = this.shape.table;
+            } else {
+                this.table = new HashIndexTable();
+                this.table.init(keys);
+            }
+            this.columns = emptyColumns(keys.size());
+        }
+
+        private RowList(final RowList source, final Column[] columns, final int size) {
+            this.keys = source.keys;
+            this.table = source.table;
+            this.shape = source.shape;
+            this.columns = columns;
+            this.capacity = size;
+            this.size = size;
+        }
+
+        private static Column[] emptyColumns(final int count) {
+            final Column[] columns = new Column[count];
+            for (int i = 0; i < count; i++) {
+                columns[i] = new ValueColumn(JsonType.NULL, 0);
+            }
+            return columns;
+        }
+
+        void addRecord(final JsonObject object) {
+            this.ensureCapacity(this.size + 1);
+            for (int i = 0; i < this.columns.length; i++) {
+                final JsonValue value = object.references.get(i).getOnly();
+                Column column = this.columns[i];
+                if (!column.accepts(value)) {
+                    column = this.widen(column, value);
+                    this.columns[i] = column;
+                }
+                column.set(this.size, value);
+            }
+            this.size++;
+            this.modCount++;
+        }
+
+        // columns containing only nulls become typed, and otherwise mixed
+        private Column widen(final Column column, final JsonValue value) {
+            if (column.type() == JsonType.NULL) {
+                final Column typed = Column.of(value, this.capacity);
+                for (int i = 0; i < this.size; i++) {
+                    typed.set(i, JsonLiteral.jsonNull());
+                }
+                return typed;
+            }
+            final ValueColumn mixed = new ValueColumn(null, this.capacity);
+            for (int i = 0; i < this.size; i++) {
+                if (this.boxed(i) == null && !column.isNull(i)) {
+                    mixed.values[i] = column.get(i);
+                }
+            }
+            return mixed;
+        }
+
+        @Nullable JsonReference boxed(final int index) {
+            Objects.checkIndex(index, this.size);
+            return this.boxed != null ? this.boxed[index] : null;
+        }
+
+        // a boxed row may be given a duplicate key, in which case the last one is read, as by JsonObject#get
+        private @Nullable JsonValue boxedCell(final JsonReference reference, final int column) {
+            final JsonValue value = reference.getOnly();
+            if (value instanceof JsonObject) {
+                final JsonReference cell = ((JsonObject) value).getReference(this.keys.get(column));
+                return cell != null ? cell.getOnly() : null;
+            }
+            return null;
+        }
+
+        boolean isNull(final int row, final int column) {
+            final JsonReference reference = this.boxed(row);
+            if (reference != null) {
+                final JsonValue cell = this.boxedCell(reference, column);
+                return cell == null || cell.isNull();
+            }
+            return this.columns[column].isNull(row);
+        }
+
+        JsonValue getValue(final int row, final int column) {
+            final JsonReference reference = this.boxed(row);
+            if (reference != null) {
+                final JsonValue cell = this.boxedCell(reference, column);
+                return cell != null ? cell : JsonLiteral.jsonNull();
+            }
+            final Column c = this.columns[column];
+            return c instanceof ValueColumn ? c.get(row).copy(JsonCopy.UNFORMATTED) : c.get(row);
+        }
+
+        double getDouble(final int row, final int column) {
+            if (this.boxed(row) != null) {
+                return this.getValue(row, column).asDouble();
+            }
+            return this.columns[column].getDouble(row);
+        }
+
+        long getLong(final int row, final int column) {
+            if (this.boxed(row) != null) {
+                return this.getValue(row, column).asLong();
+            }
+            return this.columns[column].getLong(row);
+        }
+
+        String getString(final int row, final int column) {
+            if (this.boxed(row) != null) {
+                return this.getValue(row, column).asString();
+            }
+            return this.columns[column].getString(row);
+        }
+
+        boolean getBoolean(final int row, final int column) {
+            if (this.boxed(row) != null) {
+                return this.getValue(row, column).asBoolean();
+            }
+            return this.columns[column].getBoolean(row);
+        }
+
+        boolean isFlat() {
+            if (this.boxed != null) {
+                for (int i = 0; i < this.size; i++) {
+                    if (this.boxed[i] != null) {
+                        return false;
+                    }
+                }
+            }
+            for (final Column column : this.columns) {
+                if (column instanceof ValueColumn && ((ValueColumn) column).hasContainers(this.size)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // values are moved out of their columns when the row is retained
+        private JsonObject box(final int index, final boolean retain) {
+            final List<JsonReference> references = new ArrayList<>(this.columns.length);
+            for (final Column column : this.columns) {
+                references.add(new JsonReference(retain ? column.take(index) : column.get(index)));
+            }
+            if (this.shape != null) {
+                return new JsonObject(this.shape, references);
+            }
+            return new JsonObject(new ArrayList<>(this.keys), references);
+        }
+
+        // creates a reference without retaining it
+        private JsonReference peek(final int index) {
+            final JsonReference reference = this.boxed(index);
+            return reference != null ? reference : new JsonReference(this.box(index, false));
+        }
+
+        // creates a reference which is detached from the columns
+        private JsonReference detach(final int index) {
+            final JsonReference reference = this.boxed(index);
+            return reference != null ? reference : new JsonReference(this.box(index, true));
+        }
+
+        @Override
+        public JsonReference get(final int index) {
+            JsonReference reference = this.boxed(index);
+            if (reference == null) {
+                reference = new JsonReference(this.box(index, true));
+                this.boxed()[index] = reference;
+            }
+            return reference;
+        }
+
+        private JsonReference[] boxed() {
+            if (this.boxed == null) {
+                this.boxed = new JsonReference[this.capacity];
+            }
+            return this.boxed;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public JsonReference set(final int index, final JsonReference element) {
+            final JsonReference previous = this.detach(index);
+            this.boxed()[index] = Objects.requireNonNull(element);
+            return previous;
+        }
+
+        @Override
+        public void add(final int index, final JsonReference element) {
+            Objects.checkIndex(index, this.size + 1);
+            this.ensureCapacity(this.size + 1);
+            final JsonReference[] boxed = this.boxed();
+            final int moved = this.size - index;
+            for (final Column column : this.columns) {
+                column.move(index, index + 1, moved);
+                column.clear(index);
+            }
+            System.arraycopy(boxed, index, boxed, index + 1, moved);
+            boxed[index] = Objects.requireNonNull(element);
+            this.size++;
+            this.modCount++;
+        }
+
+        @Override
+        public JsonReference remove(final int index) {
+            final JsonReference previous = this.detach(index);
+            final int moved = this.size - index - 1;
+            for (final Column column : this.columns) {
+                column.move(index + 1, index, moved);
+                column.clear(this.size - 1);
+            }
+            if (this.boxed != null) {
+                System.arraycopy(this.boxed, index + 1, this.boxed, index, moved);
+                this.boxed[this.size - 1] = null;
+            }
+            this.size--;
+            this.modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            this.columns = emptyColumns(this.keys.size());
+            this.boxed = null;
+            this.capacity = 0;
+            this.size = 0;
+            this.modCount++;
+        }
+
+        void ensureCapacity(final int capacity) {
+            if (capacity > this.capacity) {
+                final int grown = Math.max(Math.max(capacity, DEFAULT_CAPACITY), this.capacity + (this.capacity >> 1));
+                for (final Column column : this.columns) {
+                    column.resize(grown);
+                }
+                if (this.boxed != null) {
+                    this.boxed = Arrays.copyOf(this.boxed, grown);
+                }
+                this.capacity = grown;
+            }
+        }
+
+        RowList copy(final int options) {
+            final boolean recursive = (options & JsonCopy.RECURSIVE) == JsonCopy.RECURSIVE;
+            final boolean containers = (options & JsonCopy.CONTAINERS) == JsonCopy.CONTAINERS;
+            if (!recursive && !containers) {
+                return this;
+            }
+            return this.select(null, this.size, options);
+        }
+
+        // copies the given rows, or else every row if null
+        RowList select(final int @Nullable [] rows, final int count, final int options) {
+            final boolean tracking = (options & JsonCopy.TRACKING) == JsonCopy.TRACKING;
+            final Column[] columns = new Column[this.columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = this.columns[i].select(rows, count);
+            }
+            final RowList copy = new RowList(this, columns, count);
+            if (this.boxed != null) {
+                for (int i = 0; i < count; i++) {
+                    final JsonReference reference = this.boxed[rows != null ? rows[i] : i];
+                    if (reference != null) {
+                        copy.boxed()[i] = reference.copy(tracking).applyOnly(v -> v.copy(options));
+                    }
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof List<?> other) || other.size() != this.size) {
+                return false;
+            }
+            final RowList rows = o instanceof RowList r ? r : null;
+            for (int i = 0; i < this.size; i++) {
+                final Object element = rows != null ? rows.peek(i) : other.get(i);
+                if (!this.peek(i).equals(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 1;
+            for (int i = 0; i < this.size; i++) {
+                result = 31 * result + this.peek(i).hashCode();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The values of a single key in every row. Each slot may be accessed
+     * until the capacity of the column, regardless of the number of rows.
+     */
+    private abstract static class Column {
+
+        static Column of(final JsonValue value, final int capacity) {
+            if (isNull(value)) {
+                return new ValueColumn(JsonType.NULL, capacity);
+            } else if (NumberColumn.isPlain(value)) {
+                return new NumberColumn(capacity);
+            } else if (value.getClass() == JsonString.class) {
+                return new StringColumn(capacity);
+            } else if (value.getClass() == JsonLiteral.class) {
+                return new BooleanColumn();
+            }
+            return new ValueColumn(null, capacity);
+        }
+
+        static boolean isNull(final JsonValue value) {
+            return value.getClass() == JsonLiteral.class && value.isNull();
+        }
+
+        static int row(final int @Nullable [] rows, final int index) {
+            return rows != null ? rows[index] : index;
+        }
+
+        static void move(final @Nullable BitSet bits, final int from, final int to, final int length) {
+            if (bits == null) {
+                return;
+            } else if (to > from) {
+                for (int i = length - 1; i >= 0; i--) {
+                    bits.set(to + i, bits.get(from + i));
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    bits.set(to + i, bits.get(from + i));
+                }
+            }
+        }
+
+        static @Nullable BitSet select(final @Nullable BitSet bits, final int @Nullable [] rows, final int count) {
+            if (bits == null) {
+                return null;
+            } else if (rows == null) {
+                return (BitSet) bits.clone();
+            }
+            final BitSet selected = new BitSet(count);
+            for (int i = 0; i < count; i++) {
+                selected.set(i, bits.get(rows[i]));
+            }
+            return selected;
+        }
+
+        abstract @Nullable JsonType type();
+
+        abstract boolean accepts(final JsonValue value);
+
+        abstract void set(final int index, final JsonValue value);
+
+        abstract boolean isNull(final int index);
+
+        abstract JsonValue get(final int index);
+
+        JsonValue take(final int index) {
+            return this.get(index);
+        }
+
+        boolean isInteger(final int index) {
+            return false;
+        }
+
+        double getDouble(final int index) {
+            return this.get(index).asDouble();
+        }
+
+        long getLong(final int index) {
+            return this.get(index).asLong();
+        }
+
+        String getString(final int index) {
+            return this.get(index).asString();
+        }
+
+        boolean getBoolean(final int index) {
+            return this.get(index).asBoolean();
+        }
+
+        abstract void resize(final int capacity);
+
+        abstract void move(final int from, final int to, final int length);
+
+        abstract void clear(final int index);
+
+        abstract Column select(final int @Nullable [] rows, final int count);
+    }
+
+    /**
+     * A column of integers and decimals, stored in the same way as {@link
+     * JsonNumberArray}.
+     */
+    private static final class NumberColumn extends Column {
+        long[] bits;
+        @Nullable BitSet decimals;
+        @Nullable BitSet nulls;
+
+        NumberColumn(final int capacity) {
+            this.bits = new long[capacity];
+        }
+
+        static boolean isPlain(final JsonValue value) {
+            return value.getClass() == JsonNumber.class && !((JsonNumber) value).isDecimal();
+        }
+
+        @Override
+        JsonType type() {
+            return JsonType.NUMBER;
+        }
+
+        @Override
+        boolean accepts(final JsonValue value) {
+            return isPlain(value) || isNull(value);
+        }
+
+        @Override
+        void set(final int index, final JsonValue value) {
+            this.clear(index);
+            if (isNull(value)) {
+                if (this.nulls == null) {
+                    this.nulls = new BitSet();
+                }
+                this.nulls.set(index);
+            } else if (((JsonNumber) value).isLong()) {
+                this.bits[index] = value.asLong();
+            } else {
+                if (this.decimals == null) {
+                    this.decimals = new BitSet();
+                }
+                this.decimals.set(index);
+                this.bits[index] = Double.doubleToRawLongBits(value.asDouble());
+            }
+        }
+
+        @Override
+        boolean isNull(final int index) {
+            return this.nulls != null && this.nulls.get(index);
+        }
+
+        @Override
+        boolean isInteger(final int index) {
+            return this.decimals == null || !this.decimals.get(index);
+        }
+
+        @Override
+        JsonValue get(final int index) {
+            if (this.isNull(index)) {
+                return JsonLiteral.jsonNull();
+            } else if (this.isInteger(index)) {
+                return new JsonNumber(this.bits[index]);
+            }
+            return new JsonNumber(Double.longBitsToDouble(this.bits[index]));
+        }
+
+        @Override
+        double getDouble(final int index) {
+            if (this.isNull(index)) {
+                return super.getDouble(index);
+            } else if (this.isInteger(index)) {
+                return this.bits[index];
+            }
+            return Double.longBitsToDouble(this.bits[index]);
+        }
+
+        @Override
+        long getLong(final int index) {
+            if (this.isNull(index)) {
+                return super.getLong(index);
+            } else if (this.isInteger(index)) {
+                return this.bits[index];
+            }
+            return (long) Double.longBitsToDouble(this.bits[index]);
+        }
+
+        @Override
+        void resize(final int capacity) {
+            this.bits = Arrays.copyOf(this.bits, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to, final int length) {
+            System.arraycopy(this.bits, from, this.bits, to, length);
+            move(this.decimals, from, to, length);
+            move(this.nulls, from, to, length);
+        }
+
+        @Override
+        void clear(final int index) {
+            this.bits[index] = 0;
+            if (this.decimals != null) {
+                this.decimals.clear(index);
+            }
+            if (this.nulls != null) {
+                this.nulls.clear(index);
+            }
+        }
+
+        @Override
+        Column select(final int @Nullable [] rows, final int count) {
+            final NumberColumn copy = new NumberColumn(count);
+            for (int i = 0; i < count; i++) {
+                copy.bits[i] = this.bits[row(rows, i)];
+            }
+            copy.decimals = select(this.decimals, rows, count);
+            copy.nulls = select(this.nulls, rows, count);
+            return copy;
+        }
+    }
+
+    /**
+     * A column of strings, in which <code>null</code> is stored directly.
+     */
+    private static final class StringColumn extends Column {
+        String[] strings;
+
+        StringColumn(final int capacity) {
+            this.strings = new String[capacity];
+        }
+
+        @Override
+        JsonType type() {
+            return JsonType.STRING;
+        }
+
+        @Override
+        boolean accepts(final JsonValue value) {
+            return value.getClass() == JsonString.class || isNull(value);
+        }
+
+        @Override
+        void set(final int index, final JsonValue value) {
+            this.strings[index] = isNull(value) ? null : value.asString();
+        }
+
+        @Override
+        boolean isNull(final int index) {
+            return this.strings[index] == null;
+        }
+
+        @Override
+        JsonValue get(final int index) {
+            final String s = this.strings[index];
+            return s != null ? new JsonString(s) : JsonLiteral.jsonNull();
+        }
+
+        @Override
+        String getString(final int index) {
+            final String s = this.strings[index];
+            return s != null ? s : super.getString(index);
+        }
+
+        @Override
+        void resize(final int capacity) {
+            this.strings = Arrays.copyOf(this.strings, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to, final int length) {
+            System.arraycopy(this.strings, from, this.strings, to, length);
+        }
+
+        @Override
+        void clear(final int index) {
+            this.strings[index] = null;
+        }
+
+        @Override
+        Column select(final int @Nullable [] rows, final int count) {
+            final StringColumn copy = new StringColumn(count);
+            for (int i = 0; i < count; i++) {
+                copy.strings[i] = this.strings[row(rows, i)];
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * A column of booleans, stored as bits.
+     */
+    private static final class BooleanColumn extends Column {
+        BitSet values = new BitSet();
+        @Nullable BitSet nulls;
+
+        @Override
+        JsonType type() {
+            return JsonType.BOOLEAN;
+        }
+
+        @Override
+        boolean accepts(final JsonValue value) {
+            return value.getClass() == JsonLiteral.class;
+        }
+
+        @Override
+        void set(final int index, final JsonValue value) {
+            this.clear(index);
+            if (value.isNull()) {
+                if (this.nulls == null) {
+                    this.nulls = new BitSet();
+                }
+                this.nulls.set(index);
+            } else {
+                this.values.set(index, value.isTrue());
+            }
+        }
+
+        @Override
+        boolean isNull(final int index) {
+            return this.nulls != null && this.nulls.get(index);
+        }
+
+        @Override
+        JsonValue get(final int index) {
+            if (this.isNull(index)) {
+                return JsonLiteral.jsonNull();
+            }
+            return this.values.get(index) ? JsonLiteral.jsonTrue() : JsonLiteral.jsonFalse();
+        }
+
+        @Override
+        boolean getBoolean(final int index) {
+            return this.isNull(index) ? super.getBoolean(index) : this.values.get(index);
+        }
+
+        @Override
+        void resize(final int capacity) {}
+
+        @Override
+        void move(final int from, final int to, final int length) {
+            move(this.values, from, to, length);
+            move(this.nulls, from, to, length);
+        }
+
+        @Override
+        void clear(final int index) {
+            this.values.clear(index);
+            if (this.nulls != null) {
+                this.nulls.clear(index);
+            }
+        }
+
+        @Override
+        Column select(final int @Nullable [] rows, final int count) {
+            final BooleanColumn copy = new BooleanColumn();
+            copy.values = Objects.requireNonNull(select(this.values, rows, count));
+            copy.nulls = select(this.nulls, rows, count);
+            return copy;
+        }
+    }
+
+    /**
+     * A column of arbitrary values, in which <code>null</code> is stored
+     * directly. Each value is owned by the column until its row is boxed.
+     */
+    private static final class ValueColumn extends Column {
+        final @Nullable JsonType type;
+        JsonValue[] values;
+
+        ValueColumn(final @Nullable JsonType type, final int capacity) {
+            this.type = type;
+            this.values = new JsonValue[capacity];
+        }
+
+        boolean hasContainers(final int size) {
+            for (int i = 0; i < size; i++) {
+                final JsonValue value = this.values[i];
+                if (value != null && value.isContainer()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @Nullable JsonType type() {
+            return this.type;
+        }
+
+        @Override
+        boolean accepts(final JsonValue value) {
+            return this.type == null || isNull(value);
+        }
+
+        @Override
+        void set(final int index, final JsonValue value) {
+            this.values[index] = isNull(value) ? null : value.copy(JsonCopy.UNFORMATTED);
+        }
+
+        @Override
+        boolean isNull(final int index) {
+            return this.values[index] == null;
+        }
+
+        @Override
+        JsonValue get(final int index) {
+            final JsonValue value = this.values[index];
+            return value != null ? value : JsonLiteral.jsonNull();
+        }
+
+        @Override
+        JsonValue take(final int index) {
+            final JsonValue value = this.get(index);
+            this.values[index] = null;
+            return value;
+        }
+
+        @Override
+        void resize(final int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        void move(final int from, final int to, final int length) {
+            System.arraycopy(this.values, from, this.values, to, length);
+        }
+
+        @Override
+        void clear(final int index) {
+            this.values[index] = null;
+        }
+
+        @Override
+        Column select(final int @Nullable [] rows, final int count) {
+            final ValueColumn copy = new ValueColumn(this.type, count);
+            for (int i = 0; i < count; i++) {
+                final JsonValue value = this.values[row(rows, i)];
+                copy.values[i] = value != null ? value.copy(JsonCopy.UNFORMATTED) : null;
+            }
+            return copy;
+        }
+    }
+}
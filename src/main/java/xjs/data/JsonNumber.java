@@ -1,11 +1,68 @@
 package xjs.data;
 
+import org.jetbrains.annotations.Nullable;
+import xjs.data.serialization.util.DoubleParser;
+
+import java.math.BigDecimal;
+
+/**
+ * A JSON number, backed by one of three representations:
+ *
+ * <ul>
+ *   <li>a <code>long</code>, for integers, which is always exact,</li>
+ *   <li>a <code>double</code>, for any other number, or</li>
+ *   <li>the original text of a decimal number which cannot be represented
+ *       exactly by either type. This text is only parsed when the value
+ *       is first accessed, and is reprinted verbatim by writers.</li>
+ * </ul>
+ *
+ * <p>The representation does not affect equality. Any two numbers with the
+ * same numeric value are considered to {@link #matches match}.
+ */
 public class JsonNumber extends JsonValue {
 
-    private final double value;
+    private static final byte DOUBLE = 0;
+    private static final byte LONG = 1;
+    private static final byte DECIMAL = 2;
+    private static final long UNPARSED = 0x7FF0000000000001L;
+
+    private final @Nullable String text;
+    private final byte kind;
+    private final long bits;
+    // references are written atomically and Double is immutable, so the
+    // cache may be raced without ever observing a partial value
+    private @Nullable Double parsed;
 
     public JsonNumber(final double value) {
-        this.value = value;
+        this(Double.doubleToRawLongBits(value), DOUBLE, null);
+    }
+
+    public JsonNumber(final long value) {
+        this(value, LONG, null);
+    }
+
+    public JsonNumber(final BigDecimal value) {
+        this(UNPARSED, DECIMAL, value.toString());
+    }
+
+    private JsonNumber(final long bits, final byte kind, final @Nullable String text) {
+        this.bits = bits;
+        this.kind = kind;
+        this.text = text;
+    }
+
+    /**
+     * Constructs a number which retains its original text, deferring any
+     * parsing until the value is first accessed.
+     *
+     * <p>The text is <b>not validated</b>, and must be in a format accepted
+     * by {@link BigDecimal#BigDecimal(String)}.
+     *
+     * @param text The exact text of the number.
+     * @return A new {@link JsonNumber} backed by the given text.
+     */
+    public static JsonNumber fromText(final String text) {
+        return new JsonNumber(UNPARSED, DECIMAL, text);
     }
 
     @Override
@@ -13,9 +70,32 @@ public class JsonNumber extends JsonValue {
         return JsonType.NUMBER;
     }
 
+    /**
+     * Unwraps this number as a {@link Double}, regardless of how it is
+     * represented. Use {@link #unwrapExact} to preserve integers and
+     * decimals exactly.
+     *
+     * @return This value as a {@link Double}.
+     */
     @Override
     public Number unwrap() {
-        return this.value;
+        return this.asDouble();
+    }
+
+    /**
+     * Unwraps this number in its exact representation, i.e. as a {@link
+     * Long} for integers, a {@link BigDecimal} for numbers backed by their
+     * original text, or else a {@link Double}.
+     *
+     * @return The exact counterpart to this number.
+     */
+    public Number unwrapExact() {
+        if (this.kind == LONG) {
+            return this.bits;
+        } else if (this.text != null) {
+            return new BigDecimal(this.text);
+        }
+        return this.asDouble();
     }
 
     @Override
@@ -23,41 +103,149 @@ public class JsonNumber extends JsonValue {
         return true;
     }
 
+    /**
+     * Indicates whether this number is backed by an exact 64-bit integer.
+     *
+     * @return <code>true</code>, if {@link #asLong} is always exact.
+     */
+    public boolean isLong() {
+        return this.kind == LONG;
+    }
+
+    /**
+     * Indicates whether this number is backed by its original decimal text.
+     *
+     * @return <code>true</code>, if the exact text is available.
+     * @see #getText()
+     */
+    public boolean isDecimal() {
+        return this.text != null;
+    }
+
+    /**
+     * Gets the original text of this number, if it is a decimal.
+     *
+     * @return The exact text, or else <code>null</code>.
+     */
+    public @Nullable String getText() {
+        return this.text;
+    }
+
     @Override
     public long asLong() {
-        return (long) this.value;
+        if (this.kind == LONG) {
+            return this.bits;
+        } else if (this.text != null) {
+            final BigDecimal decimal = new BigDecimal(this.text);
+            if (decimal.abs().compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) < 0) {
+                return decimal.longValue();
+            }
+        }
+        return (long) this.asDouble();
     }
 
     @Override
     public int asInt() {
-        return (int) this.value;
+        if (this.kind == LONG) {
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, this.bits));
+        }
+        return (int) this.asDouble();
     }
 
     @Override
     public double asDouble() {
-        return this.value;
+        if (this.kind == LONG) {
+            return this.bits;
+        } else if (this.kind == DECIMAL) {
+            Double parsed = this.parsed;
+            if (parsed == null) {
+                parsed = DoubleParser.parseDouble(this.text);
+                this.parsed = parsed;
+            }
+            return parsed;
+        }
+        return Double.longBitsToDouble(this.bits);
     }
 
     @Override
     public float asFloat() {
-        return (float) this.value;
+        return (float) this.asDouble();
+    }
+
+    /**
+     * Gets the exact value of this number as a {@link BigDecimal}.
+     *
+     * @return This value as a {@link BigDecimal}.
+     * @throws NumberFormatException If this number is infinite or NaN.
+     */
+    public BigDecimal asBigDecimal() {
+        if (this.kind == LONG) {
+            return BigDecimal.valueOf(this.bits);
+        } else if (this.text != null) {
+            return new BigDecimal(this.text);
+        }
+        return BigDecimal.valueOf(this.asDouble());
+    }
+
+    @Override
+    public long intoLong() {
+        return this.asLong();
+    }
+
+    @Override
+    public int intoInt() {
+        return this.asInt();
     }
 
     @Override
     public double intoDouble() {
-        return this.value;
+        return this.asDouble();
     }
 
     @Override
     public String intoString() {
-        if (this.value % 1.0 == 0) {
-            return String.valueOf((int) this.value);
+        if (this.kind == LONG) {
+            return Long.toString(this.bits);
+        } else if (this.text != null) {
+            return this.text;
+        }
+        final double value = this.asDouble();
+        final long integer = (long) value;
+        if (integer == value) {
+            return Long.toString(integer);
         }
-        return String.valueOf(this.value);
+        return String.valueOf(value);
+    }
+
+    @Override
+    public int valueHashCode() {
+        return Double.hashCode(this.asDouble());
+    }
+
+    @Override
+    public boolean matches(final JsonValue other) {
+        if (!(other instanceof JsonNumber)) {
+            return false;
+        }
+        final JsonNumber n = (JsonNumber) other;
+        if (this.kind == LONG && n.kind == LONG) {
+            return this.bits == n.bits;
+        }
+        final double d = this.asDouble();
+        final double o = n.asDouble();
+        if (Double.compare(d, o) != 0) {
+            return false;
+        } else if ((this.text != null || n.text != null) && Double.isFinite(d)) {
+            return this.asBigDecimal().compareTo(n.asBigDecimal()) == 0;
+        } else if (this.kind == LONG || n.kind == LONG) {
+            // distinguish integers which round to the same double
+            return d != 0x1p63 && (long) d == (this.kind == LONG ? this.bits : n.bits);
+        }
+        return true;
     }
 
     @Override
     public JsonNumber copy(final int options) {
-        return withMetadata(new JsonNumber(this.value), this, options);
+        return withMetadata(new JsonNumber(this.bits, this.kind, this.text), this, options);
     }
 }
@@ -0,0 +1,511 @@
+package xjs.data;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link JsonArray} of numbers, in which each number is stored as a
+ * primitive instead of a {@link JsonReference} and {@link JsonNumber}.
+ *
+ * <p>This array supports every operation of a regular {@link JsonArray}.
+ * However, a reference is only created for a number when it is needed by
+ * the caller, i.e. when the element is accessed by {@link #get(int)},
+ * {@link #getReference(int)}, or by iterating over the array. Until then,
+ * the numbers may be read directly as primitives:
+ *
+ * <pre>{@code
+ *   final JsonNumberArray array = new JsonNumberArray(new double[] { 1, 2, 3 });
+ *   assert array.doubleStream().sum() == 6;
+ * }</pre>
+ *
+ * <p>Integers and decimals may both be stored in the same array, and each
+ * element retains its exact value and kind when it is boxed. Any other value
+ * or reference added into this array is stored as-is.
+ *
+ * <p>Numbers stored as primitives share a single number of lines above them.
+ * This is typically the case for arrays which are parsed from JSON data or
+ * built programmatically, which means this array is compatible with formatted
+ * output, but numbers having any other metadata are simply boxed.
+ */
+public class JsonNumberArray extends JsonArray {
+
+    private final NumberList numbers;
+
+    /**
+     * Constructs a new numeric array containing no contents.
+     */
+    public JsonNumberArray() {
+        this(new NumberList(NumberList.EMPTY, null, 0));
+    }
+
+    /**
+     * Constructs a new numeric array containing each of the given integers.
+     *
+     * @param values The integers being copied into this array.
+     */
+    public JsonNumberArray(final long[] values) {
+        this(new NumberList(values.clone(), null, values.length));
+    }
+
+    /**
+     * Constructs a new numeric array containing each of the given decimals.
+     *
+     * @param values The decimals being copied into this array.
+     */
+    public JsonNumberArray(final double[] values) {
+        this(NumberList.ofDoubles(values));
+    }
+
+    private JsonNumberArray(final NumberList numbers) {
+        super(numbers);
+        this.numbers = numbers;
+    }
+
+    @Override
+    public JsonNumberArray add(final long value) {
+        this.numbers.addLong(value);
+        return this;
+    }
+
+    @Override
+    public JsonNumberArray add(final double value) {
+        this.numbers.addDouble(value);
+        return this;
+    }
+
+    /**
+     * Copies a value into this array if it is a number. Plain numbers are
+     * stored as primitives, meaning the original value is not retained.
+     *
+     * @param value The value being added into the container.
+     * @return <code>true</code>, if the value is a number and was added.
+     */
+    public boolean addIfNumber(final JsonValue value) {
+        if (value instanceof JsonNumber) {
+            this.numbers.addNumber((JsonNumber) value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number at the given index as a decimal, without boxing it.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param index The index of the number.
+     * @return The number as a decimal.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws UnsupportedOperationException If the element is not a number.
+     */
+    public double getDouble(final int index) {
+        return this.numbers.getDouble(index);
+    }
+
+    /**
+     * Returns the number at the given index as an integer, without boxing it.
+     *
+     * <p>This is a {@link JsonReference#getOnly visiting} operation.
+     *
+     * @param index The index of the number.
+     * @return The number as an integer.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     * @throws UnsupportedOperationException If the element is not a number.
+     */
+    public long getLong(final int index) {
+        return this.numbers.getLong(index);
+    }
+
+    /**
+     * Copies every number in this array into a new array of decimals.
+     *
+     * @return The numbers in this array, as decimals.
+     * @throws UnsupportedOperationException If any element is not a number.
+     */
+    public double[] toDoubleArray() {
+        final double[] values = new double[this.numbers.size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.numbers.getDouble(i);
+        }
+        return values;
+    }
+
+    /**
+     * Copies every number in this array into a new array of integers.
+     *
+     * @return The numbers in this array, as integers.
+     * @throws UnsupportedOperationException If any element is not a number.
+     */
+    public long[] toLongArray() {
+        final long[] values = new long[this.numbers.size];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.numbers.getLong(i);
+        }
+        return values;
+    }
+
+    /**
+     * Streams every number in this array as a decimal, without boxing it.
+     *
+     * @return A stream of the numbers in this array.
+     */
+    public DoubleStream doubleStream() {
+        return IntStream.range(0, this.numbers.size).mapToDouble(this.numbers::getDouble);
+    }
+
+    /**
+     * Indicates whether the element at the given index is currently stored
+     * as a reference instead of a primitive.
+     *
+     * @param index The index of the element.
+     * @return <code>true</code>, if the element has been boxed.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    public boolean isBoxed(final int index) {
+        return this.numbers.boxed(index) != null;
+    }
+
+    /**
+     * Indicates whether the primitive at the given index is an integer. This
+     * is meaningful only when the element is not {@link #isBoxed boxed}.
+     *
+     * @param index The index of the element.
+     * @return <code>true</code>, if the element is stored as an integer.
+     */
+    public boolean isInteger(final int index) {
+        return !this.numbers.isDecimal(index);
+    }
+
+    /**
+     * Gets the number of lines above every number which is stored as a
+     * primitive.
+     *
+     * @return The lines above each primitive element, or else -1.
+     */
+    public int getElementLinesAbove() {
+        return this.numbers.linesAbove;
+    }
+
+    /**
+     * Indicates whether every element in this array is a number with no
+     * comments and the same number of {@link #getElementLinesAbove lines
+     * above}. Uniform arrays may be written without boxing any elements.
+     *
+     * @return <code>true</code>, if every element has the same formatting.
+     */
+    public boolean isUniform() {
+        return this.numbers.isUniform();
+    }
+
+    @Override
+    public JsonNumberArray copy(final int options) {
+        final JsonNumberArray copy = new JsonNumberArray(this.numbers.copy(options));
+        if ((options & JsonCopy.FORMATTING) == JsonCopy.FORMATTING) {
+            copy.setLinesTrailing(this.linesTrailing);
+        }
+        return withMetadata(copy, this, options);
+    }
+
+    /**
+     * A list of references which are created on demand from primitives.
+     *
+     * <p>Each number is stored in a single array of longs, containing either
+     * the integer itself or the bits of a decimal. Decimals are flagged in a
+     * separate set, which is only allocated once a decimal is added.
+     */
+    private static final class NumberList extends AbstractList<JsonReference> implements RandomAccess {
+        static final int DEFAULT_CAPACITY = 10;
+        static final long[] EMPTY = {};
+
+        long[] bits;
+        @Nullable BitSet decimals;
+        JsonReference @Nullable [] boxed;
+        int size;
+        int linesAbove = -1;
+
+        NumberList(final long[] bits, final @Nullable BitSet decimals, final int size) {
+            this.bits = bits;
+            this.decimals = decimals;
+            this.size = size;
+        }
+
+        static NumberList ofDoubles(final double[] values) {
+            final long[] bits = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                bits[i] = Double.doubleToRawLongBits(values[i]);
+            }
+            final BitSet decimals = new BitSet(values.length);
+            decimals.set(0, values.length);
+            return new NumberList(bits, decimals, values.length);
+        }
+
+        void addLong(final long value) {
+            if (this.acceptsLinesAbove(-1)) {
+                this.append(value, false);
+            } else {
+                this.add(new JsonReference(new JsonNumber(value)));
+            }
+        }
+
+        void addDouble(final double value) {
+            if (this.acceptsLinesAbove(-1)) {
+                this.append(Double.doubleToRawLongBits(value), true);
+            } else {
+                this.add(new JsonReference(new JsonNumber(value)));
+            }
+        }
+
+        void addNumber(final JsonNumber number) {
+            if (number.getClass() == JsonNumber.class
+                    && number.comments == null
+                    && !number.isDecimal()
+                    && this.acceptsLinesAbove(number.linesAbove)) {
+                if (number.isLong()) {
+                    this.append(number.asLong(), false);
+                } else {
+                    this.append(Double.doubleToRawLongBits(number.asDouble()), true);
+                }
+            } else {
+                this.add(new JsonReference(number));
+            }
+        }
+
+        // the first element decides the lines above every primitive
+        private boolean acceptsLinesAbove(final int linesAbove) {
+            if (this.size == 0) {
+                this.linesAbove = linesAbove;
+                return true;
+            }
+            return this.linesAbove == linesAbove;
+        }
+
+        private void append(final long bits, final boolean decimal) {
+            this.ensureCapacity(this.size + 1);
+            if (decimal) {
+                this.decimals().set(this.size);
+            }
+            this.bits[this.size++] = bits;
+            this.modCount++;
+        }
+
+        private BitSet decimals() {
+            if (this.decimals == null) {
+                this.decimals = new BitSet();
+            }
+            return this.decimals;
+        }
+
+        boolean isDecimal(final int index) {
+            return this.decimals != null && this.decimals.get(index);
+        }
+
+        @Nullable JsonReference boxed(final int index) {
+            Objects.checkIndex(index, this.size);
+            return this.boxed != null ? this.boxed[index] : null;
+        }
+
+        double getDouble(final int index) {
+            final JsonReference reference = this.boxed(index);
+            if (reference != null) {
+                return reference.getOnly().asDouble();
+            } else if (this.isDecimal(index)) {
+                return Double.longBitsToDouble(this.bits[index]);
+            }
+            return this.bits[index];
+        }
+
+        long getLong(final int index) {
+            final JsonReference reference = this.boxed(index);
+            if (reference != null) {
+                return reference.getOnly().asLong();
+            } else if (this.isDecimal(index)) {
+                return (long) Double.longBitsToDouble(this.bits[index]);
+            }
+            return this.bits[index];
+        }
+
+        boolean isUniform() {
+            if (this.boxed == null) {
+                return true;
+            }
+            for (int i = 0; i < this.size; i++) {
+                final JsonReference reference = this.boxed[i];
+                if (reference != null) {
+                    final JsonValue value = reference.getOnly();
+                    if (!(value instanceof JsonNumber)
+                            || value.comments != null
+                            || value.linesAbove != this.linesAbove) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private JsonNumber box(final int index) {
+            final JsonNumber number = this.isDecimal(index)
+                ? new JsonNumber(Double.longBitsToDouble(this.bits[index]))
+                : new JsonNumber(this.bits[index]);
+            number.linesAbove = this.linesAbove;
+            return number;
+        }
+
+        // creates a reference without retaining it
+        private JsonReference peek(final int index) {
+            final JsonReference reference = this.boxed(index);
+            return reference != null ? reference : new JsonReference(this.box(index));
+        }
+
+        @Override
+        public JsonReference get(final int index) {
+            JsonReference reference = this.boxed(index);
+            if (reference == null) {
+                reference = new JsonReference(this.box(index));
+                this.boxed()[index] = reference;
+            }
+            return reference;
+        }
+
+        private JsonReference[] boxed() {
+            if (this.boxed == null) {
+                this.boxed = new JsonReference[this.bits.length];
+            }
+            return this.boxed;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public JsonReference set(final int index, final JsonReference element) {
+            final JsonReference previous = this.peek(index);
+            this.boxed()[index] = Objects.requireNonNull(element);
+            return previous;
+        }
+
+        @Override
+        public void add(final int index, final JsonReference element) {
+            Objects.checkIndex(index, this.size + 1);
+            this.ensureCapacity(this.size + 1);
+            final JsonReference[] boxed = this.boxed();
+            final int moved = this.size - index;
+            System.arraycopy(this.bits, index, this.bits, index + 1, moved);
+            System.arraycopy(boxed, index, boxed, index + 1, moved);
+            if (this.decimals != null) {
+                for (int i = this.size; i > index; i--) {
+                    this.decimals.set(i, this.decimals.get(i - 1));
+                }
+                this.decimals.clear(index);
+            }
+            this.bits[index] = 0;
+            boxed[index] = Objects.requireNonNull(element);
+            this.size++;
+            this.modCount++;
+        }
+
+        @Override
+        public JsonReference remove(final int index) {
+            final JsonReference previous = this.peek(index);
+            final int moved = this.size - index - 1;
+            System.arraycopy(this.bits, index + 1, this.bits, index, moved);
+            if (this.boxed != null) {
+                System.arraycopy(this.boxed, index + 1, this.boxed, index, moved);
+                this.boxed[this.size - 1] = null;
+            }
+            if (this.decimals != null) {
+                for (int i = index; i < this.size - 1; i++) {
+                    this.decimals.set(i, this.decimals.get(i + 1));
+                }
+                this.decimals.clear(this.size - 1);
+            }
+            this.size--;
+            this.modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            this.bits = EMPTY;
+            this.decimals = null;
+            this.boxed = null;
+            this.size = 0;
+            this.modCount++;
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity > this.bits.length) {
+                final int grown = Math.max(Math.max(capacity, DEFAULT_CAPACITY), this.bits.length + (this.bits.length >> 1));
+                this.bits = Arrays.copyOf(this.bits, grown);
+                if (this.boxed != null) {
+                    this.boxed = Arrays.copyOf(this.boxed, grown);
+                }
+            }
+        }
+
+        NumberList copy(final int options) {
+            final boolean tracking = (options & JsonCopy.TRACKING) == JsonCopy.TRACKING;
+            final boolean recursive = (options & JsonCopy.RECURSIVE) == JsonCopy.RECURSIVE;
+            final boolean containers = (options & JsonCopy.CONTAINERS) == JsonCopy.CONTAINERS;
+            if (!recursive && !containers) {
+                return this;
+            }
+            final BitSet decimals = this.decimals != null ? (BitSet) this.decimals.clone() : null;
+            final NumberList copy =
+                new NumberList(Arrays.copyOf(this.bits, this.size), decimals, this.size);
+            if (!recursive || (options & JsonCopy.FORMATTING) == JsonCopy.FORMATTING) {
+                copy.linesAbove = this.linesAbove;
+            }
+            if (this.boxed != null) {
+                final JsonReference[] boxed = copy.boxed();
+                for (int i = 0; i < this.size; i++) {
+                    final JsonReference reference = this.boxed[i];
+                    if (reference == null) {
+                        continue;
+                    } else if (recursive || reference.getOnly().isContainer()) {
+                        boxed[i] = reference.copy(tracking).applyOnly(v -> v.copy(options));
+                    } else {
+                        boxed[i] = reference;
+                    }
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof List<?> other) || other.size() != this.size) {
+                return false;
+            }
+            final NumberList numbers = o instanceof NumberList n ? n : null;
+            for (int i = 0; i < this.size; i++) {
+                final Object element = numbers != null ? numbers.peek(i) : other.get(i);
+                if (!this.peek(i).equals(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 1;
+            for (int i = 0; i < this.size; i++) {
+                result = 31 * result + this.peek(i).hashCode();
+            }
+            return result;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -62,15 +63,25 @@ import java.util.stream.Stream;
  */
 public class JsonObject extends JsonContainer implements JsonContainer.View<JsonObject.Member> {
 
-    private final List<String> keys;
-    private final transient HashIndexTable table;
+    private List<String> keys;
+    private transient HashIndexTable table;
+    private transient @Nullable ObjectShape shape;
 
     /**
      * Constructs a new JSON object containing no contents.
+     *
+     * <p>Objects constructed this way share their keys and index with any
+     * other object having the same keys in the same order. The layout is
+     * only copied into this object if its keys are modified in some way
+     * other than by appending them.
      */
     public JsonObject() {
-        this.keys = new ArrayList<>();
-        this.table = new HashIndexTable();
+        this.setShape(ObjectShape.EMPTY);
+    }
+
+    JsonObject(final ObjectShape shape, final List<JsonReference> references) {
+        super(references);
+        this.setShape(shape);
     }
 
     protected JsonObject(final List<String> keys, final List<JsonReference> references) {
@@ -80,6 +91,21 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
         this.table.init(this.keys);
     }
 
+    /**
+     * Constructs a new JSON object from existing data, including an index
+     * table which is assumed to already be in sync with the given keys.
+     *
+     * @param keys       The keys of each member.
+     * @param references The references of each member.
+     * @param table      A table mapping each key to its index.
+     */
+    protected JsonObject(
+            final List<String> keys, final List<JsonReference> references, final HashIndexTable table) {
+        super(references);
+        this.keys = keys;
+        this.table = table;
+    }
+
     /**
      * Returns an unmodifiable view of the keys in this object.
      *
@@ -381,9 +407,17 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
      * @return <code>this</code>, for method chaining.
      */
     public JsonObject addReference(final String key, final JsonReference reference) {
-        this.table.add(key, this.keys.size());
-        this.keys.add(key);
         this.references.add(reference);
+        if (this.shape != null) {
+            final ObjectShape next = this.shape.add(key);
+            if (next != null) {
+                this.setShape(next);
+                return this;
+            }
+            this.setKeys(new ArrayList<>(this.keys));
+        }
+        this.keys.add(key);
+        this.table.add(key, this.keys.size() - 1);
         return this;
     }
 
@@ -402,9 +436,9 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
         }
         this.references.get(index).apply(og ->
             Json.nonnull(value).setDefaultMetadata(og));
-        this.keys.set(index, key);
-        this.table.clear();
-        this.table.init(this.keys);
+        final List<String> keys = this.editKeys();
+        keys.set(index, key);
+        this.updateKeys(keys);
         return this;
     }
 
@@ -417,9 +451,9 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
      */
     public JsonObject setKey(final int index, final String key) {
         if (index >= 0 && index < this.references.size()) {
-            this.keys.set(index, key);
-            this.table.clear();
-            this.table.init(this.keys);
+            final List<String> keys = this.editKeys();
+            keys.set(index, key);
+            this.updateKeys(keys);
         }
         return this;
     }
@@ -446,9 +480,9 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
      */
     public JsonObject insertReference(final int index, final String key, final JsonReference reference) {
         this.references.add(index, reference);
-        this.keys.add(index, key);
-        this.table.clear();
-        this.table.init(this.keys);
+        final List<String> keys = this.editKeys();
+        keys.add(index, key);
+        this.updateKeys(keys);
         return this;
     }
 
@@ -587,9 +621,7 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
     public JsonObject remove(final String key) {
         final int index = this.indexOf(key);
         if (index != -1) {
-            this.references.remove(index);
-            this.keys.remove(index);
-            this.table.remove(index);
+            this.removeIndex(index);
         }
         return this;
     }
@@ -597,11 +629,52 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
     /**
      * Removes any number of values from this container by key.
      *
+     * <p>As with {@link #remove(String)}, each key removes the <em>last</em>
+     * value paired with it. The remaining members are compacted and the index
+     * is rebuilt in a single pass, regardless of how many keys are removed.
+     *
      * @param keys The keys of the values being purged.
      * @return <code>this</code>, for method chaining.
      */
     public JsonObject removeAllKeys(final Iterable<String> keys) {
-        keys.forEach(this::remove);
+        final Map<String, Integer> counts = new HashMap<>();
+        for (final String key : keys) {
+            counts.merge(key, 1, Integer::sum);
+        }
+        if (counts.isEmpty()) {
+            return this;
+        }
+        final List<String> current = this.keys;
+        final int size = current.size();
+        final boolean[] removed = new boolean[size];
+        int numRemoved = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            final String key = current.get(i);
+            final Integer count = counts.get(key);
+            if (count != null && count > 0) {
+                counts.put(key, count - 1);
+                removed[i] = true;
+                numRemoved++;
+            }
+        }
+        if (numRemoved == 0) {
+            return this;
+        }
+        final List<String> edited = this.editKeys();
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                continue;
+            }
+            if (i != next) {
+                this.references.set(next, this.references.get(i));
+                edited.set(next, edited.get(i));
+            }
+            next++;
+        }
+        this.references.subList(next, size).clear();
+        edited.subList(next, size).clear();
+        this.updateKeys(edited);
         return this;
     }
 
@@ -613,16 +686,101 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
      * @return The index of this key, or else -1.
      */
     public int indexOf(final String key) {
-        final int index = this.table.get(key);
-        if (index != -1 && key.equals(this.keys.get(index))) {
-            return index;
+        return this.table.get(key);
+    }
+
+    private void removeIndex(final int index) {
+        this.references.remove(index);
+        this.removeKey(index);
+    }
+
+    private void removeKey(final int index) {
+        if (this.shape != null) {
+            final List<String> keys = this.editKeys();
+            keys.remove(index);
+            this.updateKeys(keys);
+            return;
         }
-        return this.keys.lastIndexOf(key);
+        final String key = this.keys.remove(index);
+        this.table.remove(index);
+        // an earlier duplicate may now be the last occurrence
+        final int previous = this.keys.lastIndexOf(key);
+        if (previous != -1) {
+            this.table.add(key, previous);
+        }
+    }
+
+    /**
+     * Returns a list of keys which may be modified in place, copying them
+     * out of the shared shape, if necessary.
+     *
+     * @return The keys to be modified and passed into {@link #updateKeys}.
+     */
+    private List<String> editKeys() {
+        return this.shape != null ? new ArrayList<>(this.keys) : this.keys;
+    }
+
+    /**
+     * Rebuilds the index after the keys returned by {@link #editKeys} have
+     * been modified. Shared objects transition to the shape of their new
+     * keys, or else take ownership of them if no shape can be shared.
+     *
+     * @param keys The modified keys.
+     */
+    private void updateKeys(final List<String> keys) {
+        if (this.shape != null) {
+            final ObjectShape next = ObjectShape.of(keys);
+            if (next != null) {
+                this.setShape(next);
+                return;
+            }
+            this.setKeys(keys);
+            return;
+        }
+        this.table.clear();
+        this.table.init(keys);
+    }
+
+    private void setShape(final ObjectShape shape) {
+        this.shape = shape;
+        this.keys = shape.keys;
+        this.table = shape.table;
+    }
+
+    private void setKeys(final List<String> keys) {
+        this.shape = null;
+        this.keys = keys;
+        this.table = new HashIndexTable();
+        this.table.init(keys);
+    }
+
+    /**
+     * Indicates whether this object shares its keys and index with every
+     * other object having the same keys in the same order.
+     *
+     * @return <code>true</code>, if this object's layout is shared.
+     */
+    boolean isShared() {
+        return this.shape != null;
+    }
+
+    /**
+     * Indicates whether this object shares its layout with another object.
+     *
+     * @param other The object being compared to.
+     * @return <code>true</code>, if both objects point to the same shape.
+     */
+    boolean hasSameShape(final JsonObject other) {
+        return this.shape != null && this.shape == other.shape;
     }
 
     @Override
     public JsonObject clear() {
         this.references.clear();
+        if (this.shape != null) {
+            this.setShape(ObjectShape.EMPTY);
+            return this;
+        }
         this.keys.clear();
         this.table.clear();
         return this;
@@ -632,9 +790,7 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
     public JsonObject remove(final JsonValue value) {
         final int index = this.indexOf(value);
         if (index != -1) {
-            this.references.remove(index);
-            this.keys.remove(index);
-            this.table.remove(index);
+            this.removeIndex(index);
         }
         return this;
     }
@@ -658,8 +814,9 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
     }
 
     public JsonObject copy(final int options) {
-        final JsonObject copy =
-            new JsonObject(new ArrayList<>(this.keys), this.copyReferences(options));
+        final JsonObject copy = this.shape != null
+            ? new JsonObject(this.shape, this.copyReferences(options))
+            : new JsonObject(new ArrayList<>(this.keys), this.copyReferences(options));
         if ((options & JsonCopy.FORMATTING) == JsonCopy.FORMATTING) {
             copy.setLinesTrailing(this.linesTrailing);
         }
@@ -698,8 +855,13 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
 
     private synchronized void readObject(final ObjectInputStream ois) throws IOException, ClassNotFoundException {
         ois.defaultReadObject();
-        this.table.clear();
-        this.table.init(this.keys);
+        final List<String> keys = new ArrayList<>(this.keys);
+        final ObjectShape shape = ObjectShape.of(keys);
+        if (shape != null) {
+            this.setShape(shape);
+        } else {
+            this.setKeys(keys);
+        }
     }
 
     @Override
@@ -750,7 +912,11 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
 
     @Override
     public JsonObject freeze(final boolean recursive) {
-        return new JsonObject(this.keys, this.freezeReferences(recursive));
+        if (this.shape != null) {
+            // shared keys are never modified in place
+            return new JsonObject(this.shape.keys, this.freezeReferences(recursive), this.shape.table);
+        }
+        return new JsonObject(List.copyOf(this.keys), this.freezeReferences(recursive));
     }
 
     @Override
@@ -774,26 +940,26 @@ public class JsonObject extends JsonContainer implements JsonContainer.View<Json
     }
 
     private class MemberIterator implements Iterator<Member> {
-        final Iterator<String> keys =
-            JsonObject.this.keys.iterator();
         final Iterator<JsonReference> references =
             JsonObject.this.references.iterator();
         int index = 0;
 
         @Override
         public boolean hasNext() {
-            return this.keys.hasNext() && this.references.hasNext();
+            return this.index < JsonObject.this.keys.size() && this.references.hasNext();
         }
 
         @Override
         public Member next() {
-            return new Member(this.index++, this.keys.next(), this.references.next());
+            final JsonReference reference = this.references.next();
+            final String key = JsonObject.this.keys.get(this.index);
+            return new Member(this.index++, key, reference);
         }
 
         @Override
         public void remove() {
             this.references.remove();
-            this.keys.remove();
+            JsonObject.this.removeKey(--this.index);
         }
     }
 
@@ -6,6 +6,7 @@ import xjs.data.comments.CommentHolder;
 import xjs.data.comments.CommentStyle;
 import xjs.data.comments.CommentType;
 import xjs.data.serialization.JsonContext;
+import xjs.data.serialization.util.Utf8Writer;
 import xjs.data.serialization.writer.JsonWriter;
 import xjs.data.serialization.writer.JsonWriterOptions;
 import xjs.data.serialization.writer.DjsWriter;
@@ -843,16 +844,7 @@ public abstract class JsonValue implements Serializable {
      */
     public String toString(final JsonFormat format) {
         final StringWriter sw = new StringWriter();
-        try {
-            switch (format) {
-                case JSON -> new JsonWriter(sw, false).write(this);
-                case JSON_FORMATTED -> new JsonWriter(sw, true).write(this);
-                case DJS -> new DjsWriter(sw, false).write(this);
-                case DJS_FORMATTED -> new DjsWriter(sw, true).write(this);
-            }
-        } catch (final IOException e) {
-            throw new UncheckedIOException("Encoding error", e);
-        }
+        this.write(sw, format);
         return sw.toString();
     }
 
@@ -871,4 +863,58 @@ public abstract class JsonValue implements Serializable {
         }
         return sw.toString();
     }
+
+    /**
+     * Encodes this value as unformatted JSON in UTF-8.
+     *
+     * <p>Unlike {@link #toString()}, primitive values are always written in
+     * JSON format.
+     *
+     * @return This value as an array of UTF-8 bytes.
+     */
+    public byte[] toBytes() {
+        return this.toBytes(JsonFormat.JSON);
+    }
+
+    /**
+     * Encodes this value in the given format as UTF-8, without creating an
+     * intermediate string.
+     *
+     * @param format The expected format in which to write this value.
+     * @return This value as an array of UTF-8 bytes.
+     */
+    public byte[] toBytes(final JsonFormat format) {
+        final Utf8Writer.Growable out = Utf8Writer.growable();
+        this.write(out, format);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes this value as formatted DJS in UTF-8 using the given options.
+     *
+     * @param options Formatting options indicating how to output this value.
+     * @return This value as an array of UTF-8 bytes.
+     */
+    public byte[] toBytes(final JsonWriterOptions options) {
+        final Utf8Writer.Growable out = Utf8Writer.growable();
+        try {
+            new DjsWriter(out, options).write(this);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encoding error", e);
+        }
+        return out.toByteArray();
+    }
+
+    private void write(final Writer writer, final JsonFormat format) {
+        try {
+            switch (format) {
+                case JSON -> new JsonWriter(writer, false).write(this);
+                case JSON_FORMATTED -> new JsonWriter(writer, true).write(this);
+                case DJS -> new DjsWriter(writer, false).write(this);
+                case DJS_FORMATTED -> new DjsWriter(writer, true).write(this);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encoding error", e);
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package xjs.data;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.data.serialization.util.HashIndexTable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable layout of keys which may be shared by any number of {@link
+ * JsonObject objects}.
+ *
+ * <p>Objects with the same keys in the same order point to a single shape,
+ * which holds the key list and the table indexing it. Each object retains
+ * only its values. When a key is appended to an object, the object moves
+ * to the next shape in a tree of transitions rooted at {@link #EMPTY},
+ * meaning records which are built in the same order converge on the same
+ * shape without ever comparing their key lists.
+ *
+ * <p>Transitions are held weakly, and so shapes which are no longer used by
+ * any object may be collected. To avoid retaining arbitrary keys, such as
+ * when objects are used as maps, the tree is bounded in both depth and
+ * breadth. Objects which exceed these bounds simply own their own keys.
+ */
+final class ObjectShape {
+
+    /**
+     * The shape of every empty object.
+     */
+    static final ObjectShape EMPTY = new ObjectShape(null, List.of());
+
+    /**
+     * The largest number of keys in any shared shape.
+     */
+    static final int MAX_KEYS = 64;
+
+    /**
+     * The largest number of transitions from any single shape.
+     */
+    static final int MAX_TRANSITIONS = 256;
+
+    final List<String> keys;
+    final HashIndexTable table;
+    // keeps intermediate shapes reachable while any descendant is in use
+    private final @Nullable ObjectShape parent;
+    private final Map<String, WeakReference<ObjectShape>> transitions;
+
+    private ObjectShape(final @Nullable ObjectShape parent, final List<String> keys) {
+        this.parent = parent;
+        this.keys = keys;
+        this.table = new HashIndexTable();
+        this.table.init(keys);
+        this.transitions = new ConcurrentHashMap<>(4);
+    }
+
+    /**
+     * Finds the shared shape for the given keys by following transitions
+     * from {@link #EMPTY}.
+     *
+     * @param keys The ordered keys of some object.
+     * @return The shared shape, or else <code>null</code> if out of bounds.
+     */
+    static @Nullable ObjectShape of(final List<String> keys) {
+        ObjectShape shape = EMPTY;
+        for (int i = 0; i < keys.size() && shape != null; i++) {
+            shape = shape.add(keys.get(i));
+        }
+        return shape;
+    }
+
+    /**
+     * Returns the shape of an object with these keys after appending the
+     * given key, creating it if necessary.
+     *
+     * @param key The key being appended.
+     * @return The next shape, or else <code>null</code> if out of bounds.
+     */
+    @Nullable ObjectShape add(final String key) {
+        final WeakReference<ObjectShape> cached = this.transitions.get(key);
+        ObjectShape next;
+        if (cached != null && (next = cached.get()) != null) {
+            return next;
+        } else if (this.keys.size() >= MAX_KEYS) {
+            return null;
+        }
+        synchronized (this) {
+            final WeakReference<ObjectShape> current = this.transitions.get(key);
+            if (current != null && (next = current.get()) != null) {
+                return next;
+            }
+            if (current == null && this.transitions.size() >= MAX_TRANSITIONS) {
+                this.transitions.values().removeIf(t -> t.get() == null);
+                if (this.transitions.size() >= MAX_TRANSITIONS) {
+                    return null;
+                }
+            }
+            final List<String> keys = new ArrayList<>(this.keys.size() + 1);
+            keys.addAll(this.keys);
+            keys.add(key);
+            next = new ObjectShape(this, Collections.unmodifiableList(keys));
+            this.transitions.put(key, new WeakReference<>(next));
+            return next;
+        }
+    }
+}
@@ -6,8 +6,11 @@ package xjs.data.exception;
  */
 public class SyntaxException extends RuntimeException {
 
+    private final String description;
     private final int line;
     private final int column;
+    private final int record;
+    private final long offset;
 
     /**
      * Constructs a new syntax exception indicating the line and column numbers, as well
@@ -18,9 +21,54 @@ public class SyntaxException extends RuntimeException {
      * @param column The column number, <b>starting at column 1</b>.
      */
     public SyntaxException(final String msg, final int line, final int column) {
-        super(msg + " at " + line + ":" + column);
+        this(msg, line, column, -1, -1);
+    }
+
+    private SyntaxException(
+            final String msg, final int line, final int column, final int record, final long offset) {
+        super(record < 0
+            ? msg + " at " + line + ":" + column
+            : msg + " at " + line + ":" + column + " in record " + record + " (offset " + offset + ")");
+        this.description = msg;
         this.line = line;
         this.column = column;
+        this.record = record;
+        this.offset = offset;
+    }
+
+    /**
+     * Generates a copy of this exception indicating which record of a multi-record
+     * input, e.g. NDJSON, the error occurred in.
+     *
+     * @param record The record number, <b>starting at record 1</b>.
+     * @param offset The character offset at which this record begins.
+     * @return A new syntax exception reporting this error.
+     */
+    public SyntaxException inRecord(final int record, final long offset) {
+        return this.copy(this.line, record, offset);
+    }
+
+    /**
+     * Generates a copy of this exception which has been relocated by the given amounts,
+     * e.g. when the input was parsed in separate chunks.
+     *
+     * @param lines   The number of lines preceding the input which was parsed.
+     * @param records The number of records preceding the input which was parsed.
+     * @param offset  The number of characters preceding the input which was parsed.
+     * @return A new syntax exception reporting this error.
+     */
+    public SyntaxException shift(final int lines, final int records, final long offset) {
+        if (this.record < 0) {
+            return this.copy(this.line + lines, -1, -1);
+        }
+        return this.copy(this.line + lines, this.record + records, this.offset + offset);
+    }
+
+    private SyntaxException copy(final int line, final int record, final long offset) {
+        final SyntaxException e =
+            new SyntaxException(this.description, line, this.column, record, offset);
+        e.setStackTrace(this.getStackTrace());
+        return e;
     }
 
     /**
@@ -105,4 +153,22 @@ public class SyntaxException extends RuntimeException {
     public int getColumn() {
         return this.column;
     }
+
+    /**
+     * Indicates the record number at which the error occurred, starting at index 1.
+     *
+     * @return The record number, or else -1 if the input is not made of records.
+     */
+    public int getRecord() {
+        return this.record;
+    }
+
+    /**
+     * Indicates the character offset of the record in which the error occurred.
+     *
+     * @return The offset of the record, or else -1 if the input is not made of records.
+     */
+    public long getOffset() {
+        return this.offset;
+    }
 }
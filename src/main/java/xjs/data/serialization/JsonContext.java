@@ -59,6 +59,7 @@ public class JsonContext {
     private static volatile String eol = System.lineSeparator();
     private static volatile CommentStyle defaultCommentStyle = CommentStyle.LINE;
     private static volatile JsonWriterOptions defaultFormatting = new JsonWriterOptions();
+    private static volatile boolean ignoreComments = false;
 
     /**
      * Indicates whether the xjs-compat module is provided, enabling support for
@@ -168,6 +169,25 @@ public class JsonContext {
         defaultFormatting = options;
     }
 
+    /**
+     * Indicates whether the <em>default</em> DJS parser discards any comments in its input.
+     *
+     * @return <code>true</code>, if comments are skipped by default.
+     */
+    public static synchronized boolean isIgnoreComments() {
+        return ignoreComments;
+    }
+
+    /**
+     * Sets whether the <em>default</em> DJS parser discards any comments in its input.
+     * This may be faster for machine-generated data where comments are never needed.
+     *
+     * @param ignore Whether to skip comments by default.
+     */
+    public static synchronized void setIgnoreComments(final boolean ignore) {
+        ignoreComments = ignore;
+    }
+
     /**
      * Indicates whether the given file is extended with a known format or alias.
      *
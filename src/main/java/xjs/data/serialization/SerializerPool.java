@@ -0,0 +1,187 @@
+package xjs.data.serialization;
+
+import org.jetbrains.annotations.NotNull;
+import xjs.data.JsonFormat;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.parser.DjsParser;
+import xjs.data.serialization.parser.JsonParser;
+import xjs.data.serialization.util.Utf8Writer;
+import xjs.data.serialization.writer.DjsWriter;
+import xjs.data.serialization.writer.ElementWriter;
+import xjs.data.serialization.writer.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * A per-thread pool of parsers and writers, designed for hot paths which
+ * serialize a large number of small documents.
+ *
+ * <p>Each thread retains a single parser for each input format and a single
+ * writer for each {@link JsonFormat}. These serializers are {@link
+ * JsonParser#reset reset} before every call, meaning their readers, stacks,
+ * and buffers are reused instead of being allocated again:
+ *
+ * <pre>{@code
+ *   final JsonValue value = SerializerPool.parseJson(text);
+ *   final String output = SerializerPool.toString(value, JsonFormat.JSON);
+ * }</pre>
+ *
+ * <p>Serializers are removed from the pool while they are in use, and so it
+ * is safe to call these methods recursively, e.g. from a custom value being
+ * written. Writers are configured when they are first created by each thread,
+ * and are discarded if the {@link JsonContext#getEol() line separator} is
+ * changed.
+ */
+public final class SerializerPool {
+
+    private static final ThreadLocal<JsonParser> JSON_PARSER = new ThreadLocal<>();
+    private static final ThreadLocal<DjsParser> DJS_PARSER = new ThreadLocal<>();
+    private static final ThreadLocal<Writers> WRITERS = new ThreadLocal<>();
+    private static final Writer NULL_WRITER = Writer.nullWriter();
+
+    private SerializerPool() {}
+
+    /**
+     * Parses the given text as regular JSON, using a parser owned by the
+     * current thread.
+     *
+     * @param json The JSON text being parsed.
+     * @return The {@link JsonValue} represented by the text.
+     * @throws SyntaxException If the text is syntactically invalid.
+     */
+    public static @NotNull JsonValue parseJson(final String json) {
+        JsonParser parser = JSON_PARSER.get();
+        if (parser != null) {
+            JSON_PARSER.set(null);
+            parser.reset(json);
+        } else {
+            parser = new JsonParser(json);
+        }
+        try {
+            return parser.parse();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Reading error", e);
+        } finally {
+            // release the input so that it may be collected
+            parser.reset("");
+            JSON_PARSER.set(parser);
+        }
+    }
+
+    /**
+     * Parses the given text in DJS format, using a parser owned by the
+     * current thread.
+     *
+     * @param djs The DJS text being parsed.
+     * @return The {@link JsonValue} represented by the text.
+     * @throws SyntaxException If the text is syntactically invalid.
+     */
+    public static @NotNull JsonValue parseDjs(final String djs) {
+        DjsParser parser = DJS_PARSER.get();
+        if (parser != null) {
+            DJS_PARSER.set(null);
+            parser.reset(djs);
+        } else {
+            parser = new DjsParser(djs);
+        }
+        try {
+            return parser.parse();
+        } finally {
+            // release the input so that it may be collected
+            parser.reset("");
+            DJS_PARSER.set(parser);
+        }
+    }
+
+    /**
+     * Writes the given value into any {@link Writer}, using a writer owned by
+     * the current thread. The destination is neither flushed nor closed.
+     *
+     * @param writer The destination of the output.
+     * @param value  The value being serialized.
+     * @param format The expected format in which to write this value.
+     * @throws IOException If the destination throws an {@link IOException}.
+     */
+    public static void write(
+            final Writer writer, final JsonValue value, final JsonFormat format) throws IOException {
+        Writers writers = WRITERS.get();
+        if (writers == null || !writers.eol.equals(JsonContext.getEol())) {
+            writers = new Writers(JsonContext.getEol());
+            WRITERS.set(writers);
+        }
+        final int index = format.ordinal();
+        ElementWriter pooled = writers.writers[index];
+        if (pooled != null) {
+            writers.writers[index] = null;
+            pooled.reset(writer);
+        } else {
+            pooled = create(writer, format);
+        }
+        try {
+            pooled.write(value);
+        } finally {
+            // release the destination so that it may be collected
+            pooled.reset(NULL_WRITER);
+            writers.writers[index] = pooled;
+        }
+    }
+
+    /**
+     * Converts the given value into a string, using a writer owned by the
+     * current thread.
+     *
+     * @param value  The value being serialized.
+     * @param format The expected format in which to write this value.
+     * @return The value as a string in the given format.
+     */
+    public static String toString(final JsonValue value, final JsonFormat format) {
+        final StringWriter sw = new StringWriter();
+        try {
+            write(sw, value, format);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encoding error", e);
+        }
+        return sw.toString();
+    }
+
+    /**
+     * Encodes the given value as UTF-8, using a writer owned by the current
+     * thread.
+     *
+     * @param value  The value being serialized.
+     * @param format The expected format in which to write this value.
+     * @return The value as an array of UTF-8 bytes.
+     */
+    public static byte[] toBytes(final JsonValue value, final JsonFormat format) {
+        final Utf8Writer.Growable out = Utf8Writer.growable();
+        try {
+            write(out, value, format);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encoding error", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static ElementWriter create(final Writer writer, final JsonFormat format) {
+        return switch (format) {
+            case JSON -> new JsonWriter(writer, false);
+            case JSON_FORMATTED -> new JsonWriter(writer, true);
+            case DJS -> new DjsWriter(writer, false);
+            case DJS_FORMATTED -> new DjsWriter(writer, true);
+        };
+    }
+
+    private static class Writers {
+        final String eol;
+        final ElementWriter[] writers;
+
+        Writers(final String eol) {
+            this.eol = eol;
+            this.writers = new ElementWriter[JsonFormat.values().length];
+        }
+    }
+}
@@ -25,6 +25,14 @@ public abstract class CommentedTokenParser extends TokenParser {
         this.commentBuffer = new CommentData();
     }
 
+    @Override
+    protected void reset() {
+        super.reset();
+        if (!this.commentBuffer.isEmpty()) {
+            this.commentBuffer = new CommentData();
+        }
+    }
+
     @Override
     protected boolean consumeWhitespace(
             final Token t, final boolean nl) {
@@ -36,7 +44,7 @@ public abstract class CommentedTokenParser extends TokenParser {
                 return false;
             }
             this.flagLineAsSkipped();
-        } else {
+        } else if (!this.unformatted) {
             this.appendComment((CommentToken) t);
         }
         return true;
@@ -124,6 +132,9 @@ public abstract class CommentedTokenParser extends TokenParser {
      * @param type The type of comment being set.
      */
     protected void setComment(final CommentType type) {
+        if (this.commentBuffer.isEmpty()) {
+            return;
+        }
         final CommentData data = this.takeComment(type);
         if (!data.isEmpty()) {
             this.formatting.getComments().setData(type, data);
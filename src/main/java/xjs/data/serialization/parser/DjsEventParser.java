@@ -0,0 +1,329 @@
+package xjs.data.serialization.parser;
+
+import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.PositionTrackingReader;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Variant of {@link JsonEventParser} which streams documents in DJS format.
+ *
+ * <p>This parser supports the same syntax as {@link DjsParser}, including
+ * comments, unquoted keys, optional delimiters, single-quoted and multiline
+ * strings, and open root objects. Comments are skipped entirely and never
+ * captured.
+ */
+public class DjsEventParser extends JsonEventParser {
+    private String pendingKey;
+    private int pendingLine;
+    private int pendingColumn;
+
+    public DjsEventParser(final String text) {
+        super(text);
+    }
+
+    public DjsEventParser(final File file) throws IOException {
+        super(open(file));
+    }
+
+    public DjsEventParser(final File file, final int bufferSize) throws IOException {
+        super(open(file, bufferSize));
+    }
+
+    public DjsEventParser(final PositionTrackingReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected JsonEvent readRoot() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        this.skipWhitespace();
+        final int c = reader.current;
+        if (c == -1) {
+            this.markPosition();
+            return this.openRoot();
+        } else if (c == '{' || c == '[') {
+            return this.readValue();
+        }
+        this.markPosition();
+        final boolean quoted = c == '"' || c == '\'';
+        if (!quoted && !this.isKeyCharacter(c)) {
+            throw reader.unexpected("punctuation ('" + (char) c + "') in value (use quotes to include)");
+        }
+        final String text = quoted ? this.readQuoted((char) c) : this.readWord();
+        this.skipWhitespace();
+        if (reader.current == ':') {
+            this.pendingKey = text;
+            this.pendingLine = this.line;
+            this.pendingColumn = this.column;
+            return this.openRoot();
+        }
+        if (quoted) {
+            this.string = text;
+            return this.afterValue(JsonEvent.VALUE_STRING);
+        }
+        return this.parseRootWord(text);
+    }
+
+    // the root was read as a potential key and cannot be rewound
+    protected JsonEvent parseRootWord(final String text) throws IOException {
+        final char first = text.charAt(0);
+        if (first != '-' && first != '.' && (first < '0' || first > '9')) {
+            return this.parseWord(text);
+        }
+        final PositionTrackingReader reader = PositionTrackingReader.fromString(text);
+        final DjsEventParser parser = new DjsEventParser(reader);
+        parser.markPosition();
+        try {
+            parser.readNumber();
+        } catch (final SyntaxException ignored) {
+            throw this.illegalToken(text);
+        }
+        if (!reader.isEndOfText()) {
+            throw this.illegalToken(text);
+        }
+        this.number = parser.number;
+        this.integer = parser.integer;
+        this.integral = parser.integral;
+        return this.afterValue(JsonEvent.VALUE_NUMBER);
+    }
+
+    protected JsonEvent openRoot() {
+        this.push(OPEN_ROOT);
+        this.state = AFTER_OPEN;
+        return JsonEvent.START_OBJECT;
+    }
+
+    @Override
+    protected JsonEvent readFirst() throws IOException {
+        if (this.pendingKey != null) {
+            this.string = this.pendingKey;
+            this.line = this.pendingLine;
+            this.column = this.pendingColumn;
+            this.pendingKey = null;
+            this.reader.read();
+            this.skipWhitespace();
+            this.state = AFTER_KEY;
+            return JsonEvent.KEY;
+        }
+        return super.readFirst();
+    }
+
+    @Override
+    protected JsonEvent readNext() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        final int line = reader.line;
+        this.skipWhitespace();
+        boolean delimited = reader.line != line;
+        if (reader.readIf(',')) {
+            delimited = true;
+            this.skipWhitespace();
+        }
+        if (this.isCloser()) {
+            return this.closeContainer();
+        } else if (!delimited) {
+            throw reader.expected("',' or new line");
+        } else if (reader.current == ',') {
+            throw reader.unexpected("leading delimiter (use quotes to include): ','");
+        }
+        return this.readMember();
+    }
+
+    @Override
+    protected JsonEvent readKey() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        this.markPosition();
+        final int c = reader.current;
+        if (c == '"' || c == '\'') {
+            this.string = reader.readQuoted((char) c);
+        } else if (c == ':') {
+            throw reader.expected("key (for an empty key name use quotes)");
+        } else if (this.isKeyCharacter(c)) {
+            this.string = this.readWord();
+            this.skipWhitespace();
+            if (this.isKeyCharacter(reader.current)) {
+                throw reader.unexpected("whitespace in key (use quotes to include)");
+            }
+        } else {
+            throw reader.unexpected("punctuation ('" + (char) c + "') in key (use quotes to include)");
+        }
+        return this.readBetween();
+    }
+
+    @Override
+    protected JsonEvent readValue() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        this.markPosition();
+        final int c = reader.current;
+        return switch (c) {
+            case '{' -> this.openContainer(OBJECT);
+            case '[' -> this.openContainer(ARRAY);
+            case '"', '\'' -> {
+                this.string = this.readQuoted((char) c);
+                yield this.afterValue(JsonEvent.VALUE_STRING);
+            }
+            case '-', '.', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> this.readNumber();
+            case ',' -> throw reader.unexpected("leading delimiter (use quotes to include): ','");
+            case -1 -> throw reader.expected("value");
+            default -> {
+                if (!this.isKeyCharacter(c)) {
+                    throw reader.unexpected("punctuation ('" + (char) c + "') in value (use quotes to include)");
+                }
+                yield this.parseWord(this.readWord());
+            }
+        };
+    }
+
+    @Override
+    protected JsonEvent readNumber() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.startCapture();
+        final boolean negative = reader.readIf('-');
+        final int digits = this.readInteger();
+        boolean decimal = false;
+        if (reader.readIf('.')) {
+            final int start = reader.index;
+            reader.readAllDigits();
+            if (digits == 0 && reader.index == start) {
+                throw reader.unexpected("punctuation ('.') in value (use quotes to include)");
+            }
+            decimal = true;
+        }
+        boolean exponent = false;
+        if (reader.readIf('e') || reader.readIf('E')) {
+            exponent = true;
+            if (!reader.readIf('+')) {
+                reader.readIf('-');
+            }
+            if (!reader.readDigit()) {
+                throw this.illegalToken(reader.endCapture());
+            }
+            reader.readAllDigits();
+        }
+        if (this.isKeyCharacter(reader.current) || (digits == 0 && (negative || !decimal))) {
+            // e.g. octal numbers and words starting with digits
+            while (this.isKeyCharacter(reader.current)) {
+                reader.read();
+            }
+            throw this.illegalToken(reader.endCapture());
+        } else if (!decimal && !exponent) {
+            this.setInteger(negative, digits);
+        } else {
+            this.setDecimal(reader.endCapture());
+        }
+        return this.afterValue(JsonEvent.VALUE_NUMBER);
+    }
+
+    protected JsonEvent parseWord(final String text) {
+        return switch (text) {
+            case "true" -> this.afterValue(JsonEvent.VALUE_TRUE);
+            case "false" -> this.afterValue(JsonEvent.VALUE_FALSE);
+            case "null" -> this.afterValue(JsonEvent.VALUE_NULL);
+            default -> throw this.illegalToken(text);
+        };
+    }
+
+    protected String readQuoted(final char quote) throws IOException {
+        final String parsed = this.reader.readQuoted(quote);
+        if (parsed.isEmpty() && quote == '\'' && this.reader.readIf('\'')) {
+            return this.reader.readMulti(false);
+        }
+        return parsed;
+    }
+
+    protected String readWord() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.startCapture();
+        while (this.isKeyCharacter(reader.current)) {
+            reader.read();
+        }
+        return reader.endCapture();
+    }
+
+    protected boolean isKeyCharacter(final int c) {
+        return c == '_' || c == '.' || c == '-' || c == '+'
+            || (c >= 0 && Character.isLetterOrDigit(c));
+    }
+
+    @Override
+    protected void skipWhitespace() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        while (true) {
+            reader.skipWhitespace();
+            if (reader.current == '#') {
+                reader.skipToNL();
+            } else if (reader.current == '/') {
+                final int next = reader.peek();
+                if (next == '/') {
+                    reader.skipToNL();
+                } else if (next == '*') {
+                    this.skipBlockComment();
+                } else {
+                    return;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    protected void skipBlockComment() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        reader.read();
+        while (true) {
+            if (reader.current == -1) {
+                throw reader.expected("end of comment (*/)");
+            } else if (reader.current == '*') {
+                reader.read();
+                if (reader.readIf('/')) {
+                    return;
+                }
+            } else {
+                reader.read();
+            }
+        }
+    }
+
+    @Override
+    protected boolean skipRaw(final int c) throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        if (c == '"') {
+            this.skipQuoted('"');
+            return true;
+        } else if (c == '\'') {
+            if (reader.peek() != '\'') {
+                this.skipQuoted('\'');
+                return true;
+            }
+            reader.read();
+            reader.read();
+            if (reader.current == '\'') {
+                this.skipMulti();
+            }
+            return true;
+        } else if (c == '#' || (c == '/' && (reader.peek() == '/' || reader.peek() == '*'))) {
+            this.skipWhitespace();
+            return true;
+        }
+        return false;
+    }
+
+    protected void skipMulti() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        int quotes = 0;
+        while (quotes < 3) {
+            if (reader.current == -1) {
+                throw reader.expected("end of multiline string (''')");
+            }
+            quotes = reader.current == '\'' ? quotes + 1 : 0;
+            reader.read();
+        }
+    }
+
+    protected SyntaxException illegalToken(final String text) {
+        return SyntaxException.illegalToken(text, this.line, this.column);
+    }
+}
@@ -1,15 +1,18 @@
 package xjs.data.serialization.parser;
 
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import xjs.data.comments.CommentType;
 import xjs.data.Json;
 import xjs.data.JsonArray;
 import xjs.data.JsonLiteral;
+import xjs.data.JsonNumber;
 import xjs.data.JsonObject;
 import xjs.data.JsonString;
 import xjs.data.JsonValue;
 import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.JsonContext;
 import xjs.data.serialization.token.DjsTokenizer;
 import xjs.data.serialization.token.NumberToken;
 import xjs.data.serialization.token.StringToken;
@@ -17,6 +20,8 @@ import xjs.data.serialization.token.SymbolToken;
 import xjs.data.serialization.token.Token;
 import xjs.data.serialization.token.TokenStream;
 import xjs.data.serialization.token.TokenType;
+import xjs.data.serialization.util.DoubleParser;
+import xjs.data.serialization.util.KeyCache;
 import xjs.data.serialization.util.PositionTrackingReader;
 
 import java.io.File;
@@ -29,6 +34,26 @@ import java.io.IOException;
  */
 public class DjsParser extends CommentedTokenParser {
 
+    /**
+     * The paths currently being selected, or else <code>null</code> if
+     * every value at this level should be read.
+     */
+    protected @Nullable PathSelection.Node selection;
+
+    /**
+     * Indicates whether comments are skipped by the tokenizer, rather than
+     * being appended to the output.
+     */
+    protected final boolean ignoreComments;
+
+    /**
+     * A cache of canonical keys shared by every object in the output, or
+     * else <code>null</code> if keys are not cached.
+     */
+    protected @Nullable KeyCache keys;
+
+    private @Nullable DjsTokenizer tokenizer;
+
     /**
      * Constructs the parser when given a file in DJS format.
      *
@@ -36,7 +61,19 @@ public class DjsParser extends CommentedTokenParser {
      * @throws IOException If an error occurs when reading the file.
      */
     public DjsParser(final File file) throws IOException {
-        this(DjsTokenizer.stream(new FileInputStream(file)));
+        this(file, JsonContext.isIgnoreComments());
+    }
+
+    /**
+     * Variant of {@link #DjsParser(File)} specifying whether to skip any
+     * comments in the input.
+     *
+     * @param file           The file containing DJS data.
+     * @param ignoreComments Whether to skip comments in the input.
+     * @throws IOException If an error occurs when reading the file.
+     */
+    public DjsParser(final File file, final boolean ignoreComments) throws IOException {
+        this(PositionTrackingReader.fromIs(new FileInputStream(file)), ignoreComments);
     }
 
     /**
@@ -45,7 +82,19 @@ public class DjsParser extends CommentedTokenParser {
      * @param text The JSON text in DJS format.
      */
     public DjsParser(final String text) {
-        this(DjsTokenizer.stream(text));
+        this(text, JsonContext.isIgnoreComments());
+    }
+
+    /**
+     * Variant of {@link #DjsParser(String)} specifying whether to skip any
+     * comments in the input. When comments are skipped, no comment data is
+     * created, but line counts are still preserved as formatting.
+     *
+     * @param text           The JSON text in DJS format.
+     * @param ignoreComments Whether to skip comments in the input.
+     */
+    public DjsParser(final String text, final boolean ignoreComments) {
+        this(PositionTrackingReader.fromString(text), ignoreComments);
     }
 
     /**
@@ -54,7 +103,18 @@ public class DjsParser extends CommentedTokenParser {
      * @param reader The source of DJS data.
      */
     public DjsParser(final PositionTrackingReader reader) throws IOException {
-        this(DjsTokenizer.stream(reader));
+        this(reader, JsonContext.isIgnoreComments());
+    }
+
+    /**
+     * Variant of {@link #DjsParser(PositionTrackingReader)} specifying
+     * whether to skip any comments in the input.
+     *
+     * @param reader         The source of DJS data.
+     * @param ignoreComments Whether to skip comments in the input.
+     */
+    public DjsParser(final PositionTrackingReader reader, final boolean ignoreComments) {
+        this(DjsTokenizer.stream(reader, ignoreComments), ignoreComments);
     }
 
     /**
@@ -63,7 +123,57 @@ public class DjsParser extends CommentedTokenParser {
      * @param root The root token container.
      */
     public DjsParser(final TokenStream root) {
+        this(root, JsonContext.isIgnoreComments());
+    }
+
+    private DjsParser(final TokenStream root, final boolean ignoreComments) {
         super(root);
+        this.ignoreComments = ignoreComments;
+    }
+
+    /**
+     * Configures this parser to look up every key in the given cache, so
+     * that repeated keys share a single instance. The cache is retained
+     * when this parser is {@link #reset(String) reset}.
+     *
+     * @param keys A cache of canonical keys, or <code>null</code> for none.
+     * @return <code>this</code>, for method chaining.
+     */
+    public DjsParser setKeyCache(final @Nullable KeyCache keys) {
+        this.keys = keys;
+        return this;
+    }
+
+    /**
+     * Prepares this parser to read a new input in DJS format, reusing its
+     * reader, token stream, and buffers where possible.
+     *
+     * @param text The JSON text in DJS format.
+     */
+    public void reset(final String text) {
+        final DjsTokenizer tokenizer = this.tokenizer;
+        this.reset(tokenizer != null
+            ? tokenizer.getReader().reset(text)
+            : PositionTrackingReader.fromString(text));
+    }
+
+    /**
+     * Prepares this parser to read a new input from any {@link
+     * PositionTrackingReader}, reusing its token stream and buffers.
+     *
+     * @param reader The source of DJS data.
+     */
+    public void reset(final PositionTrackingReader reader) {
+        DjsTokenizer tokenizer = this.tokenizer;
+        if (tokenizer == null) {
+            tokenizer = new DjsTokenizer(reader, false, this.ignoreComments);
+            this.tokenizer = tokenizer;
+        } else {
+            tokenizer.reset(reader);
+        }
+        this.root.reset(tokenizer, TokenType.OPEN);
+        this.selection = null;
+        this.reset();
     }
 
     @Override
@@ -78,6 +188,43 @@ public class DjsParser extends CommentedTokenParser {
         return this.readClosedRoot();
     }
 
+    /**
+     * Reads the input without tracking any formatting data, such as comments
+     * or the number of lines above each value. This is the parse-time
+     * counterpart of {@link JsonValue#unformatted()}.
+     *
+     * <p>Comments are still read by the tokenizer, but are discarded. For the
+     * fastest results, construct this parser to ignore comments entirely.
+     *
+     * @return A definite, non-null {@link JsonValue}.
+     */
+    public @NotNull JsonValue parseUnformatted() {
+        this.unformatted = true;
+        try {
+            return this.parse();
+        } finally {
+            this.unformatted = false;
+        }
+    }
+
+    /**
+     * Reads only the values selected by the given paths. Any other values
+     * are skipped at the token level, meaning they are never materialized,
+     * validated, or given comment data.
+     *
+     * @param paths The paths being selected from the input.
+     * @return A definite, non-null {@link JsonValue}.
+     * @see PathSelection
+     */
+    public @NotNull JsonValue parse(final PathSelection paths) {
+        this.selection = paths.getRoot();
+        try {
+            return this.parse();
+        } finally {
+            this.selection = null;
+        }
+    }
+
     protected boolean isOpenRoot() {
         final TokenType type = this.current.type();
         if (type == TokenType.SYMBOL) { // punctuation
@@ -116,7 +263,7 @@ public class DjsParser extends CommentedTokenParser {
             }
             this.readNextMember(object);
         }
-        if (!object.isEmpty()) {
+        if (!this.unformatted && !object.isEmpty()) {
             final JsonValue top = object.get(0);
             if (top.getLinesAbove() == 0) {
                 // allow these to auto-format with other writers
@@ -165,7 +312,24 @@ public class DjsParser extends CommentedTokenParser {
 
         final String key = this.readKey();
         this.readBetween(':');
+        final PathSelection.Node parent = this.selection;
+        boolean partial = false;
+        if (parent != null) {
+            final PathSelection.Node node = parent.getMember(key);
+            if (!this.isSelected(node)) {
+                return this.skipValue();
+            }
+            partial = !node.isSelected();
+            this.selection = partial ? node : null;
+        }
         final JsonValue value = this.readValue();
+        this.selection = parent;
+        if (partial && value.asContainer().isEmpty()) {
+            // containers are only kept if they lead up to a match
+            final boolean delimiter = this.readDelimiter();
+            this.clearFormatting();
+            return delimiter;
+        }
 
         object.add(key, value);
 
@@ -184,7 +348,8 @@ public class DjsParser extends CommentedTokenParser {
                 throw this.whitespaceInKey();
             }
             this.read();
-            return t.parsed();
+            final KeyCache keys = this.keys;
+            return keys != null ? keys.get(t.parsed()) : t.parsed();
         } else if (t.isSymbol(':')) {
             throw this.emptyKey();
         } else if (t.hasText()) {
@@ -200,19 +365,41 @@ public class DjsParser extends CommentedTokenParser {
         if (!this.open('[', ']')) {
             return this.close(array, ']');
         }
+        int index = 0;
         do {
             this.readWhitespace(false);
             if (this.isEndOfContainer(']')) {
                 return this.close(array, ']');
             }
-        } while (this.readNextElement(array));
+        } while (this.readNextElement(array, index++));
         return this.close(array, ']');
     }
 
     protected boolean readNextElement(final JsonArray array) {
+        return this.readNextElement(array, array.size());
+    }
+
+    protected boolean readNextElement(final JsonArray array, final int index) {
         this.setAbove();
 
+        final PathSelection.Node parent = this.selection;
+        boolean partial = false;
+        if (parent != null) {
+            final PathSelection.Node node = parent.getElement(index);
+            if (!this.isSelected(node)) {
+                return this.skipValue();
+            }
+            partial = !node.isSelected();
+            this.selection = partial ? node : null;
+        }
         final JsonValue value = this.readValue();
+        this.selection = parent;
+        if (partial && value.asContainer().isEmpty()) {
+            // containers are only kept if they lead up to a match
+            final boolean delimiter = this.readDelimiter();
+            this.clearFormatting();
+            return delimiter;
+        }
         array.add(value);
 
         final boolean delimiter = this.readDelimiter();
@@ -238,10 +425,81 @@ public class DjsParser extends CommentedTokenParser {
         return false;
     }
 
+    @Contract("null -> false")
+    protected boolean isSelected(final @Nullable PathSelection.Node node) {
+        if (node == null) {
+            return false;
+        }
+        // containers may still hold selected values
+        return node.isSelected() || this.current.isSymbol('{') || this.current.isSymbol('[');
+    }
+
+    /**
+     * Skips the current value and its delimiter without materializing any
+     * of its tokens.
+     *
+     * @return <code>true</code>, if a delimiter was found.
+     */
+    protected boolean skipValue() {
+        if (this.current.isSymbol('{') || this.current.isSymbol('[')) {
+            int level = 0;
+            do {
+                if (this.current.isSymbol('{') || this.current.isSymbol('[')) {
+                    level++;
+                } else if (this.current.isSymbol('}') || this.current.isSymbol(']')) {
+                    level--;
+                } else if (this.isEndOfContainer()) {
+                    throw this.expected("end of container");
+                }
+                this.read();
+            } while (level > 0);
+        } else if (this.current instanceof SymbolToken || this.isEndOfContainer()) {
+            this.readSingle(); // always throws
+        } else {
+            this.read();
+        }
+        final boolean delimiter = this.readDelimiter();
+        this.clearFormatting();
+        return delimiter;
+    }
+
+    protected JsonValue readNumber(final NumberToken n) {
+        final String text = n.formatted;
+        if (text == null || text.endsWith(".")) {
+            return Json.value(n.number);
+        }
+        // only significant digits of the significand are counted, as in PositionTrackingReader
+        int digits = 0;
+        boolean integer = true;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits > 0 || c != '0') {
+                    digits++;
+                }
+            } else if (c == 'e' || c == 'E') {
+                integer = false;
+                break;
+            } else if (c != '-') {
+                integer = false;
+            }
+        }
+        if (integer && !"-0".equals(text)) {
+            try {
+                return new JsonNumber(Long.parseLong(text));
+            } catch (final NumberFormatException ignored) {
+                return JsonNumber.fromText(text);
+            }
+        } else if (digits > DoubleParser.MAX_DIGITS) {
+            return JsonNumber.fromText(text);
+        }
+        return Json.value(n.number);
+    }
+
     protected JsonValue readSingle() {
         final Token t = this.current;
         if (t instanceof NumberToken n) {
-            return Json.value(n.number);
+            return this.readNumber(n);
         } else if (t instanceof StringToken s) {
             return new JsonString(s.parsed(), s.stringType());
         }
@@ -0,0 +1,86 @@
+package xjs.data.serialization.parser;
+
+/**
+ * Represents the individual events produced when streaming a document
+ * through a {@link JsonEventParser}.
+ */
+public enum JsonEvent {
+
+    /**
+     * The beginning of a JSON object. Keys and values follow.
+     */
+    START_OBJECT,
+
+    /**
+     * The end of the most recent JSON object.
+     */
+    END_OBJECT,
+
+    /**
+     * The beginning of a JSON array. Values follow.
+     */
+    START_ARRAY,
+
+    /**
+     * The end of the most recent JSON array.
+     */
+    END_ARRAY,
+
+    /**
+     * The key of a member inside an object.
+     */
+    KEY,
+
+    /**
+     * Any string value.
+     */
+    VALUE_STRING,
+
+    /**
+     * Any number value.
+     */
+    VALUE_NUMBER,
+
+    /**
+     * The literal value <code>true</code>.
+     */
+    VALUE_TRUE,
+
+    /**
+     * The literal value <code>false</code>.
+     */
+    VALUE_FALSE,
+
+    /**
+     * The literal value <code>null</code>.
+     */
+    VALUE_NULL;
+
+    /**
+     * Indicates whether this event opens a container.
+     *
+     * @return <code>true</code>, if this event opens a container.
+     */
+    public boolean isStart() {
+        return this == START_OBJECT || this == START_ARRAY;
+    }
+
+    /**
+     * Indicates whether this event closes a container.
+     *
+     * @return <code>true</code>, if this event closes a container.
+     */
+    public boolean isEnd() {
+        return this == END_OBJECT || this == END_ARRAY;
+    }
+
+    /**
+     * Indicates whether this event represents a complete, non-container
+     * value.
+     *
+     * @return <code>true</code>, if this event is a single value.
+     */
+    public boolean isScalar() {
+        return this.ordinal() >= VALUE_STRING.ordinal();
+    }
+}
@@ -0,0 +1,530 @@
+package xjs.data.serialization.parser;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.data.serialization.util.PositionTrackingReader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A pull-based parser which streams the contents of a JSON document as a
+ * series of {@link JsonEvent events}, rather than building a {@link
+ * xjs.data.JsonValue JsonValue} tree.
+ *
+ * <p>For example, to find a single field in a very large document:
+ *
+ * <pre>{@code
+ *   try (final JsonEventParser parser = new JsonEventParser(file)) {
+ *     JsonEvent event;
+ *     while ((event = parser.next()) != null) {
+ *       if (event == JsonEvent.KEY && "port".equals(parser.getString())) {
+ *         parser.next();
+ *         return parser.getInt();
+ *       } else if (event.isStart() && parser.getDepth() > 1) {
+ *         parser.skipChildren();
+ *       }
+ *     }
+ *   }
+ * }</pre>
+ *
+ * <p>The values of scalar events are exposed directly as primitives, and
+ * containers are never materialized. Memory usage is thus bound only by
+ * the depth of the document, and not by its size.
+ */
+public class JsonEventParser implements Closeable {
+    protected static final byte OBJECT = 0;
+    protected static final byte ARRAY = 1;
+    protected static final byte OPEN_ROOT = 2;
+
+    protected static final int BEFORE_ROOT = 0;
+    protected static final int AFTER_OPEN = 1;
+    protected static final int AFTER_KEY = 2;
+    protected static final int AFTER_VALUE = 3;
+    protected static final int AFTER_ROOT = 4;
+    protected static final int FINISHED = 5;
+
+    protected final PositionTrackingReader reader;
+    protected byte[] stack;
+    protected int depth;
+    protected int state;
+
+    protected @Nullable JsonEvent event;
+    protected @Nullable String string;
+    protected double number;
+    protected long integer;
+    protected boolean integral;
+    protected int line;
+    protected int column;
+
+    public JsonEventParser(final String text) {
+        this(PositionTrackingReader.fromString(text));
+    }
+
+    public JsonEventParser(final File file) throws IOException {
+        this(open(file));
+    }
+
+    public JsonEventParser(final File file, final int bufferSize) throws IOException {
+        this(open(file, bufferSize));
+    }
+
+    public JsonEventParser(final PositionTrackingReader reader) {
+        this.reader = reader;
+        this.stack = new byte[16];
+        this.depth = 0;
+        this.state = BEFORE_ROOT;
+    }
+
+    /**
+     * Opens a reader over the given file. The stream is closed if the
+     * reader cannot take ownership of it.
+     *
+     * @param file The file being read.
+     * @return A new reader for the contents of the file.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    protected static PositionTrackingReader open(final File file) throws IOException {
+        final FileInputStream is = new FileInputStream(file);
+        try {
+            return PositionTrackingReader.fromIs(is);
+        } catch (final IOException | RuntimeException e) {
+            closeOnFailure(is, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Variant of {@link #open(File)} specifying the size of the buffer.
+     *
+     * @param file       The file being read.
+     * @param bufferSize The size of the reader's buffer.
+     * @return A new reader for the contents of the file.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    protected static PositionTrackingReader open(final File file, final int bufferSize) throws IOException {
+        final FileInputStream is = new FileInputStream(file);
+        try {
+            return PositionTrackingReader.fromIs(is, bufferSize, false);
+        } catch (final IOException | RuntimeException e) {
+            closeOnFailure(is, e);
+            throw e;
+        }
+    }
+
+    private static void closeOnFailure(final Closeable closeable, final Exception cause) {
+        try {
+            closeable.close();
+        } catch (final IOException suppressed) {
+            cause.addSuppressed(suppressed);
+        }
+    }
+
+    /**
+     * Advances the parser to the next event in the document.
+     *
+     * @return The next event, or else <code>null</code> at the end of input.
+     * @throws IOException If the underlying reader throws an exception.
+     * @throws xjs.data.exception.SyntaxException If the data is syntactically
+     *                                            invalid.
+     */
+    public @Nullable JsonEvent next() throws IOException {
+        final JsonEvent next = switch (this.state) {
+            case BEFORE_ROOT -> this.readRoot();
+            case AFTER_OPEN -> this.readFirst();
+            case AFTER_KEY -> this.readValue();
+            case AFTER_VALUE -> this.readNext();
+            case AFTER_ROOT -> this.readEnd();
+            default -> null;
+        };
+        this.event = next;
+        return next;
+    }
+
+    /**
+     * Returns the most recent event produced by this parser.
+     *
+     * @return The current event, or else <code>null</code>.
+     */
+    public @Nullable JsonEvent getEvent() {
+        return this.event;
+    }
+
+    /**
+     * Returns the number of containers currently open. Inside of the root
+     * container, this value is 1. After a container has ended, the depth
+     * reflects its parent.
+     *
+     * @return The current depth.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Returns the line on which the current event begins.
+     *
+     * @return The line number, starting at 0.
+     */
+    public int getLine() {
+        return this.line;
+    }
+
+    /**
+     * Returns the column at which the current event begins.
+     *
+     * @return The column, starting at 0.
+     */
+    public int getColumn() {
+        return this.column;
+    }
+
+    /**
+     * Returns the text of the current {@link JsonEvent#KEY key} or {@link
+     * JsonEvent#VALUE_STRING string value}.
+     *
+     * @return The current key or string.
+     * @throws UnsupportedOperationException If the event is not a key or string.
+     */
+    public String getString() {
+        if (this.event != JsonEvent.KEY && this.event != JsonEvent.VALUE_STRING) {
+            throw new UnsupportedOperationException("Not a string: " + this.event);
+        }
+        return this.string;
+    }
+
+    /**
+     * Returns the value of the current {@link JsonEvent#VALUE_NUMBER number}
+     * as a double.
+     *
+     * @return The current number.
+     * @throws UnsupportedOperationException If the event is not a number.
+     */
+    public double getDouble() {
+        this.checkNumber();
+        return this.number;
+    }
+
+    /**
+     * Returns the value of the current {@link JsonEvent#VALUE_NUMBER number}
+     * as a long. Integers with up to 18 digits are read exactly.
+     *
+     * @return The current number.
+     * @throws UnsupportedOperationException If the event is not a number.
+     */
+    public long getLong() {
+        this.checkNumber();
+        return this.integral ? this.integer : (long) this.number;
+    }
+
+    /**
+     * Returns the value of the current {@link JsonEvent#VALUE_NUMBER number}
+     * as an int.
+     *
+     * @return The current number.
+     * @throws UnsupportedOperationException If the event is not a number.
+     */
+    public int getInt() {
+        return (int) this.getLong();
+    }
+
+    /**
+     * Indicates whether the current {@link JsonEvent#VALUE_NUMBER number}
+     * was written without a decimal or exponent and could be read exactly.
+     *
+     * @return <code>true</code>, if the number is an exact integer.
+     * @throws UnsupportedOperationException If the event is not a number.
+     */
+    public boolean isIntegral() {
+        this.checkNumber();
+        return this.integral;
+    }
+
+    /**
+     * Returns the value of the current boolean literal.
+     *
+     * @return <code>true</code>, if the current event is {@link JsonEvent#VALUE_TRUE}.
+     * @throws UnsupportedOperationException If the event is not a boolean.
+     */
+    public boolean getBoolean() {
+        if (this.event == JsonEvent.VALUE_TRUE) {
+            return true;
+        } else if (this.event == JsonEvent.VALUE_FALSE) {
+            return false;
+        }
+        throw new UnsupportedOperationException("Not a boolean: " + this.event);
+    }
+
+    /**
+     * Fast-forwards over the contents of the current container without
+     * parsing any of its values. Afterward, the current event will be the
+     * matching {@link JsonEvent#END_OBJECT} or {@link JsonEvent#END_ARRAY}.
+     *
+     * <p>If the current event does not open a container, this method has
+     * no effect.
+     *
+     * <p>Note that the skipped contents are only scanned for structure and
+     * are <b>not validated</b>.
+     *
+     * @throws IOException If the underlying reader throws an exception.
+     */
+    public void skipChildren() throws IOException {
+        if (this.event == null || !this.event.isStart()) {
+            return;
+        }
+        final PositionTrackingReader reader = this.reader;
+        int level = 0;
+        while (true) {
+            final int c = reader.current;
+            if (c == -1) {
+                if (level == 0 && this.stack[this.depth - 1] == OPEN_ROOT) {
+                    break;
+                }
+                throw reader.expected(this.getCloser());
+            } else if (c == '{' || c == '[') {
+                level++;
+            } else if (c == '}' || c == ']') {
+                if (level == 0) {
+                    break;
+                }
+                level--;
+            } else if (this.skipRaw(c)) {
+                continue;
+            }
+            reader.read();
+        }
+        if (!this.isCloser()) {
+            throw reader.expected(this.getCloser());
+        }
+        this.event = this.closeContainer();
+    }
+
+    protected JsonEvent readRoot() throws IOException {
+        this.skipWhitespace();
+        return this.readValue();
+    }
+
+    protected JsonEvent readFirst() throws IOException {
+        this.skipWhitespace();
+        if (this.isCloser()) {
+            return this.closeContainer();
+        }
+        return this.readMember();
+    }
+
+    protected JsonEvent readNext() throws IOException {
+        this.skipWhitespace();
+        if (this.reader.readIf(',')) {
+            this.skipWhitespace();
+            return this.readMember();
+        } else if (this.isCloser()) {
+            return this.closeContainer();
+        }
+        throw this.reader.expected("',' or '" + this.getCloser() + "'");
+    }
+
+    protected JsonEvent readEnd() throws IOException {
+        this.skipWhitespace();
+        if (!this.reader.isEndOfText()) {
+            throw this.reader.unexpected();
+        }
+        this.state = FINISHED;
+        return null;
+    }
+
+    protected JsonEvent readMember() throws IOException {
+        if (this.stack[this.depth - 1] == ARRAY) {
+            return this.readValue();
+        }
+        return this.readKey();
+    }
+
+    protected JsonEvent readKey() throws IOException {
+        this.markPosition();
+        if (this.reader.current != '"') {
+            throw this.reader.expected("key");
+        }
+        this.string = this.reader.readQuoted('"');
+        return this.readBetween();
+    }
+
+    protected JsonEvent readBetween() throws IOException {
+        this.skipWhitespace();
+        this.reader.expect(':');
+        this.skipWhitespace();
+        this.state = AFTER_KEY;
+        return JsonEvent.KEY;
+    }
+
+    protected JsonEvent readValue() throws IOException {
+        this.markPosition();
+        return switch (this.reader.current) {
+            case '{' -> this.openContainer(OBJECT);
+            case '[' -> this.openContainer(ARRAY);
+            case '"' -> this.readString();
+            case 'n' -> this.readLiteral("null", JsonEvent.VALUE_NULL);
+            case 't' -> this.readLiteral("true", JsonEvent.VALUE_TRUE);
+            case 'f' -> this.readLiteral("false", JsonEvent.VALUE_FALSE);
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> this.readNumber();
+            default -> throw this.reader.expected("value");
+        };
+    }
+
+    protected JsonEvent readString() throws IOException {
+        this.string = this.reader.readQuoted('"');
+        return this.afterValue(JsonEvent.VALUE_STRING);
+    }
+
+    protected JsonEvent readLiteral(final String literal, final JsonEvent event) throws IOException {
+        this.reader.read();
+        for (int i = 1; i < literal.length(); i++) {
+            this.reader.expect(literal.charAt(i));
+        }
+        return this.afterValue(event);
+    }
+
+    protected JsonEvent readNumber() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.startCapture();
+        final boolean negative = reader.readIf('-');
+        if (!reader.isDigit()) {
+            throw reader.expected("digit");
+        }
+        final int digits = this.readInteger();
+        final boolean decimal = reader.readDecimal();
+        final boolean exponent = reader.readExponent();
+        if (!decimal && !exponent) {
+            this.setInteger(negative, digits);
+        } else {
+            this.setDecimal(reader.endCapture());
+        }
+        return this.afterValue(JsonEvent.VALUE_NUMBER);
+    }
+
+    protected int readInteger() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        long value = 0;
+        int digits = 0;
+        if (reader.current == '0') {
+            reader.read();
+            digits = 1;
+        } else {
+            while (reader.isDigit()) {
+                value = value * 10 + (reader.current - '0');
+                digits++;
+                reader.read();
+            }
+        }
+        this.integer = value;
+        return digits;
+    }
+
+    protected void setInteger(final boolean negative, final int digits) {
+        if (digits > 18) {
+            this.setDecimal(this.reader.endCapture());
+            return;
+        }
+        this.reader.invalidateCapture();
+        final long value = negative ? -this.integer : this.integer;
+        this.integer = value;
+        this.number = negative && value == 0 ? -0.0 : value;
+        this.integral = true;
+    }
+
+    protected void setDecimal(final String text) {
+        this.number = Double.parseDouble(text);
+        this.integral = false;
+    }
+
+    protected JsonEvent openContainer(final byte type) throws IOException {
+        this.reader.read();
+        this.push(type);
+        this.state = AFTER_OPEN;
+        return type == ARRAY ? JsonEvent.START_ARRAY : JsonEvent.START_OBJECT;
+    }
+
+    protected JsonEvent closeContainer() throws IOException {
+        this.markPosition();
+        final byte type = this.stack[--this.depth];
+        if (type != OPEN_ROOT) {
+            this.reader.read();
+        }
+        return this.afterValue(type == ARRAY ? JsonEvent.END_ARRAY : JsonEvent.END_OBJECT);
+    }
+
+    protected JsonEvent afterValue(final JsonEvent event) {
+        this.state = this.depth == 0 ? AFTER_ROOT : AFTER_VALUE;
+        return event;
+    }
+
+    protected void push(final byte type) {
+        if (this.depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.depth * 2);
+        }
+        this.stack[this.depth++] = type;
+    }
+
+    protected boolean isCloser() {
+        return switch (this.stack[this.depth - 1]) {
+            case OBJECT -> this.reader.current == '}';
+            case ARRAY -> this.reader.current == ']';
+            default -> this.reader.isEndOfText();
+        };
+    }
+
+    protected char getCloser() {
+        return this.stack[this.depth - 1] == ARRAY ? ']' : '}';
+    }
+
+    protected void skipWhitespace() throws IOException {
+        this.reader.skipWhitespace();
+    }
+
+    /**
+     * Skips any strings or other non-structural text while scanning over
+     * the children of a container.
+     *
+     * @param c The current character.
+     * @return <code>true</code>, if the reader was advanced.
+     * @throws IOException If the underlying reader throws an exception.
+     */
+    protected boolean skipRaw(final int c) throws IOException {
+        if (c == '"') {
+            this.skipQuoted('"');
+            return true;
+        }
+        return false;
+    }
+
+    protected void skipQuoted(final char quote) throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        while (reader.current != quote) {
+            if (reader.current == -1) {
+                throw reader.expected(quote);
+            } else if (reader.current == '\\') {
+                reader.read();
+            }
+            reader.read();
+        }
+        reader.read();
+    }
+
+    protected void markPosition() {
+        this.line = this.reader.line;
+        this.column = this.reader.column;
+    }
+
+    private void checkNumber() {
+        if (this.event != JsonEvent.VALUE_NUMBER) {
+            throw new UnsupportedOperationException("Not a number: " + this.event);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
@@ -1,12 +1,15 @@
 package xjs.data.serialization.parser;
 
 import org.jetbrains.annotations.NotNull;
-import xjs.data.Json;
+import org.jetbrains.annotations.Nullable;
 import xjs.data.JsonArray;
 import xjs.data.JsonLiteral;
+import xjs.data.JsonNumberArray;
 import xjs.data.JsonObject;
 import xjs.data.JsonString;
 import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.KeyCache;
 import xjs.data.serialization.util.PositionTrackingReader;
 
 import java.io.File;
@@ -14,7 +17,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 
 public class JsonParser implements ValueParser {
-    private final PositionTrackingReader reader;
+    protected PositionTrackingReader reader;
+    protected @Nullable PathSelection.Node selection;
+    protected @Nullable String lazyText;
+    protected boolean unformatted;
+    protected @Nullable KeyCache keys;
+    protected boolean numberArrays = true;
 
     public JsonParser(final String text) {
         this.reader = PositionTrackingReader.fromString(text);
@@ -34,6 +42,56 @@ public class JsonParser implements ValueParser {
         this.reader = reader;
     }
 
+    /**
+     * Configures this parser to look up every key in the given cache, so
+     * that repeated keys share a single instance. The cache is retained
+     * when this parser is {@link #reset reset}.
+     *
+     * @param keys A cache of canonical keys, or <code>null</code> for none.
+     * @return <code>this</code>, for method chaining.
+     */
+    public JsonParser setKeyCache(final @Nullable KeyCache keys) {
+        this.keys = keys;
+        return this;
+    }
+
+    /**
+     * Configures whether arrays of numbers are parsed into {@link
+     * JsonNumberArray numeric arrays}, which store each number as a
+     * primitive. This is enabled by default. Arrays containing any other
+     * kind of value are always parsed into a regular {@link JsonArray}.
+     *
+     * @param numberArrays Whether to parse numeric arrays.
+     * @return <code>this</code>, for method chaining.
+     */
+    public JsonParser setNumberArrays(final boolean numberArrays) {
+        this.numberArrays = numberArrays;
+        return this;
+    }
+
+    /**
+     * Prepares this parser to read a new input, reusing its reader where
+     * possible.
+     *
+     * @param text The JSON text being parsed.
+     */
+    public void reset(final String text) {
+        this.reset(this.reader.reset(text));
+    }
+
+    /**
+     * Prepares this parser to read a new input from any {@link
+     * PositionTrackingReader}.
+     *
+     * @param reader The source of JSON data.
+     */
+    public void reset(final PositionTrackingReader reader) {
+        this.reader = reader;
+        this.selection = null;
+        this.lazyText = null;
+        this.unformatted = false;
+    }
+
     public @NotNull JsonValue parse() throws IOException {
         this.reader.skipWhitespace();
         final int linesAbove = this.reader.linesSkipped;
@@ -46,15 +104,108 @@ public class JsonParser implements ValueParser {
         return result;
     }
 
+    /**
+     * Reads only the values selected by the given paths. Any other values
+     * are skipped over without being materialized or validated.
+     *
+     * @param paths The paths being selected from the input.
+     * @return A definite, non-null {@link JsonValue}.
+     * @throws IOException If the reader throws an {@link IOException}.
+     * @see PathSelection
+     */
+    public @NotNull JsonValue parse(final PathSelection paths) throws IOException {
+        this.selection = paths.getRoot();
+        try {
+            return this.parse();
+        } finally {
+            this.selection = null;
+        }
+    }
+
+    /**
+     * Reads the input without tracking any formatting data, such as the
+     * number of lines above or between each value. This is the parse-time
+     * counterpart of {@link JsonValue#unformatted()}, and is ideal when the
+     * output will never be written back in its original layout.
+     *
+     * @return A definite, non-null {@link JsonValue}.
+     * @throws IOException If the reader throws an {@link IOException}.
+     */
+    public @NotNull JsonValue parseUnformatted() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        this.unformatted = true;
+        try {
+            reader.skipWhitespaceFast();
+            final JsonValue result = this.readValue();
+            reader.skipWhitespaceFast();
+            if (!reader.isEndOfText()) {
+                throw reader.unexpected();
+            }
+            return result;
+        } finally {
+            this.unformatted = false;
+        }
+    }
+
+    /**
+     * Reads the input as a lazy tree, in which containers are only parsed when
+     * their contents are first accessed.
+     *
+     * <p>The input is scanned once to locate the end of the root value, but no
+     * values are created until they are needed. Each container records its
+     * position in the full text of the input, which is retained until every
+     * container has been loaded. If the reader does not already retain its
+     * full text, the remaining input will be captured instead.
+     *
+     * <p>Note that the contents of each container are <b>not validated</b>
+     * until they are loaded. As a result, any {@link SyntaxException} will be
+     * thrown when the invalid container is first accessed.
+     *
+     * @return A definite, non-null {@link JsonValue}.
+     * @throws IOException If the reader throws an {@link IOException}.
+     */
+    public @NotNull JsonValue parseLazy() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        if (!reader.isCapturingFullText()) {
+            final int line = reader.line;
+            final int column = reader.column;
+            reader.startCapture();
+            while (reader.current != -1) {
+                reader.read();
+            }
+            final String text = reader.endCapture();
+            return new JsonParser(PositionTrackingReader.fromString(text, 0, line, column)).parseLazy();
+        }
+        reader.skipWhitespace();
+        final int linesAbove = reader.linesSkipped;
+        final int c = reader.current;
+        if (c != '{' && c != '[') {
+            return this.parse();
+        }
+        final int index = reader.index;
+        final int line = reader.line;
+        final int column = reader.column;
+        this.skipValue();
+        reader.skipWhitespace();
+        if (!reader.isEndOfText()) {
+            throw reader.unexpected();
+        }
+        final LazySource source =
+            new LazySource(reader.getFullText().toString(), index, line, column);
+        final JsonValue result =
+            c == '{' ? new LazyJsonObject(source) : new LazyJsonArray(source);
+        return result.setLinesAbove(linesAbove);
+    }
+
     protected JsonValue readValue() throws IOException {
         return switch (this.reader.current) {
             case 'n' -> this.readNull();
             case 't' -> this.readTrue();
             case 'f' -> this.readFalse();
             case '"' -> this.readString();
-            case '[' -> this.readArray();
-            case '{' -> this.readObject();
-            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> Json.value(this.reader.readNumber());
+            case '[' -> this.lazyText != null ? this.readLazy(false) : this.readArray();
+            case '{' -> this.lazyText != null ? this.readLazy(true) : this.readObject();
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> this.reader.readJsonNumber();
             default -> throw this.reader.expected("value");
         };
     }
@@ -89,27 +240,122 @@ public class JsonParser implements ValueParser {
     }
 
     protected JsonArray readArray() throws IOException {
+        if (this.numberArrays && this.selection == null) {
+            final JsonArray array = this.readArray(new JsonNumberArray());
+            return array.isEmpty() ? new JsonArray() : array;
+        }
+        return this.readArray(new JsonArray());
+    }
+
+    protected JsonArray readArray(final JsonArray array) throws IOException {
+        if (this.unformatted) {
+            return this.readArrayUnformatted(array);
+        }
         this.reader.read();
-        final JsonArray array = new JsonArray();
         this.reader.skipWhitespace();
         if (this.reader.readIf(']')) {
             return array;
         }
+        JsonArray result = array;
+        int index = 0;
         do {
             this.reader.skipWhitespace(false);
             final int linesAbove = this.reader.linesSkipped;
-            array.add(this.readValue().setLinesAbove(linesAbove));
+            final JsonValue value = this.selection != null
+                ? this.readSelected(this.selection.getElement(index++))
+                : this.readValue();
+            if (value != null) {
+                result = this.addElement(result, value.setLinesAbove(linesAbove));
+            }
             this.reader.skipWhitespace();
         } while (this.reader.readIf(','));
         if (!this.reader.readIf(']')) {
             throw this.reader.expected("',' or ']'");
         }
-        return (JsonArray) array.setLinesTrailing(this.reader.linesSkipped);
+        return (JsonArray) result.setLinesTrailing(this.reader.linesSkipped);
+    }
+
+    protected JsonArray readArrayUnformatted(final JsonArray array) throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        reader.skipWhitespaceFast();
+        if (reader.readIf(']')) {
+            return array;
+        }
+        JsonArray result = array;
+        int index = 0;
+        do {
+            reader.skipWhitespaceFast();
+            final JsonValue value = this.selection != null
+                ? this.readSelected(this.selection.getElement(index++))
+                : this.readValue();
+            if (value != null) {
+                result = this.addElement(result, value);
+            }
+            reader.skipWhitespaceFast();
+        } while (reader.readIf(','));
+        if (!reader.readIf(']')) {
+            throw reader.expected("',' or ']'");
+        }
+        return result;
+    }
+
+    /**
+     * Adds a single element into an array being parsed. A {@link
+     * JsonNumberArray} is replaced with a regular array as soon as any
+     * value other than a number is found.
+     *
+     * @param array The array receiving the element.
+     * @param value The element being added.
+     * @return The array which now contains the element.
+     */
+    protected JsonArray addElement(final JsonArray array, final JsonValue value) {
+        if (array instanceof JsonNumberArray numbers) {
+            if (numbers.addIfNumber(value)) {
+                return array;
+            }
+            return new JsonArray().addAll(numbers).add(value);
+        }
+        return array.add(value);
+    }
+
+    /**
+     * Reads a run of elements from the body of an array, stopping at the
+     * given index. This allows a single array to be parsed in chunks.
+     *
+     * @param array     The array receiving each element.
+     * @param delimited Whether the run begins with a delimiter.
+     * @param end       The index at which the run ends.
+     * @return The input array, with its trailing lines set.
+     * @throws IOException If the reader throws an {@link IOException}.
+     */
+    protected JsonArray readElements(
+            final JsonArray array, final boolean delimited, final int end) throws IOException {
+        this.reader.skipWhitespace();
+        if (delimited) {
+            this.reader.expect(',');
+        }
+        do {
+            this.reader.skipWhitespace(false);
+            final int linesAbove = this.reader.linesSkipped;
+            array.add(this.readValue().setLinesAbove(linesAbove));
+            this.reader.skipWhitespace();
+            if (this.reader.index >= end) {
+                return (JsonArray) array.setLinesTrailing(this.reader.linesSkipped);
+            }
+        } while (this.reader.readIf(','));
+        throw this.reader.expected("',' or ']'");
     }
 
     protected JsonObject readObject() throws IOException {
+        return this.readObject(new JsonObject());
+    }
+
+    protected JsonObject readObject(final JsonObject object) throws IOException {
+        if (this.unformatted) {
+            return this.readObjectUnformatted(object);
+        }
         this.reader.read();
-        final JsonObject object = new JsonObject();
         this.reader.skipWhitespace();
         if (this.reader.readIf('}')) {
             return object;
@@ -122,10 +368,14 @@ public class JsonParser implements ValueParser {
             this.reader.expect(':');
             this.reader.skipWhitespace();
             final int linesBetween = this.reader.linesSkipped;
-            object.add(key,
-                this.readValue()
-                    .setLinesAbove(linesAbove)
-                    .setLinesBetween(linesBetween));
+            final JsonValue value = this.selection != null
+                ? this.readSelected(this.selection.getMember(key))
+                : this.readValue();
+            if (value != null) {
+                object.add(key,
+                    value.setLinesAbove(linesAbove)
+                        .setLinesBetween(linesBetween));
+            }
             this.reader.skipWhitespace();
         } while (this.reader.readIf(','));
         if (!this.reader.readIf('}')) {
@@ -134,11 +384,108 @@ public class JsonParser implements ValueParser {
         return (JsonObject) object.setLinesTrailing(this.reader.linesSkipped);
     }
 
+    protected JsonObject readObjectUnformatted(final JsonObject object) throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        reader.skipWhitespaceFast();
+        if (reader.readIf('}')) {
+            return object;
+        }
+        do {
+            reader.skipWhitespaceFast();
+            final String key = this.readKey();
+            reader.skipWhitespaceFast();
+            reader.expect(':');
+            reader.skipWhitespaceFast();
+            final JsonValue value = this.selection != null
+                ? this.readSelected(this.selection.getMember(key))
+                : this.readValue();
+            if (value != null) {
+                object.add(key, value);
+            }
+            reader.skipWhitespaceFast();
+        } while (reader.readIf(','));
+        if (!reader.readIf('}')) {
+            throw reader.expected("',' or '}'");
+        }
+        return object;
+    }
+
     protected String readKey() throws IOException {
         if (this.reader.current != '"') {
             throw this.reader.expected("key");
         }
-        return this.reader.readQuoted('"');
+        return this.reader.readQuoted('"', this.keys);
+    }
+
+    protected JsonValue readLazy(final boolean object) throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        final LazySource source =
+            new LazySource(this.lazyText, reader.index, reader.line, reader.column);
+        this.skipValue();
+        return object ? new LazyJsonObject(source) : new LazyJsonArray(source);
+    }
+
+    protected @Nullable JsonValue readSelected(
+            final @Nullable PathSelection.Node node) throws IOException {
+        final int c = this.reader.current;
+        if (node == null || (!node.isSelected() && c != '{' && c != '[')) {
+            this.skipValue();
+            return null;
+        }
+        final PathSelection.Node parent = this.selection;
+        this.selection = node.isSelected() ? null : node;
+        final JsonValue value = this.readValue();
+        this.selection = parent;
+        // containers are only kept if they lead up to a match
+        return node.isSelected() || !value.asContainer().isEmpty() ? value : null;
+    }
+
+    protected void skipValue() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        int level = 0;
+        do {
+            final int c = reader.current;
+            if (c == '"') {
+                this.skipQuoted();
+            } else if (c == '{' || c == '[') {
+                level++;
+                reader.read();
+            } else if (c == '}' || c == ']') {
+                if (level == 0) {
+                    throw reader.expected("value");
+                }
+                level--;
+                reader.read();
+            } else if (c == -1) {
+                throw reader.expected(level == 0 ? "value" : "end of container");
+            } else if (level == 0) {
+                // numbers and literals end at the next structural character
+                while (!reader.isWhitespace() && !this.isDelimiter(reader.current)) {
+                    reader.read();
+                }
+            } else {
+                reader.read();
+            }
+        } while (level > 0);
+    }
+
+    private boolean isDelimiter(final int c) {
+        return c == ',' || c == '}' || c == ']' || c == -1;
+    }
+
+    protected void skipQuoted() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        while (reader.current != '"') {
+            if (reader.current == -1) {
+                throw reader.expected('"');
+            } else if (reader.current == '\\') {
+                reader.read();
+            }
+            reader.read();
+        }
+        reader.read();
     }
 
     @Override
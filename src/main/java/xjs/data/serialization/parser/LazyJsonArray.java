@@ -0,0 +1,24 @@
+package xjs.data.serialization.parser;
+
+import xjs.data.JsonArray;
+
+/**
+ * A {@link JsonArray} which is not parsed until its elements are accessed.
+ *
+ * @see JsonParser#parseLazy()
+ */
+final class LazyJsonArray extends JsonArray {
+    private final LazySource source;
+
+    LazyJsonArray(final LazySource source) {
+        super(new LazySource.LazyList<>(source));
+        this.source = source;
+        source.setOwner(this);
+    }
+
+    @Override
+    public int getLinesTrailing() {
+        this.source.load();
+        return super.getLinesTrailing();
+    }
+}
@@ -0,0 +1,26 @@
+package xjs.data.serialization.parser;
+
+import xjs.data.JsonObject;
+
+/**
+ * A {@link JsonObject} which is not parsed until its members are accessed.
+ *
+ * @see JsonParser#parseLazy()
+ */
+final class LazyJsonObject extends JsonObject {
+    private final LazySource source;
+
+    LazyJsonObject(final LazySource source) {
+        super(new LazySource.LazyList<>(source),
+            new LazySource.LazyList<>(source),
+            new LazySource.LazyIndexTable(source));
+        this.source = source;
+        source.setOwner(this);
+    }
+
+    @Override
+    public int getLinesTrailing() {
+        this.source.load();
+        return super.getLinesTrailing();
+    }
+}
@@ -0,0 +1,198 @@
+package xjs.data.serialization.parser;
+
+import org.jetbrains.annotations.NotNull;
+import xjs.data.JsonArray;
+import xjs.data.JsonContainer;
+import xjs.data.JsonObject;
+import xjs.data.serialization.util.HashIndexTable;
+import xjs.data.serialization.util.PositionTrackingReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
+/**
+ * The location of a lazily-parsed container in its source text. The first
+ * time any of the container's data are accessed, its members are parsed
+ * directly into the container.
+ *
+ * <p>Only a single level is parsed at a time. Any containers inside of this
+ * one are themselves lazy.
+ */
+final class LazySource {
+    private final String text;
+    private final int index;
+    private final int line;
+    private final int column;
+    private JsonContainer owner;
+    private boolean loaded;
+
+    LazySource(final String text, final int index, final int line, final int column) {
+        this.text = text;
+        this.index = index;
+        this.line = line;
+        this.column = column;
+    }
+
+    void setOwner(final JsonContainer owner) {
+        this.owner = owner;
+    }
+
+    void load() {
+        if (this.loaded) {
+            return;
+        }
+        // set first so the owner can be mutated by the parser
+        this.loaded = true;
+        final JsonParser parser = new JsonParser(
+            PositionTrackingReader.fromString(this.text, this.index, this.line, this.column));
+        parser.lazyText = this.text;
+        try {
+            if (this.owner instanceof JsonObject) {
+                parser.readObject((JsonObject) this.owner);
+            } else {
+                parser.readArray((JsonArray) this.owner);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A list which loads its source before any operation is performed.
+     *
+     * @param <T> The type of element in the list.
+     */
+    static final class LazyList<T> extends AbstractList<T> implements RandomAccess {
+        private final LazySource source;
+        private final List<T> delegate;
+
+        LazyList(final LazySource source) {
+            this.source = source;
+            this.delegate = new ArrayList<>();
+        }
+
+        private List<T> load() {
+            this.source.load();
+            return this.delegate;
+        }
+
+        @Override
+        public T get(final int index) {
+            return this.load().get(index);
+        }
+
+        @Override
+        public int size() {
+            return this.load().size();
+        }
+
+        @Override
+        public T set(final int index, final T element) {
+            return this.load().set(index, element);
+        }
+
+        @Override
+        public boolean add(final T t) {
+            return this.load().add(t);
+        }
+
+        @Override
+        public void add(final int index, final T element) {
+            this.load().add(index, element);
+        }
+
+        @Override
+        public boolean addAll(final Collection<? extends T> c) {
+            return this.load().addAll(c);
+        }
+
+        @Override
+        public T remove(final int index) {
+            return this.load().remove(index);
+        }
+
+        @Override
+        public void clear() {
+            this.load().clear();
+        }
+
+        @Override
+        public int indexOf(final Object o) {
+            return this.load().indexOf(o);
+        }
+
+        @Override
+        public int lastIndexOf(final Object o) {
+            return this.load().lastIndexOf(o);
+        }
+
+        @Override
+        public @NotNull Iterator<T> iterator() {
+            return this.load().iterator();
+        }
+
+        @Override
+        public @NotNull ListIterator<T> listIterator(final int index) {
+            return this.load().listIterator(index);
+        }
+
+        @Override
+        public @NotNull List<T> subList(final int fromIndex, final int toIndex) {
+            return this.load().subList(fromIndex, toIndex);
+        }
+    }
+
+    /**
+     * An index table which loads its source before any operation is performed.
+     */
+    static final class LazyIndexTable extends HashIndexTable {
+        private final LazySource source;
+
+        LazyIndexTable(final LazySource source) {
+            this.source = source;
+        }
+
+        @Override
+        public void init(final List<?> values) {
+            this.source.load();
+            super.init(values);
+        }
+
+        @Override
+        public void add(final Object key, final int index) {
+            this.source.load();
+            super.add(key, index);
+        }
+
+        @Override
+        public void remove(final int index) {
+            this.source.load();
+            super.remove(index);
+        }
+
+        @Override
+        public int get(final Object key) {
+            this.source.load();
+            return super.get(key);
+        }
+
+        @Override
+        public int size() {
+            this.source.load();
+            return super.size();
+        }
+
+        @Override
+        public void clear() {
+            this.source.load();
+            super.clear();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package xjs.data.serialization.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xjs.data.JsonArray;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.PositionTrackingReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Variant of {@link JsonParser} which reads newline-delimited JSON, i.e.
+ * consecutive top-level values separated by new lines.
+ *
+ * <p>Every record is read from the same {@link PositionTrackingReader},
+ * meaning its buffers are reused for the entire input. Records may be read
+ * one at a time by calling {@link #next()}, or else by iterating over this
+ * object.
+ *
+ * <pre>{@code
+ *   try (final NdJsonParser parser = new NdJsonParser(file)) {
+ *     parser.stream()
+ *       .filter(v -> v.asObject().getOptional("error").isPresent())
+ *       .forEach(System.out::println);
+ *   }
+ * }</pre>
+ *
+ * <p>Any {@link SyntaxException} thrown by this parser additionally reports
+ * the {@link SyntaxException#getRecord record number} and {@link
+ * SyntaxException#getOffset offset} of the record being parsed. Blank lines
+ * between records are ignored.
+ */
+public class NdJsonParser extends JsonParser implements Iterable<JsonValue> {
+    protected int record;
+    protected long offset;
+
+    public NdJsonParser(final String text) {
+        super(text);
+    }
+
+    public NdJsonParser(final File file) throws IOException {
+        super(file);
+    }
+
+    public NdJsonParser(final File file, final int bufferSize) throws IOException {
+        super(file, bufferSize);
+    }
+
+    public NdJsonParser(final PositionTrackingReader reader) {
+        super(reader);
+    }
+
+    @Override
+    public void reset(final PositionTrackingReader reader) {
+        super.reset(reader);
+        this.record = 0;
+        this.offset = 0;
+    }
+
+    /**
+     * Reads every remaining record into a single {@link JsonArray}.
+     *
+     * @return An array containing each record in the input.
+     * @throws IOException If the reader throws an {@link IOException}.
+     */
+    @Override
+    public @NotNull JsonValue parse() throws IOException {
+        final JsonArray records = new JsonArray();
+        JsonValue value;
+        while ((value = this.next()) != null) {
+            records.add(value);
+        }
+        return records;
+    }
+
+    /**
+     * Reads every remaining record into a single {@link JsonArray}, without
+     * tracking any formatting data inside of each record.
+     *
+     * @return An array containing each record in the input.
+     * @throws IOException If the reader throws an {@link IOException}.
+     */
+    @Override
+    public @NotNull JsonValue parseUnformatted() throws IOException {
+        this.unformatted = true;
+        try {
+            return this.parse();
+        } finally {
+            this.unformatted = false;
+        }
+    }
+
+    /**
+     * Lazy parsing is not supported for multi-record input.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public @NotNull JsonValue parseLazy() {
+        throw new UnsupportedOperationException("Lazy parsing is not supported for NDJSON");
+    }
+
+    /**
+     * Reads the next record from the input.
+     *
+     * @return The next record, or else <code>null</code> at the end of input.
+     * @throws IOException If the reader throws an {@link IOException}.
+     * @throws SyntaxException If the record is syntactically invalid.
+     */
+    public @Nullable JsonValue next() throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.skipWhitespace();
+        if (reader.isEndOfText()) {
+            return null;
+        }
+        this.record++;
+        this.offset = reader.index;
+        try {
+            final JsonValue value = this.readValue();
+            reader.skipLineWhitespace();
+            if (reader.current != '\n' && !reader.isEndOfText()) {
+                throw reader.expected("new line");
+            }
+            return value;
+        } catch (final SyntaxException e) {
+            throw e.inRecord(this.record, this.offset);
+        }
+    }
+
+    /**
+     * Gets the number of the most recently read record, starting at 1.
+     *
+     * @return The current record number, or else 0 if no records have been read.
+     */
+    public int getRecord() {
+        return this.record;
+    }
+
+    /**
+     * Gets the character offset at which the most recent record begins.
+     *
+     * @return The offset of the current record.
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Generates an iterator over the remaining records in the input. Any
+     * {@link IOException} thrown by the reader will be wrapped in an {@link
+     * UncheckedIOException}.
+     *
+     * @return An iterator over each remaining record.
+     */
+    @Override
+    public @NotNull Iterator<JsonValue> iterator() {
+        return new RecordIterator();
+    }
+
+    /**
+     * Generates a sequential stream of the remaining records in the input.
+     * Closing the stream will close this parser.
+     *
+     * @return A stream of each remaining record.
+     */
+    public Stream<JsonValue> stream() {
+        final Spliterator<JsonValue> spliterator = Spliterators.spliteratorUnknownSize(
+            this.iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                this.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private class RecordIterator implements Iterator<JsonValue> {
+        JsonValue next;
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null) {
+                try {
+                    this.next = NdJsonParser.this.next();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final JsonValue next = this.next;
+            this.next = null;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package xjs.data.serialization.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xjs.data.JsonArray;
+import xjs.data.JsonValue;
+import xjs.data.comments.CommentType;
+import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.token.DjsTokenizer;
+import xjs.data.serialization.util.PositionTrackingReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses a document consisting of a single, very large top-level array by
+ * parsing its elements in parallel.
+ *
+ * <p>The input is first scanned for the boundaries between elements, which
+ * only requires tracking the depth of each container and whether the scanner
+ * is inside of a string. The elements are then divided into chunks, each of
+ * which is parsed on its own worker. Elements are always returned in their
+ * original order, and any {@link SyntaxException} reports its position in the
+ * full input.
+ *
+ * <pre>{@code
+ *   final JsonArray events = new ParallelArrayParser(path)
+ *     .setExecutor(pool)
+ *     .parse()
+ *     .asArray();
+ * }</pre>
+ *
+ * <p>In DJS mode, chunks may only be split at commas which end a line and are
+ * not followed by a comment, so that each comment remains attached to the same
+ * value. Arrays delimited only by new lines will be parsed sequentially.
+ *
+ * <p>If the root value is not an array, or if the scan finds any structural
+ * error, the input is parsed sequentially instead.
+ */
+public class ParallelArrayParser implements ValueParser {
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final String text;
+    private Executor executor = ForkJoinPool.commonPool();
+    private int chunkSize;
+    private boolean djs;
+
+    /**
+     * Constructs the parser from raw text containing a single array.
+     *
+     * @param text The full text being parsed.
+     */
+    public ParallelArrayParser(final String text) {
+        this.text = text;
+    }
+
+    /**
+     * Constructs the parser by reading the full contents of a UTF-8 file.
+     *
+     * @param path The path to the file being parsed.
+     * @throws IOException If an error occurs when reading the file.
+     */
+    public ParallelArrayParser(final Path path) throws IOException {
+        this(Files.readString(path));
+    }
+
+    /**
+     * Sets the executor which each chunk will be parsed on. By default, this
+     * is the {@link ForkJoinPool#commonPool common pool}.
+     *
+     * @param executor The executor used to parse each chunk.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelArrayParser setExecutor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets the approximate number of characters in each chunk. By default,
+     * this is derived from the size of the input and the parallelism of the
+     * common pool.
+     *
+     * @param chunkSize The minimum number of characters per chunk.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelArrayParser setChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets whether the input is in DJS format, as opposed to strict JSON.
+     *
+     * @param djs Whether to parse the input as DJS.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelArrayParser setDjs(final boolean djs) {
+        this.djs = djs;
+        return this;
+    }
+
+    @Override
+    public @NotNull JsonValue parse() throws IOException {
+        final List<Chunk> chunks = this.djs ? this.scanDjs() : this.scanJson();
+        if (chunks == null || chunks.size() < 2) {
+            return this.parseSequential();
+        }
+        final List<CompletableFuture<Chunk>> futures = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            final Chunk chunk = chunks.get(i);
+            final boolean delimited = i > 0;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    chunk.elements = this.djs ? this.parseDjs(chunk) : this.parseJson(chunk, delimited);
+                } catch (final RuntimeException e) {
+                    chunk.error = e;
+                }
+                return chunk;
+            }, this.executor));
+        }
+        final JsonArray array = new JsonArray();
+        JsonArray last = array;
+        for (final CompletableFuture<Chunk> future : futures) {
+            final Chunk chunk = future.join();
+            if (chunk.error != null) {
+                throw chunk.error;
+            }
+            array.addAll(chunk.elements);
+            last = chunk.elements;
+        }
+        array.setLinesTrailing(last.getLinesTrailing());
+        this.copyRootFormatting(chunks, array, last);
+        return array;
+    }
+
+    // the whitespace around the root array is parsed sequentially, in place of its elements
+    private void copyRootFormatting(
+            final List<Chunk> chunks, final JsonArray array, final JsonArray last) throws IOException {
+        final int open = this.djs ? chunks.get(0).start : chunks.get(0).start - 1;
+        final int close = chunks.get(chunks.size() - 1).end;
+        final String envelope = this.text.substring(0, open + 1) + this.text.substring(close);
+        final JsonValue root = this.djs
+            ? new DjsParser(envelope).parse()
+            : new JsonParser(envelope).parse();
+        array.setLinesAbove(root.getLinesAbove());
+        if (root.hasComments()) {
+            array.setComments(root.getComments());
+        }
+        if (last.hasComments() && last.getComments().has(CommentType.INTERIOR)) {
+            array.getComments().setData(CommentType.INTERIOR, last.getComments().getData(CommentType.INTERIOR));
+        }
+    }
+
+    private JsonValue parseSequential() throws IOException {
+        if (this.djs) {
+            return new DjsParser(this.text).parse();
+        }
+        return new JsonParser(this.text).parse();
+    }
+
+    private JsonArray parseJson(final Chunk chunk, final boolean delimited) {
+        final JsonParser parser = new JsonParser(
+            PositionTrackingReader.fromString(this.text, chunk.start, chunk.line, chunk.column));
+        try {
+            return parser.readElements(new JsonArray(), delimited, chunk.end);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // each chunk is bracketed in place of the delimiters surrounding it
+    private JsonArray parseDjs(final Chunk chunk) {
+        final String body = "[" + this.text.substring(chunk.start + 1, chunk.end) + "]";
+        final DjsParser parser = new DjsParser(DjsTokenizer.stream(
+            PositionTrackingReader.fromString(body, 0, chunk.line, chunk.column)));
+        return parser.parse().asArray();
+    }
+
+    private int getChunkSize() {
+        if (this.chunkSize > 0) {
+            return this.chunkSize;
+        }
+        final int threads = this.executor instanceof ForkJoinPool
+            ? ((ForkJoinPool) this.executor).getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        return Math.max(MIN_CHUNK_SIZE, this.text.length() / (threads * CHUNKS_PER_THREAD));
+    }
+
+    /**
+     * Locates the chunks of a JSON array. Each chunk begins after the last
+     * element of the previous chunk, so that any lines above its delimiter
+     * are still counted.
+     *
+     * @return The chunks of the root array, or else <code>null</code>.
+     */
+    private @Nullable List<Chunk> scanJson() {
+        final String text = this.text;
+        final int len = text.length();
+        final int size = this.getChunkSize();
+        int line = 0;
+        int lineStart = 0;
+        int i = 0;
+        for (; i < len && text.charAt(i) != '['; i++) {
+            final char c = text.charAt(i);
+            if (c == '\n') {
+                line++;
+                lineStart = i + 1;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return null;
+            }
+        }
+        if (i == len) {
+            return null;
+        }
+        final List<Chunk> chunks = new ArrayList<>();
+        Chunk chunk = new Chunk(i + 1, line, i + 1 - lineStart);
+        chunks.add(chunk);
+        int valueEnd = i + 1;
+        int valueLine = line;
+        int valueColumn = valueEnd - lineStart;
+        int depth = 1;
+        while (++i < len) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '\n':
+                    line++;
+                    lineStart = i + 1;
+                    continue;
+                case ' ', '\t', '\r':
+                    continue;
+                case '"':
+                    while (++i < len && text.charAt(i) != '"') {
+                        final char s = text.charAt(i);
+                        if (s == '\\') {
+                            i++;
+                        } else if (s == '\n') {
+                            line++;
+                            lineStart = i + 1;
+                        }
+                    }
+                    break;
+                case '[', '{':
+                    depth++;
+                    break;
+                case ']', '}':
+                    if (--depth == 0) {
+                        chunk.end = i;
+                        return c == ']' && isBlank(text, i + 1, len) ? chunks : null;
+                    }
+                    break;
+                case ',':
+                    if (depth == 1) {
+                        if (i - chunk.start >= size) {
+                            chunk.end = valueEnd;
+                            chunk = new Chunk(valueEnd, valueLine, valueColumn);
+                            chunks.add(chunk);
+                        }
+                        continue;
+                    }
+            }
+            valueEnd = i + 1;
+            valueLine = line;
+            valueColumn = valueEnd - lineStart;
+        }
+        return null;
+    }
+
+    /**
+     * Locates the chunks of a DJS array. Each chunk spans from one splitting
+     * delimiter to the next, which will be replaced with brackets.
+     *
+     * @return The chunks of the root array, or else <code>null</code>.
+     */
+    private @Nullable List<Chunk> scanDjs() {
+        final String text = this.text;
+        final int len = text.length();
+        final int size = this.getChunkSize();
+        int line = 0;
+        int lineStart = 0;
+        int i = 0;
+        for (; i < len && text.charAt(i) != '['; i++) {
+            final char c = text.charAt(i);
+            if (c == '\n') {
+                line++;
+                lineStart = i + 1;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return null;
+            }
+        }
+        if (i == len) {
+            return null;
+        }
+        final List<Chunk> chunks = new ArrayList<>();
+        Chunk chunk = new Chunk(i, line, i - lineStart);
+        chunks.add(chunk);
+        int depth = 1;
+        while (++i < len) {
+            final int from = i;
+            final char c = text.charAt(i);
+            switch (c) {
+                case '\n':
+                    line++;
+                    lineStart = i + 1;
+                    break;
+                case '"':
+                    i = this.skipQuoted(i, '"');
+                    break;
+                case '\'':
+                    if (text.startsWith("'''", i)) {
+                        i = text.indexOf("'''", i + 3);
+                        if (i < 0) {
+                            return null;
+                        }
+                        i += 2;
+                    } else {
+                        i = this.skipQuoted(i, '\'');
+                    }
+                    break;
+                case '#':
+                    i = skipLine(text, i);
+                    break;
+                case '/':
+                    if (i + 1 < len && text.charAt(i + 1) == '/') {
+                        i = skipLine(text, i);
+                    } else if (i + 1 < len && text.charAt(i + 1) == '*') {
+                        i = text.indexOf("*/", i + 2);
+                        if (i < 0) {
+                            return null;
+                        }
+                        i++;
+                    }
+                    break;
+                case '[', '{':
+                    depth++;
+                    break;
+                case ']', '}':
+                    if (--depth == 0) {
+                        chunk.end = i;
+                        return c == ']' && isBlank(text, i + 1, len) ? chunks : null;
+                    }
+                    break;
+                case ',':
+                    if (depth == 1 && i - chunk.start >= size && endsLine(text, i + 1, len)) {
+                        chunk.end = i;
+                        chunk = new Chunk(i, line, i - lineStart);
+                        chunks.add(chunk);
+                    }
+            }
+            if (i < 0 || i >= len) {
+                return null;
+            }
+            // comments and multi-line strings may span lines
+            for (int j = from + 1; j <= i; j++) {
+                if (text.charAt(j) == '\n') {
+                    line++;
+                    lineStart = j + 1;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int skipQuoted(int i, final char quote) {
+        final String text = this.text;
+        final int len = text.length();
+        while (++i < len && text.charAt(i) != quote) {
+            if (text.charAt(i) == '\\') {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static int skipLine(final String text, final int i) {
+        final int nl = text.indexOf('\n', i);
+        return nl < 0 ? text.length() - 1 : nl - 1;
+    }
+
+    private static boolean endsLine(final String text, int i, final int len) {
+        for (; i < len; i++) {
+            final char c = text.charAt(i);
+            if (c == '\n') {
+                return true;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(final String text, int i, final int len) {
+        for (; i < len; i++) {
+            final char c = text.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {}
+
+    private static class Chunk {
+        final int start;
+        final int line;
+        final int column;
+        int end;
+        JsonArray elements;
+        RuntimeException error;
+
+        Chunk(final int start, final int line, final int column) {
+            this.start = start;
+            this.line = line;
+            this.column = column;
+        }
+    }
+}
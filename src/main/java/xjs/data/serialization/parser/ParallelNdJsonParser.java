@@ -0,0 +1,471 @@
+package xjs.data.serialization.parser;
+
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.PositionTrackingReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads newline-delimited JSON by splitting the input into chunks on line
+ * boundaries and parsing each chunk on a separate worker.
+ *
+ * <p>Each chunk is parsed by its own {@link NdJsonParser}, meaning records
+ * may <b>not</b> span multiple lines. Results are delivered on the calling
+ * thread, either in input order or as soon as each chunk is complete.
+ *
+ * <pre>{@code
+ *   new ParallelNdJsonParser(path)
+ *     .setOrdered(false)
+ *     .forEach(record -> index.add(record));
+ * }</pre>
+ *
+ * <p>Only a bounded number of chunks may be parsed ahead of the consumer,
+ * which is configured via {@link #setMaxPendingChunks}. Any {@link
+ * SyntaxException} thrown by this parser reports the line, record number,
+ * and character offset relative to the start of the <em>full</em> input.
+ */
+public class ParallelNdJsonParser {
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final Source source;
+    private Executor executor = ForkJoinPool.commonPool();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int maxPendingChunks = Runtime.getRuntime().availableProcessors() * 2;
+    private boolean ordered = true;
+
+    /**
+     * Constructs the parser from raw text in NDJSON format.
+     *
+     * @param text The full text being parsed.
+     */
+    public ParallelNdJsonParser(final String text) {
+        this.source = new TextSource(text);
+    }
+
+    /**
+     * Constructs the parser from a buffer of UTF-8 encoded NDJSON data. The
+     * buffer is read from index 0 up to its limit.
+     *
+     * @param buffer The buffer being parsed.
+     */
+    public ParallelNdJsonParser(final ByteBuffer buffer) {
+        this.source = new BufferSource(buffer);
+    }
+
+    /**
+     * Constructs the parser by mapping the given file into memory.
+     *
+     * @param path The path to a file in NDJSON format.
+     * @throws IOException If the file cannot be opened or mapped.
+     * @throws IllegalArgumentException If the file is too large to be mapped.
+     */
+    public ParallelNdJsonParser(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("file too large to map: " + path);
+            }
+            this.source = new BufferSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Sets the executor which each chunk will be parsed on. By default, this
+     * is the {@link ForkJoinPool#commonPool common pool}.
+     *
+     * @param executor The executor used to parse each chunk.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelNdJsonParser setExecutor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets the approximate size of each chunk. Chunks are always extended to
+     * the end of the current line.
+     *
+     * @param chunkSize The minimum number of characters or bytes per chunk.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelNdJsonParser setChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of chunks which may be parsed ahead of the
+     * consumer. This bounds the amount of memory in use at any given time.
+     *
+     * @param maxPendingChunks The maximum number of chunks in flight.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelNdJsonParser setMaxPendingChunks(final int maxPendingChunks) {
+        if (maxPendingChunks < 1) {
+            throw new IllegalArgumentException("max pending chunks must be positive: " + maxPendingChunks);
+        }
+        this.maxPendingChunks = maxPendingChunks;
+        return this;
+    }
+
+    /**
+     * Sets whether records must be delivered in input order. When this value
+     * is <code>false</code>, each chunk is delivered as soon as it has been
+     * parsed, but records within a chunk remain in order.
+     *
+     * @param ordered Whether to preserve the order of the input.
+     * @return <code>this</code>, for method chaining.
+     */
+    public ParallelNdJsonParser setOrdered(final boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * Generates an iterator over every record in the input. Chunks will begin
+     * parsing as soon as this method is called.
+     *
+     * <p>An iterator which is abandoned early may leave up to {@link
+     * #setMaxPendingChunks max pending chunks} parsing in the background.
+     * Prefer {@link #stream} or {@link #forEach}, which cancel any remaining
+     * chunks when closed or when an exception is thrown.
+     *
+     * @return An iterator over each record.
+     * @throws SyntaxException If any record is syntactically invalid.
+     */
+    public Iterator<JsonValue> iterator() {
+        return new RecordIterator();
+    }
+
+    /**
+     * Generates a sequential stream of every record in the input.
+     *
+     * @return A stream of each record.
+     * @throws SyntaxException If any record is syntactically invalid.
+     */
+    public Stream<JsonValue> stream() {
+        final int characteristics = this.ordered
+            ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL;
+        final RecordIterator iterator = new RecordIterator();
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+            .onClose(iterator::cancel);
+    }
+
+    /**
+     * Delivers every record in the input to the given consumer. The consumer
+     * is always invoked on the calling thread.
+     *
+     * @param consumer The consumer accepting each record.
+     * @throws SyntaxException If any record is syntactically invalid.
+     */
+    public void forEach(final Consumer<JsonValue> consumer) {
+        final RecordIterator iterator = new RecordIterator();
+        try {
+            iterator.forEachRemaining(consumer);
+        } finally {
+            iterator.cancel();
+        }
+    }
+
+    private static List<JsonValue> parseChunk(final PositionTrackingReader reader) {
+        final List<JsonValue> records = new ArrayList<>();
+        try (final NdJsonParser parser = new NdJsonParser(reader)) {
+            JsonValue value;
+            while ((value = parser.next()) != null) {
+                records.add(value);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    private static class Chunk {
+        final int start;
+        final int end;
+        List<JsonValue> records;
+        Throwable error;
+
+        Chunk(final int start, final int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private class RecordIterator implements Iterator<JsonValue> {
+        final Queue<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+        final BlockingQueue<Chunk> completed = new LinkedBlockingQueue<>();
+        Iterator<JsonValue> current = Collections.emptyIterator();
+        int position;
+        int inFlight;
+        volatile boolean cancelled;
+
+        RecordIterator() {
+            this.fill();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.current.hasNext()) {
+                if (!this.advance()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public JsonValue next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.current.next();
+        }
+
+        private void fill() {
+            final Source source = ParallelNdJsonParser.this.source;
+            while (this.inFlight < maxPendingChunks && this.position < source.length()) {
+                final Chunk chunk = new Chunk(this.position, source.nextBoundary(this.position, chunkSize));
+                // state is only updated once the executor has accepted the chunk
+                final CompletableFuture<Chunk> future =
+                    CompletableFuture.supplyAsync(() -> this.parse(source, chunk), executor);
+                this.position = chunk.end;
+                this.inFlight++;
+                if (ordered) {
+                    this.pending.add(future);
+                }
+            }
+        }
+
+        // never throws, so that every chunk is delivered to the consumer
+        private Chunk parse(final Source source, final Chunk chunk) {
+            if (!this.cancelled) {
+                try {
+                    chunk.records = parseChunk(source.open(chunk.start, chunk.end));
+                } catch (final Throwable t) {
+                    chunk.error = t;
+                }
+            }
+            if (!ordered) {
+                this.completed.add(chunk);
+            }
+            return chunk;
+        }
+
+        void cancel() {
+            this.cancelled = true;
+            for (final CompletableFuture<Chunk> future : this.pending) {
+                future.cancel(false);
+            }
+            this.pending.clear();
+            this.completed.clear();
+            this.current = Collections.emptyIterator();
+            this.position = ParallelNdJsonParser.this.source.length();
+            this.inFlight = 0;
+        }
+
+        private boolean advance() {
+            if (this.inFlight == 0) {
+                // resubmits any chunk which was previously rejected
+                this.fill();
+                if (this.inFlight == 0) {
+                    return false;
+                }
+            }
+            final Chunk chunk;
+            if (ordered) {
+                chunk = this.pending.remove().join();
+            } else {
+                try {
+                    chunk = this.completed.take();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for records", e);
+                }
+            }
+            this.inFlight--;
+            if (chunk.error != null) {
+                this.cancel();
+                throw this.rethrow(chunk);
+            }
+            this.current = chunk.records.iterator();
+            this.fill();
+            return true;
+        }
+
+        private RuntimeException rethrow(final Chunk chunk) {
+            final Throwable error = chunk.error;
+            if (error instanceof SyntaxException) {
+                final Source source = ParallelNdJsonParser.this.source;
+                return ((SyntaxException) error).shift(
+                    source.countLines(chunk.start), source.countRecords(chunk.start), source.countChars(chunk.start));
+            } else if (error instanceof RuntimeException) {
+                return (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            }
+            return new IllegalStateException("Error parsing records", error);
+        }
+    }
+
+    private interface Source {
+        int length();
+        int nextBoundary(final int start, final int size);
+        PositionTrackingReader open(final int start, final int end);
+        int countLines(final int end);
+        int countRecords(final int end);
+        long countChars(final int end);
+    }
+
+    private static class TextSource implements Source {
+        final String text;
+
+        TextSource(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int length() {
+            return this.text.length();
+        }
+
+        @Override
+        public int nextBoundary(final int start, final int size) {
+            final int end = (int) Math.min((long) start + size, this.text.length());
+            final int nl = this.text.indexOf('\n', end - 1);
+            return nl < 0 ? this.text.length() : nl + 1;
+        }
+
+        @Override
+        public PositionTrackingReader open(final int start, final int end) {
+            return PositionTrackingReader.fromString(this.text.substring(start, end));
+        }
+
+        @Override
+        public int countLines(final int end) {
+            int lines = 0;
+            for (int i = 0; i < end; i++) {
+                if (this.text.charAt(i) == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+
+        @Override
+        public int countRecords(final int end) {
+            int records = 0;
+            boolean blank = true;
+            for (int i = 0; i < end; i++) {
+                final char c = this.text.charAt(i);
+                if (c == '\n') {
+                    blank = true;
+                } else if (blank && c != ' ' && c != '\t' && c != '\r') {
+                    blank = false;
+                    records++;
+                }
+            }
+            return records;
+        }
+
+        @Override
+        public long countChars(final int end) {
+            return end;
+        }
+    }
+
+    private static class BufferSource implements Source {
+        final ByteBuffer buffer;
+
+        BufferSource(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return this.buffer.limit();
+        }
+
+        @Override
+        public int nextBoundary(final int start, final int size) {
+            final int limit = this.buffer.limit();
+            int i = (int) Math.min((long) start + size, limit) - 1;
+            while (i < limit && this.buffer.get(i) != '\n') {
+                i++;
+            }
+            return Math.min(i + 1, limit);
+        }
+
+        @Override
+        public PositionTrackingReader open(final int start, final int end) {
+            return PositionTrackingReader.fromBuffer(this.buffer.slice(start, end - start));
+        }
+
+        @Override
+        public int countLines(final int end) {
+            int lines = 0;
+            for (int i = 0; i < end; i++) {
+                if (this.buffer.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            return lines;
+        }
+
+        @Override
+        public int countRecords(final int end) {
+            int records = 0;
+            boolean blank = true;
+            for (int i = 0; i < end; i++) {
+                final byte b = this.buffer.get(i);
+                if (b == '\n') {
+                    blank = true;
+                } else if (blank && b != ' ' && b != '\t' && b != '\r') {
+                    blank = false;
+                    records++;
+                }
+            }
+            return records;
+        }
+
+        @Override
+        public long countChars(final int end) {
+            long chars = 0;
+            for (int i = 0; i < end; i++) {
+                final byte b = this.buffer.get(i);
+                if ((b & 0xC0) != 0x80) {
+                    // 4-byte sequences decode into surrogate pairs
+                    chars += (b & 0xF8) == 0xF0 ? 2 : 1;
+                }
+            }
+            return chars;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package xjs.data.serialization.parser;
+
+import org.jetbrains.annotations.Nullable;
+import xjs.data.JsonContainer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled set of JSON paths used to project a document while it is being
+ * parsed. Any value which is not selected by at least one path is skipped by
+ * the parser without being materialized.
+ *
+ * <p>Paths are written in the same syntax generated by {@link
+ * JsonContainer#getPaths()}, i.e. dotted keys and bracketed indices. In
+ * addition, either type of segment may be replaced with a wildcard:
+ *
+ * <pre>{@code
+ *   server.port
+ *   db.pools[*].size
+ *   [0].*.name
+ * }</pre>
+ *
+ * <p>When a path matches, its entire subtree is included in the output. Any
+ * containers leading up to the match are included as well, but contain only
+ * the selected members. Containers which do not lead up to any match, e.g.
+ * those only reached by a wildcard, are omitted. Elements of arrays which are
+ * not selected are omitted as well, meaning the indices of the output may not
+ * correspond to the input.
+ */
+public class PathSelection {
+    private final Node root;
+
+    protected PathSelection(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles a selection from any number of path strings.
+     *
+     * @param paths The paths being selected.
+     * @return A new {@link PathSelection}.
+     * @throws IllegalArgumentException If any path is malformed.
+     */
+    public static PathSelection of(final String... paths) {
+        return of(List.of(paths));
+    }
+
+    /**
+     * Compiles a selection from a collection of path strings.
+     *
+     * @param paths The paths being selected.
+     * @return A new {@link PathSelection}.
+     * @throws IllegalArgumentException If any path is malformed.
+     */
+    public static PathSelection of(final Collection<String> paths) {
+        final Node root = new Node();
+        for (final String path : paths) {
+            parse(root, path);
+        }
+        root.distributeWildcards();
+        return new PathSelection(root);
+    }
+
+    /**
+     * Gets the root node of this selection, representing the top-level value.
+     *
+     * @return The root {@link Node}.
+     */
+    public Node getRoot() {
+        return this.root;
+    }
+
+    private static void parse(Node node, final String path) {
+        final int len = path.length();
+        if (len == 0) {
+            throw new IllegalArgumentException("Empty path");
+        }
+        int i = 0;
+        while (i < len) {
+            final char c = path.charAt(i);
+            if (c == '[') {
+                final int end = path.indexOf(']', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Expected ']': " + path);
+                }
+                node = node.addElement(parseIndex(path, i + 1, end));
+                i = end + 1;
+                if (i < len && path.charAt(i) == '.') {
+                    i++;
+                    if (i == len) {
+                        throw new IllegalArgumentException("Trailing '.': " + path);
+                    }
+                }
+            } else {
+                int end = i;
+                while (end < len && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                if (end == i) {
+                    throw new IllegalArgumentException("Empty key: " + path);
+                }
+                node = node.addMember(path.substring(i, end));
+                i = end;
+                if (i < len && path.charAt(i) == '.') {
+                    i++;
+                    if (i == len) {
+                        throw new IllegalArgumentException("Trailing '.': " + path);
+                    }
+                }
+            }
+        }
+        node.selected = true;
+    }
+
+    private static int parseIndex(final String path, final int start, final int end) {
+        final String index = path.substring(start, end);
+        if ("*".equals(index)) {
+            return -1;
+        }
+        try {
+            final int i = Integer.parseInt(index);
+            if (i >= 0) {
+                return i;
+            }
+        } catch (final NumberFormatException ignored) {}
+        throw new IllegalArgumentException("Not an index: '" + index + "' in " + path);
+    }
+
+    /**
+     * A single step in a path, linking to the keys and indices which may
+     * follow it.
+     */
+    public static class Node {
+        private final Map<String, Node> members = new HashMap<>();
+        private final Map<Integer, Node> elements = new HashMap<>();
+        private @Nullable Node anyMember;
+        private @Nullable Node anyElement;
+        private boolean selected;
+
+        protected Node() {}
+
+        /**
+         * Indicates whether this node was selected directly, meaning its
+         * entire subtree should be included in the output.
+         *
+         * @return <code>true</code>, if every child value is selected.
+         */
+        public boolean isSelected() {
+            return this.selected;
+        }
+
+        /**
+         * Gets the node for a member of the object at this location.
+         *
+         * @param key The key of the member.
+         * @return The matching node, or else <code>null</code> to skip it.
+         */
+        public @Nullable Node getMember(final String key) {
+            final Node member = this.members.get(key);
+            return member != null ? member : this.anyMember;
+        }
+
+        /**
+         * Gets the node for an element of the array at this location.
+         *
+         * @param index The index of the element in the input.
+         * @return The matching node, or else <code>null</code> to skip it.
+         */
+        public @Nullable Node getElement(final int index) {
+            final Node element = this.elements.get(index);
+            return element != null ? element : this.anyElement;
+        }
+
+        private Node addMember(final String key) {
+            if ("*".equals(key)) {
+                if (this.anyMember == null) {
+                    this.anyMember = new Node();
+                }
+                return this.anyMember;
+            }
+            return this.members.computeIfAbsent(key, k -> new Node());
+        }
+
+        private Node addElement(final int index) {
+            if (index < 0) {
+                if (this.anyElement == null) {
+                    this.anyElement = new Node();
+                }
+                return this.anyElement;
+            }
+            return this.elements.computeIfAbsent(index, i -> new Node());
+        }
+
+        // exact matches must also follow any wildcard at the same level
+        private void distributeWildcards() {
+            if (this.anyMember != null) {
+                for (final Node member : this.members.values()) {
+                    member.merge(this.anyMember);
+                }
+                this.anyMember.distributeWildcards();
+            }
+            if (this.anyElement != null) {
+                for (final Node element : this.elements.values()) {
+                    element.merge(this.anyElement);
+                }
+                this.anyElement.distributeWildcards();
+            }
+            for (final Node member : this.members.values()) {
+                member.distributeWildcards();
+            }
+            for (final Node element : this.elements.values()) {
+                element.distributeWildcards();
+            }
+        }
+
+        private void merge(final Node source) {
+            this.selected |= source.selected;
+            source.members.forEach((key, member) -> this.addMember(key).merge(member));
+            source.elements.forEach((index, element) -> this.addElement(index).merge(element));
+            if (source.anyMember != null) {
+                this.addMember("*").merge(source.anyMember);
+            }
+            if (source.anyElement != null) {
+                this.addElement(-1).merge(source.anyElement);
+            }
+        }
+    }
+}
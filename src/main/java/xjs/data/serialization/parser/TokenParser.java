@@ -108,6 +108,12 @@ public abstract class TokenParser implements ValueParser {
      */
     protected int linesSkipped;
 
+    /**
+     * Indicates whether formatting data is being discarded. When this flag is
+     * set, no lines or comments will be transferred into the output.
+     */
+    protected boolean unformatted;
+
     /**
      * Constructs a new Parser when given a root stream of tokens.
      *
@@ -125,6 +131,21 @@ public abstract class TokenParser implements ValueParser {
         this.current = root;
     }
 
+    /**
+     * Restores this parser to its initial state, after which it will begin
+     * reading from the start of the {@link #root} stream. Implementors may
+     * reset the root stream itself beforehand to reuse this parser for a new
+     * input.
+     */
+    protected void reset() {
+        this.stack.clear();
+        this.formatting = new JsonArray();
+        this.iterator = this.root.iterator();
+        this.current = this.root;
+        this.linesSkipped = 0;
+        this.unformatted = false;
+    }
+
     /**
      * Advanced the iterator a single time. If the iterator has
      * no values to return, yields a dummy value instead.
@@ -470,6 +491,10 @@ public abstract class TokenParser implements ValueParser {
      * Stores any data <em>above</em> the current value as formatting.
      */
     protected void setAbove() {
+        if (this.unformatted) {
+            this.linesSkipped = 0;
+            return;
+        }
         this.formatting.setLinesAbove(this.takeLinesSkipped());
     }
 
@@ -478,6 +503,10 @@ public abstract class TokenParser implements ValueParser {
      * as formatting.
      */
     protected void setBetween() {
+        if (this.unformatted) {
+            this.linesSkipped = 0;
+            return;
+        }
         this.formatting.setLinesBetween(this.takeLinesSkipped());
     }
 
@@ -486,6 +515,10 @@ public abstract class TokenParser implements ValueParser {
      * formatting.
      */
     protected void setTrailing() {
+        if (this.unformatted) {
+            this.linesSkipped = 0;
+            return;
+        }
         this.formatting.setLinesTrailing(this.takeLinesSkipped());
     }
 
@@ -549,6 +582,9 @@ public abstract class TokenParser implements ValueParser {
      * @return The input, <code>value</code>.
      */
     protected <T extends JsonValue> T takeFormatting(final T value) {
+        if (this.unformatted) {
+            return value;
+        }
         value.setDefaultMetadata(this.formatting);
         this.clearFormatting();
         return value;
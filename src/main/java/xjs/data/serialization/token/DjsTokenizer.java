@@ -11,6 +11,14 @@ import java.io.InputStream;
  */
 public class DjsTokenizer extends Tokenizer {
 
+    /**
+     * Indicates whether comments should be skipped entirely, rather than
+     * being returned as {@link CommentToken comment tokens}.
+     */
+    protected final boolean ignoreComments;
+
+    private boolean lineStart = true;
+
     /**
      * Begins parsing tokens when given a typically ongoing input.
      *
@@ -20,6 +28,7 @@ public class DjsTokenizer extends Tokenizer {
      */
     public DjsTokenizer(final InputStream is, final boolean containerized) throws IOException {
         super(is, containerized);
+        this.ignoreComments = false;
     }
 
     /**
@@ -30,6 +39,7 @@ public class DjsTokenizer extends Tokenizer {
      */
     public DjsTokenizer(final String text, final boolean containerized) {
         super(text, containerized);
+        this.ignoreComments = false;
     }
 
     /**
@@ -39,7 +49,26 @@ public class DjsTokenizer extends Tokenizer {
      * @param containerized Whether to generate containers on the fly.
      */
     public DjsTokenizer(final PositionTrackingReader reader, final boolean containerized) {
+        this(reader, containerized, false);
+    }
+
+    /**
+     * Begins parsing tokens from any other source, optionally skipping any
+     * comments in the input.
+     *
+     * <p>When comments are ignored, their text is never captured and no
+     * {@link CommentToken} is created. Any comment which occupies its own
+     * line is skipped along with its line break, so that the remaining
+     * tokens are counted as if the comment did not exist.
+     *
+     * @param reader         A reader providing characters and positional data.
+     * @param containerized  Whether to generate containers on the fly.
+     * @param ignoreComments Whether to skip comments in the input.
+     */
+    public DjsTokenizer(
+            final PositionTrackingReader reader, final boolean containerized, final boolean ignoreComments) {
         super(reader, containerized);
+        this.ignoreComments = ignoreComments;
     }
 
     /**
@@ -73,7 +102,20 @@ public class DjsTokenizer extends Tokenizer {
      * @return A new {@link TokenStream}.
      */
     public static TokenStream stream(final PositionTrackingReader reader) {
-        return new TokenStream(new DjsTokenizer(reader, false), TokenType.OPEN);
+        return stream(reader, false);
+    }
+
+    /**
+     * Variant of {@link #stream(PositionTrackingReader)} which optionally
+     * skips any comments in the input.
+     *
+     * @param reader         The source of tokens being parsed.
+     * @param ignoreComments Whether to skip comments in the input.
+     * @return A new {@link TokenStream}.
+     */
+    public static TokenStream stream(
+            final PositionTrackingReader reader, final boolean ignoreComments) {
+        return new TokenStream(new DjsTokenizer(reader, false, ignoreComments), TokenType.OPEN);
     }
 
     /**
@@ -110,15 +152,29 @@ public class DjsTokenizer extends Tokenizer {
         return new TokenStream(new DjsTokenizer(reader, true), TokenType.OPEN);
     }
 
+    @Override
+    public void reset(final PositionTrackingReader reader) {
+        super.reset(reader);
+        this.lineStart = true;
+    }
+
     @Override
     protected @Nullable Token single() throws IOException {
-        this.reader.skipLineWhitespace();
-        if (this.reader.isEndOfText()) {
-            return null;
+        final PositionTrackingReader reader = this.reader;
+        char c;
+        do {
+            reader.skipLineWhitespace();
+            if (reader.isEndOfText()) {
+                return null;
+            }
+            c = (char) reader.current;
+            this.startReading();
+        } while (this.ignoreComments && (c == '/' || c == '#') && this.skipComment(c));
+        if (this.ignoreComments && c == '/') {
+            this.lineStart = false;
+            return this.newSymbolToken(c);
         }
-        final char c = (char) this.reader.current;
-        this.startReading();
-        return switch (c) {
+        final Token t = switch (c) {
             case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> this.number();
             case '/', '#' -> this.comment(c);
             case '\'', '"' -> this.quote(c);
@@ -126,5 +182,34 @@ public class DjsTokenizer extends Tokenizer {
             case '.' -> this.dot();
             default -> this.word();
         };
+        this.lineStart = c == '\n';
+        return t;
+    }
+
+    /**
+     * Skips a comment in the input without capturing its text. If the
+     * comment occupies its own line, the line break after it is skipped
+     * as well.
+     *
+     * @param c The first character of the comment.
+     * @return <code>true</code>, if a comment was skipped, or else
+     *         <code>false</code> if the character is a regular symbol.
+     * @throws IOException If the reader throws an exception.
+     */
+    protected boolean skipComment(final char c) throws IOException {
+        final PositionTrackingReader reader = this.reader;
+        reader.read();
+        if (c == '#' || reader.current == '/') {
+            reader.skipToNL();
+        } else if (reader.current == '*') {
+            reader.skipBlockComment();
+            reader.skipLineWhitespace();
+        } else {
+            return false;
+        }
+        if (this.lineStart && reader.current == '\n') {
+            reader.read();
+        }
+        return true;
     }
 }
@@ -119,6 +119,30 @@ public class TokenStream extends Token implements Iterable<Token>, Closeable {
         this.tokenizer = tokenizer;
     }
 
+    /**
+     * Discards any tokens read by this stream and begins reading from a new
+     * tokenizer. If the stream is configured to {@link #preserveOutput
+     * preserve its output}, it will continue to do so.
+     *
+     * @param tokenizer A tokenizer for generating tokens OTF.
+     * @param type      The type of token.
+     */
+    public synchronized void reset(final @NotNull Tokenizer tokenizer, final TokenType type) {
+        final PositionTrackingReader reader = tokenizer.reader;
+        this.start = reader.index;
+        this.end = -1;
+        this.line = reader.line;
+        this.lastLine = -1;
+        this.offset = reader.index;
+        this.type = type;
+        this.pending.clear();
+        if (this.source != Collections.EMPTY_LIST) {
+            this.source.clear();
+        }
+        this.lastRead = -1;
+        this.tokenizer = tokenizer;
+    }
+
     /**
      * Configures the stream to preserve its full token output. This
      * output will be visible to callers using {@link #stringify} and
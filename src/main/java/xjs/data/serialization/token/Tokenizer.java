@@ -2,6 +2,7 @@ package xjs.data.serialization.token;
 
 import org.jetbrains.annotations.Nullable;
 import xjs.data.StringType;
+import xjs.data.serialization.util.DoubleParser;
 import xjs.data.serialization.util.PositionTrackingReader;
 
 import java.io.Closeable;
@@ -16,7 +17,7 @@ public abstract class Tokenizer implements Closeable {
     /**
      * A reader tracking characters and positional data.
      */
-    protected final PositionTrackingReader reader;
+    protected PositionTrackingReader reader;
 
     /**
      * Indicates whether this tokenizer should generate
@@ -71,6 +72,19 @@ public abstract class Tokenizer implements Closeable {
         this.containerized = containerized;
     }
 
+    /**
+     * Replaces the source of this tokenizer, allowing it to be reused for
+     * another input.
+     *
+     * @param reader A reader providing characters and positional data.
+     */
+    public void reset(final PositionTrackingReader reader) {
+        this.reader = reader;
+        this.index = 0;
+        this.line = 0;
+        this.column = 0;
+    }
+
     /**
      * Exposes the reader directly to provide additional context to any
      * callers and facilitate parsing exotic formats.
@@ -247,7 +261,7 @@ public abstract class Tokenizer implements Closeable {
     }
 
     protected Token parseNumber(final String capture) {
-        return this.newNumberToken(capture, Double.parseDouble(capture));
+        return this.newNumberToken(capture, DoubleParser.parseDouble(capture));
     }
 
     protected Token newNumberToken(final String capture, final double number) {
@@ -16,6 +16,16 @@ public abstract class BufferedStack {
         return this.index == 0;
     }
 
+    /**
+     * Removes every value from the stack, retaining its capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < this.index; i++) {
+            this.stack[i] = null;
+        }
+        this.index = 0;
+    }
+
     protected void grow() {
         final Object[] newStack = new Object[this.stack.length + 10];
         System.arraycopy(this.stack, 0, newStack, 0, this.index);
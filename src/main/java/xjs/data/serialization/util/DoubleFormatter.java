@@ -0,0 +1,273 @@
+package xjs.data.serialization.util;
+
+import java.math.BigInteger;
+
+/**
+ * Writes numbers into a character array without creating any intermediate
+ * strings or decimals.
+ *
+ * <p>Doubles are written using the shortest sequence of digits which parses
+ * back into the exact same value, as selected by Raffaello Giulietti's
+ * "Schubfach" algorithm. When more than one such sequence exists, the one
+ * closest to the exact value is written.
+ *
+ * <p>The layout of each number follows the conventions used by this library's
+ * writers. Integers below 2^63 are written without a fraction. Numbers between
+ * <code>1e-6</code> and <code>1e7</code>, and any other number with a fraction,
+ * are written in plain notation. Everything else is written in scientific
+ * notation with a lowercase <code>e</code>.
+ */
+public final class DoubleFormatter {
+
+    /**
+     * The maximum number of characters which can be written by any call to
+     * this formatter.
+     */
+    public static final int MAX_CHARS = 32;
+
+    private static final int MANTISSA_BITS = 52;
+    private static final int INFINITE_POWER = 0x7FF;
+    private static final long MANTISSA_MASK = (1L << MANTISSA_BITS) - 1;
+    private static final long HIDDEN_BIT = 1L << MANTISSA_BITS;
+    private static final int MIN_Q = -1074;
+    private static final long MAX_TINY_SIGNIFICAND = 3;
+    private static final int MIN_K = -324;
+    private static final int MAX_K = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    private static final int MIN_PLAIN_EXPONENT = -6;
+    private static final int MIN_SHORT_EXPONENT = -3;
+    private static final int MAX_PLAIN_EXPONENT = 7;
+
+    private DoubleFormatter() {}
+
+    /**
+     * Writes the given double into a buffer of at least {@link #MAX_CHARS}
+     * available characters.
+     *
+     * @param value The number being written.
+     * @param buf   The buffer receiving each character.
+     * @param off   The index of the first character in the buffer.
+     * @return The index after the last character written.
+     * @throws NumberFormatException If the value is infinite or NaN.
+     */
+    public static int format(final double value, final char[] buf, int off) {
+        final long integer = (long) value;
+        if (integer == value) {
+            return format(integer, buf, off);
+        }
+        final long bits = Double.doubleToRawLongBits(value);
+        final int power = (int) (bits >>> MANTISSA_BITS) & INFINITE_POWER;
+        if (power == INFINITE_POWER) {
+            throw new NumberFormatException("Infinite or NaN");
+        }
+        if (bits < 0) {
+            buf[off++] = '-';
+        }
+        final long mantissa = bits & MANTISSA_MASK;
+        if (power != 0) {
+            return toDecimal(power - 1075, HIDDEN_BIT | mantissa, 0, buf, off);
+        } else if (mantissa < MAX_TINY_SIGNIFICAND) {
+            return toDecimal(MIN_Q, 10 * mantissa, -1, buf, off);
+        }
+        return toDecimal(MIN_Q, mantissa, 0, buf, off);
+    }
+
+    /**
+     * Writes the given integer into a buffer of at least {@link #MAX_CHARS}
+     * available characters.
+     *
+     * @param value The number being written.
+     * @param buf   The buffer receiving each character.
+     * @param off   The index of the first character in the buffer.
+     * @return The index after the last character written.
+     */
+    public static int format(final long value, final char[] buf, int off) {
+        // accumulate negatively so that Long.MIN_VALUE is not a special case
+        long n = value;
+        if (n < 0) {
+            buf[off++] = '-';
+        } else {
+            n = -n;
+        }
+        int len = 1;
+        for (long q = n / 10; q != 0; q /= 10) {
+            len++;
+        }
+        final int end = off + len;
+        int i = end;
+        do {
+            buf[--i] = (char) ('0' - n % 10);
+            n /= 10;
+        } while (n != 0);
+        return end;
+    }
+
+    /**
+     * Formats the given double as a string, following the same rules as
+     * {@link #format(double, char[], int)}.
+     *
+     * @param value The number being formatted.
+     * @return The formatted number.
+     * @throws NumberFormatException If the value is infinite or NaN.
+     */
+    public static String toString(final double value) {
+        final char[] buf = new char[MAX_CHARS];
+        return new String(buf, 0, format(value, buf, 0));
+    }
+
+    private static int layout(long f, int e, final char[] buf, final int off) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        final int len = length(f);
+        final int exponent = e + len - 1;
+        if (exponent < MIN_PLAIN_EXPONENT || (exponent >= MAX_PLAIN_EXPONENT && e >= 0)) {
+            // d.ddde[-]x, with at least one fractional digit
+            int i = writeDigits(f, buf, off + 1 + len);
+            buf[off] = buf[off + 1];
+            buf[off + 1] = '.';
+            if (len == 1) {
+                buf[i++] = '0';
+            }
+            buf[i++] = 'e';
+            return format(exponent, buf, i);
+        } else if (exponent >= 0) {
+            // ddd.ddd
+            final int point = off + exponent + 1;
+            final int end = writeDigits(f, buf, off + len);
+            System.arraycopy(buf, point, buf, point + 1, end - point);
+            buf[point] = '.';
+            return end + 1;
+        }
+        // 0.000ddd, keeping two significant digits beyond the short range
+        int i = off;
+        buf[i++] = '0';
+        buf[i++] = '.';
+        for (int z = -exponent - 1; z > 0; z--) {
+            buf[i++] = '0';
+        }
+        i = writeDigits(f, buf, i + len);
+        if (len == 1 && exponent < MIN_SHORT_EXPONENT) {
+            buf[i++] = '0';
+        }
+        return i;
+    }
+
+    private static int length(final long f) {
+        int len = 1;
+        for (long p = 10; len < 19 && f >= p; p *= 10) {
+            len++;
+        }
+        return len;
+    }
+
+    private static int writeDigits(long f, final char[] buf, final int end) {
+        int i = end;
+        do {
+            buf[--i] = (char) ('0' + f % 10);
+            f /= 10;
+        } while (f != 0);
+        return end;
+    }
+
+    // writes the shortest decimal which rounds to c * 2^q
+    private static int toDecimal(
+            final int q, final long c, final int dk, final char[] buf, final int off) {
+        final int out = (int) c & 1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != HIDDEN_BIT || q == MIN_Q) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // the gap below a power of two is half as wide
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        final int h = q + floorLog2Pow10(-k) + 2;
+        final int index = (k - MIN_K) << 1;
+        final long[] table = PowerTable.POWERS_OF_TEN;
+        final long g1 = table[index];
+        final long g0 = table[index + 1];
+
+        final long vb = roundToOdd(g1, g0, cb << h);
+        final long vbl = roundToOdd(g1, g0, cbl << h);
+        final long vbr = roundToOdd(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            // try one fewer digit first: s / 10 * 10, and the next above it
+            final long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return layout(upin ? sp10 : tp10, k, buf, off);
+            }
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return layout(uin ? s : t, k + dk, buf, off);
+        }
+        // both candidates round to the value, so pick the closest
+        final long cmp = vb - ((s + t) << 1);
+        return layout(cmp < 0 || (cmp == 0 && (s & 1) == 0) ? s : t, k + dk, buf, off);
+    }
+
+    private static long roundToOdd(final long g1, final long g0, final long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+    // floor(q * log10(2))
+    private static int floorLog10Pow2(final int q) {
+        return (int) (q * 661_971_961_083L >> 41);
+    }
+
+    // floor(q * log10(2) + log10(3/4))
+    private static int floorLog10ThreeQuartersPow2(final int q) {
+        return (int) (q * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    // floor(e * log2(10))
+    private static int floorLog2Pow10(final int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * The 126-bit significands of every power of ten from 10^-292 to 10^324,
+     * rounded up and split into two 63-bit halves. Generated on first use.
+     */
+    private static final class PowerTable {
+        static final long[] POWERS_OF_TEN = generate();
+
+        static long[] generate() {
+            final long[] table = new long[2 * (MAX_K - MIN_K + 1)];
+            final BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+            for (int k = MIN_K; k <= MAX_K; k++) {
+                // g = floor(10^-k * 2^(125 - r)) + 1, where r = floor(log2(10^-k))
+                final int shift = 125 - floorLog2Pow10(-k);
+                final BigInteger g;
+                if (k <= 0) {
+                    g = BigInteger.TEN.pow(-k).shiftLeft(shift).add(BigInteger.ONE);
+                } else {
+                    g = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k)).add(BigInteger.ONE);
+                }
+                final int index = (k - MIN_K) << 1;
+                table[index] = g.shiftRight(63).longValue();
+                table[index + 1] = g.and(mask).longValue();
+            }
+            return table;
+        }
+    }
+}
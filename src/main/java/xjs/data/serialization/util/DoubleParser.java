@@ -0,0 +1,239 @@
+package xjs.data.serialization.util;
+
+import java.math.BigInteger;
+
+/**
+ * Converts decimal significands and exponents into doubles without creating
+ * any intermediate strings.
+ *
+ * <p>Small values are converted exactly using floating point arithmetic.
+ * Otherwise, the significand is multiplied by a 128-bit approximation of the
+ * power of ten, as described by Daniel Lemire in "Number Parsing at a
+ * Gigabyte per Second." Any case where this approximation is not provably
+ * correct is reported to the caller, which must then fall back to {@link
+ * Double#parseDouble}. The result is always bit-identical to that method.
+ */
+public final class DoubleParser {
+
+    /**
+     * The maximum number of significant digits which can always be held by
+     * an unsigned <code>long</code>.
+     */
+    public static final int MAX_DIGITS = 19;
+
+    private static final int MIN_POWER = -342;
+    private static final int MAX_POWER = 308;
+    private static final int MAX_EXACT_POWER = 22;
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+    private static final int MANTISSA_BITS = 52;
+    private static final int INFINITE_POWER = 0x7FF;
+    private static final long SIGN_BIT = 1L << 63;
+
+    private static final double[] EXACT_POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private DoubleParser() {}
+
+    /**
+     * Converts a decimal number in the form <code>significand * 10^exponent
+     * </code> into the nearest double.
+     *
+     * @param significand The <b>unsigned</b> significant digits, at most {@link #MAX_DIGITS}.
+     * @param exponent    The power of ten by which to scale the significand.
+     * @param negative    Whether the number is negative.
+     * @return The nearest double, or else {@link Double#NaN} if the caller must fall back.
+     */
+    public static double toDouble(final long significand, final int exponent, final boolean negative) {
+        if (significand == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (exponent >= -MAX_EXACT_POWER && exponent <= MAX_EXACT_POWER
+                && significand > 0 && significand <= MAX_EXACT_SIGNIFICAND) {
+            // both operands are exact, so the result is correctly rounded
+            final double d = exponent < 0
+                ? significand / EXACT_POWERS[-exponent]
+                : significand * EXACT_POWERS[exponent];
+            return negative ? -d : d;
+        }
+        final long bits;
+        if (exponent < MIN_POWER) {
+            bits = 0;
+        } else if (exponent > MAX_POWER) {
+            bits = (long) INFINITE_POWER << MANTISSA_BITS;
+        } else {
+            bits = computeBits(significand, exponent);
+            if (bits < 0) {
+                return Double.NaN;
+            }
+        }
+        return Double.longBitsToDouble(negative ? bits | SIGN_BIT : bits);
+    }
+
+    /**
+     * Parses the given text, which must be a valid number according to
+     * {@link Double#parseDouble}.
+     *
+     * @param s The text being parsed.
+     * @return The parsed number.
+     * @throws NumberFormatException If the text is not a valid number.
+     */
+    public static double parseDouble(final String s) {
+        final int len = s.length();
+        int i = 0;
+        final boolean negative = len > 0 && s.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        for (; i < len && isDigit(s.charAt(i)); i++) {
+            hasDigits = true;
+            if (digits == MAX_DIGITS) {
+                return Double.parseDouble(s);
+            }
+            significand = significand * 10 + (s.charAt(i) - '0');
+            if (significand != 0) {
+                digits++;
+            }
+        }
+        if (i < len && s.charAt(i) == '.') {
+            for (i++; i < len && isDigit(s.charAt(i)); i++) {
+                hasDigits = true;
+                if (digits == MAX_DIGITS) {
+                    return Double.parseDouble(s);
+                }
+                significand = significand * 10 + (s.charAt(i) - '0');
+                if (significand != 0) {
+                    digits++;
+                }
+                exponent--;
+            }
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            final boolean negativeExponent = i < len && s.charAt(i) == '-';
+            if (i < len && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                i++;
+            }
+            if (i == len) {
+                return Double.parseDouble(s);
+            }
+            int e = 0;
+            for (; i < len && isDigit(s.charAt(i)); i++) {
+                if (e < 100_000) {
+                    e = e * 10 + (s.charAt(i) - '0');
+                }
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        if (i != len || !hasDigits) {
+            return Double.parseDouble(s);
+        }
+        final double d = toDouble(significand, exponent, negative);
+        return Double.isNaN(d) ? Double.parseDouble(s) : d;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // returns -1 if the result cannot be determined
+    private static long computeBits(long w, final int q) {
+        final int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        final int index = 2 * (q - MIN_POWER);
+        final long[] powers = PowerTable.POWERS_OF_FIVE;
+        long hi = multiplyHighUnsigned(w, powers[index]);
+        long lo = w * powers[index];
+        final long precisionMask = -1L >>> (MANTISSA_BITS + 3);
+        if ((hi & precisionMask) == precisionMask) {
+            final long secondHi = multiplyHighUnsigned(w, powers[index + 1]);
+            lo += secondHi;
+            if (Long.compareUnsigned(secondHi, lo) > 0) {
+                hi++;
+            }
+        }
+        if (lo == -1L && (q < -27 || q > 55)) {
+            return -1;
+        }
+
+        final int upperBit = (int) (hi >>> 63);
+        long mantissa = hi >>> (upperBit + 64 - MANTISSA_BITS - 3);
+        int power2 = power(q) + upperBit - lz + 1023;
+        if (power2 <= 0) {
+            if (-power2 + 1 >= 64) {
+                return 0;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << MANTISSA_BITS) ? 0 : 1;
+            return ((long) power2 << MANTISSA_BITS) | (mantissa & ((1L << MANTISSA_BITS) - 1));
+        }
+        // exactly halfway between two doubles, so round to even
+        if (Long.compareUnsigned(lo, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1
+                && (mantissa << (upperBit + 64 - MANTISSA_BITS - 3)) == hi) {
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_BITS)) {
+            mantissa = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER) {
+            return (long) INFINITE_POWER << MANTISSA_BITS;
+        }
+        return ((long) power2 << MANTISSA_BITS) | mantissa;
+    }
+
+    // floor(log2(10^q)) + 63
+    private static int power(final int q) {
+        return (((152170 + 65536) * q) >> 16) + 63;
+    }
+
+    private static long multiplyHighUnsigned(final long a, final long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    /**
+     * The 128-bit truncated significands of every power of five from 5^-342
+     * to 5^308. Generated on first use.
+     */
+    private static final class PowerTable {
+        static final long[] POWERS_OF_FIVE = generate();
+
+        static long[] generate() {
+            final long[] table = new long[2 * (MAX_POWER - MIN_POWER + 1)];
+            final BigInteger five = BigInteger.valueOf(5);
+            final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            final BigInteger max = BigInteger.ONE.shiftLeft(128);
+            for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+                BigInteger c;
+                if (q < 0) {
+                    final BigInteger power = five.pow(-q);
+                    final int z = power.bitLength();
+                    final int b = q >= -27 ? z + 127 : 2 * z + 128;
+                    c = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                    while (c.compareTo(max) >= 0) {
+                        c = c.shiftRight(1);
+                    }
+                } else {
+                    c = five.pow(q);
+                    final int shift = 128 - c.bitLength();
+                    c = shift > 0 ? c.shiftLeft(shift) : c.shiftRight(-shift);
+                }
+                final int index = 2 * (q - MIN_POWER);
+                table[index] = c.shiftRight(64).longValue();
+                table[index + 1] = c.and(mask).longValue();
+            }
+            return table;
+        }
+    }
+}
@@ -3,46 +3,145 @@ package xjs.data.serialization.util;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * An open-addressing hash table mapping keys to their <em>last</em> index in
+ * some external list.
+ *
+ * <p>The table grows whenever its load factor is exceeded, meaning lookups
+ * remain constant-time regardless of how many members are being indexed.
+ * When a key is added more than once, the most recent index takes precedence.
+ */
 public class HashIndexTable {
-    protected final byte[] indices = new byte[32];
+    protected static final int DEFAULT_CAPACITY = 8;
+    protected static final float LOAD_FACTOR = 0.75F;
+
+    protected Object[] keys;
+    protected int[] indices;
+    protected int size;
+    protected int threshold;
+
+    public HashIndexTable() {
+        this.allocate(DEFAULT_CAPACITY);
+    }
 
     public void init(final List<?> values) {
+        this.ensureCapacity(values.size());
         for (int i = 0; i < values.size(); i++) {
             this.add(values.get(i), i);
         }
     }
 
     public void add(final Object key, final int index) {
-        int slot = getSlot(key);
-        if (index < 0xff) {
-            // increment by 1, 0 stands for empty
-            this.indices[slot] = (byte) (index + 1);
-        } else {
-            this.indices[slot] = 0;
+        int slot = this.getSlot(key);
+        while (this.keys[slot] != null) {
+            if (this.keys[slot].equals(key)) {
+                // last duplicate wins
+                this.indices[slot] = index;
+                return;
+            }
+            slot = (slot + 1) & (this.keys.length - 1);
+        }
+        this.keys[slot] = key;
+        this.indices[slot] = index;
+        if (++this.size > this.threshold) {
+            this.resize(this.keys.length << 1);
         }
     }
 
     public void remove(final int index) {
+        int removed = -1;
         for (int i = 0; i < this.indices.length; i++) {
-            final int current = this.indices[i] & 0xff;
-            if (current == index + 1) {
-                this.indices[i] = 0;
-            } else if (current > index + 1) {
+            if (this.keys[i] == null) {
+                continue;
+            }
+            final int current = this.indices[i];
+            if (current == index) {
+                removed = i;
+            } else if (current > index) {
                 this.indices[i]--;
             }
         }
+        if (removed != -1) {
+            this.delete(removed);
+        }
     }
 
     public int get(final Object key) {
-        // subtract 1, 0 stands for empty
-        return (this.indices[this.getSlot(key)] & 0xff) - 1;
+        int slot = this.getSlot(key);
+        Object k;
+        while ((k = this.keys[slot]) != null) {
+            if (k.equals(key)) {
+                return this.indices[slot];
+            }
+            slot = (slot + 1) & (this.keys.length - 1);
+        }
+        return -1;
     }
 
-    private int getSlot(final Object key) {
-        return key.hashCode() & this.indices.length - 1;
+    public int size() {
+        return this.size;
     }
 
     public void clear() {
-        Arrays.fill(this.indices, (byte) 0);
+        if (this.size > 0) {
+            Arrays.fill(this.keys, null);
+            this.size = 0;
+        }
+    }
+
+    private int getSlot(final Object key) {
+        final int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (this.keys.length - 1);
+    }
+
+    private void ensureCapacity(final int expected) {
+        int capacity = this.keys.length;
+        while (expected > (int) (capacity * LOAD_FACTOR)) {
+            capacity <<= 1;
+        }
+        if (capacity != this.keys.length) {
+            this.resize(capacity);
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new Object[capacity];
+        this.indices = new int[capacity];
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize(final int capacity) {
+        final Object[] oldKeys = this.keys;
+        final int[] oldIndices = this.indices;
+        this.allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            final Object key = oldKeys[i];
+            if (key != null) {
+                int slot = this.getSlot(key);
+                while (this.keys[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                this.keys[slot] = key;
+                this.indices[slot] = oldIndices[i];
+            }
+        }
+    }
+
+    // backward shift deletion, avoids leaving tombstones in the probe sequence
+    private void delete(int slot) {
+        final int mask = this.keys.length - 1;
+        int next = (slot + 1) & mask;
+        Object key;
+        while ((key = this.keys[next]) != null) {
+            final int home = this.getSlot(key);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                this.keys[slot] = key;
+                this.indices[slot] = this.indices[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.keys[slot] = null;
+        this.size--;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package xjs.data.serialization.util;
+
+/**
+ * A bounded cache of canonical strings, designed for the keys of objects in
+ * record-oriented data, in which the same few keys are repeated many times.
+ *
+ * <p>Keys are looked up directly from a range of characters in the input,
+ * meaning a key which is already cached never allocates a new string. Each
+ * key occupies a single slot selected by its hash, and a colliding key simply
+ * replaces the previous entry. As a result, the cache never grows beyond its
+ * initial capacity.
+ *
+ * <p>A single cache may be used by one parser or shared between any number
+ * of parsers and threads. No locking is required, because each entry is an
+ * immutable string and races between threads can only cause a cache miss.
+ */
+public class KeyCache {
+
+    /**
+     * The default number of slots in the cache.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default length of the longest key to be cached.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    private final String[] entries;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * Constructs a new cache with the default capacity.
+     */
+    public KeyCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Constructs a new cache with the given capacity.
+     *
+     * @param capacity  The number of slots in the cache, rounded up to the
+     *                  nearest power of two.
+     * @param maxLength The length of the longest key to be cached.
+     */
+    public KeyCache(final int capacity, final int maxLength) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        } else if (maxLength < 0) {
+            throw new IllegalArgumentException("max length must not be negative");
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new String[Math.max(1, size)];
+        this.mask = this.entries.length - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Gets the canonical instance of the key in the given range of a string.
+     *
+     * @param source The text containing the key.
+     * @param start  The inclusive start index of the key.
+     * @param end    The exclusive end index of the key.
+     * @return The canonical key.
+     */
+    public String get(final String source, final int start, final int end) {
+        final int len = end - start;
+        if (len > this.maxLength) {
+            return source.substring(start, end);
+        }
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + source.charAt(i);
+        }
+        final int slot = this.slot(h);
+        final String entry = this.entries[slot];
+        if (entry != null && entry.length() == len && source.regionMatches(start, entry, 0, len)) {
+            return entry;
+        }
+        final String key = source.substring(start, end);
+        this.entries[slot] = key;
+        return key;
+    }
+
+    /**
+     * Gets the canonical instance of the key in the given range of a buffer.
+     *
+     * @param source The buffer containing the key.
+     * @param start  The inclusive start index of the key.
+     * @param end    The exclusive end index of the key.
+     * @return The canonical key.
+     */
+    public String get(final char[] source, final int start, final int end) {
+        final int len = end - start;
+        if (len > this.maxLength) {
+            return new String(source, start, len);
+        }
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + source[i];
+        }
+        final int slot = this.slot(h);
+        final String entry = this.entries[slot];
+        if (entry != null && matches(entry, source, start, len)) {
+            return entry;
+        }
+        final String key = new String(source, start, len);
+        this.entries[slot] = key;
+        return key;
+    }
+
+    /**
+     * Gets the canonical instance of a key which has already been allocated.
+     *
+     * @param key The key being canonicalized.
+     * @return The canonical key, which may be the input.
+     */
+    public String get(final String key) {
+        final int len = key.length();
+        if (len > this.maxLength) {
+            return key;
+        }
+        final int slot = this.slot(key.hashCode());
+        final String entry = this.entries[slot];
+        if (key.equals(entry)) {
+            return entry;
+        }
+        this.entries[slot] = key;
+        return key;
+    }
+
+    /**
+     * Discards every key in the cache.
+     */
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.entries[i] = null;
+        }
+    }
+
+    private int slot(final int h) {
+        return (h ^ (h >>> 16)) & this.mask;
+    }
+
+    private static boolean matches(final String entry, final char[] source, final int start, final int len) {
+        if (entry.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (entry.charAt(i) != source[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
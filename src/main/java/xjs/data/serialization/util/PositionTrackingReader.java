@@ -1,5 +1,7 @@
 package xjs.data.serialization.util;
 
+import org.jetbrains.annotations.Nullable;
+import xjs.data.JsonNumber;
 import xjs.data.comments.CommentStyle;
 import xjs.data.exception.SyntaxException;
 import xjs.data.serialization.token.CommentToken;
@@ -9,7 +11,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * A highly optimized counterpart to {@link Reader} which reduces the amount of
@@ -23,6 +32,10 @@ public abstract class PositionTrackingReader implements Closeable {
     protected static final int DEFAULT_BUFFER_SIZE = 1024;
     protected static final int MIN_BUFFER_SIZE = 8;
 
+    private static final int NEGATIVE = 1;
+    private static final int FRACTION = 1 << 1;
+    private static final int TRUNCATED = 1 << 2;
+
     /**
      * The index of the current character, starting at 0.
      */
@@ -53,6 +66,9 @@ public abstract class PositionTrackingReader implements Closeable {
     protected StringBuilder capture;
     protected int captureStart;
 
+    private long significand;
+    private int exponent;
+
     protected PositionTrackingReader() {
         this.index = -1;
         this.line = 0;
@@ -70,6 +86,21 @@ public abstract class PositionTrackingReader implements Closeable {
         return new DirectStringReader(s);
     }
 
+    /**
+     * Variant of {@link #fromString(String)} which begins reading from the
+     * middle of the text, e.g. to resume parsing at some known position.
+     *
+     * @param s      The <em>full</em> text being parsed.
+     * @param index  The index of the first character to read.
+     * @param line   The line number at this index.
+     * @param column The column number at this index.
+     * @return A new reader for parsers and tokenizers.
+     */
+    public static PositionTrackingReader fromString(
+            final String s, final int index, final int line, final int column) {
+        return new DirectStringReader(s, index, line, column);
+    }
+
     /**
      * Generates a reader optimized for {@link InputStream}s and disk IO.
      *
@@ -114,7 +145,35 @@ public abstract class PositionTrackingReader implements Closeable {
      */
     public static PositionTrackingReader fromIs(
             final InputStream is, final int size, final boolean captureFullText) throws IOException {
-        return fromReader(new InputStreamReader(is, StandardCharsets.UTF_8), size, captureFullText);
+        return fromIs(is, size, captureFullText, false);
+    }
+
+    /**
+     * Variant of {@link #fromIs(InputStream, int, boolean)} specifying
+     * whether to decode the raw bytes directly.
+     *
+     * <p>When <code>decodeBytes</code> is set, the input is decoded as
+     * UTF-8 straight into the reader's own buffer, rather than being
+     * routed through an {@link InputStreamReader}. This avoids an extra
+     * layer of buffering and tends to be faster for larger inputs.
+     *
+     * @param is              The source of bytes being iterated over.
+     * @param size            The size of the underlying character buffer.
+     * @param captureFullText Whether to preserve the full text input.
+     * @param decodeBytes     Whether to decode the bytes without a reader.
+     * @return A new reader for parsers and tokenizers.
+     * @throws IOException If the initial read operation fails.
+     */
+    public static PositionTrackingReader fromIs(
+            final InputStream is, final int size, final boolean captureFullText,
+            final boolean decodeBytes) throws IOException {
+        if (!decodeBytes) {
+            return fromReader(new InputStreamReader(is, StandardCharsets.UTF_8), size, captureFullText);
+        }
+        if (size < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("buffer size < " + MIN_BUFFER_SIZE);
+        }
+        return new InputStreamByteReader(is, size, captureFullText);
     }
 
     /**
@@ -167,6 +226,76 @@ public abstract class PositionTrackingReader implements Closeable {
         return new ReaderReader(reader, size, captureFullText);
     }
 
+    /**
+     * Generates a reader which maps the given file directly into memory.
+     *
+     * <p>Rather than copying the input through an intermediate character
+     * buffer, this reader decodes UTF-8 directly from the mapped bytes,
+     * scanning runs of ASCII text without any additional conversion. This
+     * is especially useful for very large files, as the contents are paged
+     * in by the operating system as needed.
+     *
+     * <p>The full text of the input is always available via {@link
+     * #getFullText}, but is decoded on demand.
+     *
+     * @param path The path to the file being read.
+     * @return A new reader for parsers and tokenizers.
+     * @throws IOException If the file cannot be opened or mapped.
+     * @throws IllegalArgumentException If the file is too large to be mapped.
+     */
+    public static PositionTrackingReader fromPath(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("file too large to map: " + path);
+            }
+            return new MappedByteReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Variant of {@link #fromPath(Path)} which decodes UTF-8 data from any
+     * existing {@link ByteBuffer}, e.g. a slice of a larger mapped file.
+     *
+     * <p>The buffer is read from index 0 up to its limit. Its position is
+     * ignored and never modified.
+     *
+     * @param buffer The buffer containing UTF-8 encoded text.
+     * @return A new reader for parsers and tokenizers.
+     */
+    public static PositionTrackingReader fromBuffer(final ByteBuffer buffer) {
+        return new MappedByteReader(buffer);
+    }
+
+    /**
+     * Prepares a reader to iterate over a new string, reusing the resources
+     * of this reader where possible. Readers which cannot be reused will
+     * return a new reader instead, and so callers must always replace any
+     * reference to this reader with the return value.
+     *
+     * @param s The <em>full</em> text being parsed.
+     * @return This reader, if it was reset, or else a new reader.
+     */
+    public PositionTrackingReader reset(final String s) {
+        return fromString(s);
+    }
+
+    /**
+     * Restores the positional data of this reader to its initial state.
+     * Implementors must read the first character afterward.
+     */
+    protected void resetPosition() {
+        this.index = -1;
+        this.line = 0;
+        this.column = -1;
+        this.linesSkipped = 0;
+        this.current = 0;
+        this.captureStart = -1;
+        if (this.capture != null) {
+            this.capture.setLength(0);
+        }
+    }
+
     /**
      * Returns the full text of the input, or as much as has been read up
      * to this point.
@@ -306,6 +435,22 @@ public abstract class PositionTrackingReader implements Closeable {
         return captured;
     }
 
+    /**
+     * Discards any capture in progress and exposes the capture buffer for
+     * callers which append to it directly, e.g. when reading escapes.
+     *
+     * @return The empty capture buffer.
+     */
+    protected StringBuilder resetCapture() {
+        if (this.capture == null) {
+            this.capture = new StringBuilder();
+        } else {
+            this.capture.setLength(0);
+        }
+        this.captureStart = -1;
+        return this.capture;
+    }
+
     /**
      * Terminates this capture, effectively destroying any data captured.
      */
@@ -341,6 +486,21 @@ public abstract class PositionTrackingReader implements Closeable {
         }
     }
 
+    /**
+     * Skips whitespace without updating the {@link #linesSkipped} counter.
+     * Implementors may override this method to scan the input directly
+     * when the number of lines skipped is not needed.
+     *
+     * @throws IOException If the underlying reader throws an exception.
+     */
+    public void skipWhitespaceFast() throws IOException {
+        final int linesSkipped = this.linesSkipped;
+        while (this.isWhitespace()) {
+            this.read();
+        }
+        this.linesSkipped = linesSkipped;
+    }
+
     /**
      * Skips all whitespace without advancing to the next line.
      *
@@ -416,24 +576,127 @@ public abstract class PositionTrackingReader implements Closeable {
      * encounters a syntax error, a {@link SyntaxException} will be
      * thrown.
      *
+     * <p>The digits are accumulated directly while reading. Only numbers
+     * with more than {@link DoubleParser#MAX_DIGITS} significant digits or
+     * whose nearest double is ambiguous are ever converted from text.
+     *
      * @return The parsed number.
      * @throws IOException If the underlying reader throws an exception.
      */
     public double readNumber() throws IOException {
         this.startCapture();
-        this.readIf('-');
+        final int flags = this.scanNumber();
+        if ((flags & TRUNCATED) == 0) {
+            final double number = DoubleParser.toDouble(
+                this.significand, this.exponent, (flags & NEGATIVE) != 0);
+            if (!Double.isNaN(number)) {
+                this.invalidateCapture();
+                return number;
+            }
+        }
+        return Double.parseDouble(this.endCapture());
+    }
+
+    /**
+     * Variant of {@link #readNumber()} which selects the most precise
+     * representation of the number.
+     *
+     * <p>Integers which fit into a <code>long</code> are returned exactly.
+     * Numbers with more significant digits than a <code>long</code> can hold
+     * retain their original text. Any other number is backed by a double.
+     *
+     * @return The parsed number, as a {@link JsonNumber}.
+     * @throws IOException If the underlying reader throws an exception.
+     */
+    public JsonNumber readJsonNumber() throws IOException {
+        this.startCapture();
+        final int flags = this.scanNumber();
+        final boolean negative = (flags & NEGATIVE) != 0;
+        final long significand = this.significand;
+        if ((flags & (FRACTION | TRUNCATED)) == 0 && !(negative && significand == 0)) {
+            if (significand >= 0) {
+                this.invalidateCapture();
+                return new JsonNumber(negative ? -significand : significand);
+            } else if (negative && significand == Long.MIN_VALUE) {
+                this.invalidateCapture();
+                return new JsonNumber(Long.MIN_VALUE);
+            }
+            return JsonNumber.fromText(this.endCapture());
+        } else if ((flags & TRUNCATED) != 0) {
+            return JsonNumber.fromText(this.endCapture());
+        }
+        final double number = DoubleParser.toDouble(significand, this.exponent, negative);
+        if (!Double.isNaN(number)) {
+            this.invalidateCapture();
+            return new JsonNumber(number);
+        }
+        return new JsonNumber(Double.parseDouble(this.endCapture()));
+    }
+
+    // accumulates up to 19 significant digits into significand and exponent
+    private int scanNumber() throws IOException {
+        int flags = this.readIf('-') ? NEGATIVE : 0;
 
         final int firstDigit = this.current;
-        if (!this.readDigit()) {
+        if (!this.isDigit()) {
             throw this.expected("digit");
         }
-        if (firstDigit != '0') {
-            this.readAllDigits();
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        if (firstDigit == '0') {
+            this.read();
+        } else {
+            do {
+                if (digits < DoubleParser.MAX_DIGITS) {
+                    significand = significand * 10 + (this.current - '0');
+                    digits++;
+                } else {
+                    flags |= TRUNCATED;
+                    exponent++;
+                }
+                this.read();
+            } while (this.isDigit());
+        }
+        if (this.readIf('.')) {
+            if (!this.isDigit()) {
+                throw this.expected("digit");
+            }
+            flags |= FRACTION;
+            do {
+                if (digits < DoubleParser.MAX_DIGITS) {
+                    significand = significand * 10 + (this.current - '0');
+                    if (significand != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    flags |= TRUNCATED;
+                }
+                this.read();
+            } while (this.isDigit());
         }
-        this.readDecimal();
-        this.readExponent();
-
-        return Double.parseDouble(this.endCapture());
+        if (this.readIf('e') || this.readIf('E')) {
+            final boolean negativeExponent = this.current == '-';
+            if (!this.readIf('+')) {
+                this.readIf('-');
+            }
+            if (!this.isDigit()) {
+                throw this.expected("digit");
+            }
+            flags |= FRACTION;
+            int e = 0;
+            do {
+                if (e < 100_000) {
+                    e = e * 10 + (this.current - '0');
+                }
+                this.read();
+            } while (this.isDigit());
+            exponent += negativeExponent ? -e : e;
+        }
+        this.significand = significand;
+        this.exponent = exponent;
+        return flags;
     }
 
     /**
@@ -505,6 +768,21 @@ public abstract class PositionTrackingReader implements Closeable {
         return string;
     }
 
+    /**
+     * Variant of {@link #readQuoted(char)} which returns a canonical instance
+     * of the string from the given cache. Readers with direct access to their
+     * characters look up the string before allocating it.
+     *
+     * @param quote The type of quote being read.
+     * @param keys  A cache of canonical keys, or <code>null</code> for none.
+     * @return The parsed contents of this string.
+     * @throws IOException If the underlying reader throws an exception.
+     */
+    public String readQuoted(final char quote, final @Nullable KeyCache keys) throws IOException {
+        final String string = this.readQuoted(quote);
+        return keys != null ? keys.get(string) : string;
+    }
+
     protected void readEscape(final char quote) throws IOException {
         this.read();
         if (this.current == quote) {
@@ -660,6 +938,30 @@ public abstract class PositionTrackingReader implements Closeable {
             s, this.index, line, this.line, o, type, output.toString());
     }
 
+    /**
+     * Skips the body of a block comment without capturing its text. The
+     * reader must be positioned on the <code>*</code> following the opening
+     * slash.
+     *
+     * @throws IOException If the underlying reader throws an exception.
+     * @throws SyntaxException If the comment is never closed.
+     */
+    public void skipBlockComment() throws IOException {
+        this.expect('*');
+        while (true) {
+            if (this.current == -1) {
+                throw this.expected("end of comment (*/)");
+            } else if (this.current == '*') {
+                this.read();
+                if (this.readIf('/')) {
+                    return;
+                }
+            } else {
+                this.read();
+            }
+        }
+    }
+
     protected int skipToBlockLineStart() throws IOException {
         this.skipLineWhitespace();
         if (this.current == '*') {
@@ -802,24 +1104,27 @@ public abstract class PositionTrackingReader implements Closeable {
         return SyntaxException.unexpected(unexpected, this.line, this.column);
     }
 
-    private static class ReaderReader extends PositionTrackingReader {
-        final Reader reader;
+    private abstract static class CharBufferReader extends PositionTrackingReader {
         final char[] buffer;
 
         StringBuilder out;
         int bufferIndex;
         int fill;
 
-        ReaderReader(
-                final Reader reader, final int size, final boolean captureFullText) throws IOException {
-            this.reader = reader;
+        CharBufferReader(final int size, final boolean captureFullText) {
             this.buffer = new char[size];
             this.bufferIndex = 0;
             this.fill = 0;
             if (captureFullText) this.out = new StringBuilder();
-            this.read();
         }
 
+        /**
+         * Reads up to <code>len</code> characters into the given buffer.
+         *
+         * @return The number of characters read, or else -1.
+         */
+        protected abstract int fill(final char[] buffer, final int off, final int len) throws IOException;
+
         @Override
         public CharSequence getFullText() {
             if (this.out == null) {
@@ -852,6 +1157,64 @@ public abstract class PositionTrackingReader implements Closeable {
             return new String(this.buffer, this.captureStart, end - this.captureStart);
         }
 
+        @Override
+        public String readQuoted(final char quote) throws IOException {
+            return this.readQuoted(quote, null);
+        }
+
+        @Override
+        public String readQuoted(final char quote, final @Nullable KeyCache keys) throws IOException {
+            StringBuilder sb = null;
+            this.read();
+            while (this.current != quote) {
+                if (this.current == '\\') {
+                    if (sb == null) {
+                        sb = this.resetCapture();
+                    }
+                    this.readEscape(quote);
+                    continue;
+                } else if (this.current < 0x20) {
+                    throw this.expected("valid string character");
+                }
+                final char[] buffer = this.buffer;
+                final int fill = this.fill;
+                final int from = this.bufferIndex - 1;
+                int i = this.bufferIndex;
+                char c = 0;
+                while (i < fill && (c = buffer[i]) != quote && c != '\\' && c >= 0x20) {
+                    i++;
+                }
+                if (sb == null && i < fill && c == quote) {
+                    final String string = keys != null
+                        ? keys.get(buffer, from, i) : new String(buffer, from, i - from);
+                    this.skipRun(i - from);
+                    this.read();
+                    return string;
+                } else if (sb == null) {
+                    sb = this.resetCapture();
+                }
+                sb.append(buffer, from, i - from);
+                this.skipRun(i - from);
+            }
+            this.read();
+            if (sb == null) {
+                return "";
+            }
+            final String string = sb.toString();
+            sb.setLength(0);
+            return keys != null ? keys.get(string) : string;
+        }
+
+        // advances past a run of buffered characters containing no line breaks
+        private void skipRun(final int n) throws IOException {
+            final int last = n - 1;
+            this.bufferIndex += last;
+            this.index += last;
+            this.column += last;
+            this.current = this.buffer[this.bufferIndex - 1];
+            this.read();
+        }
+
         @Override
         public int peek() throws IOException {
             if (this.current == -1) {
@@ -864,10 +1227,11 @@ public abstract class PositionTrackingReader implements Closeable {
                 this.appendToCapture();
                 this.captureStart = 0;
             }
-            this.fill = 1 + this.reader.read(this.buffer, 1, this.buffer.length - 1);
+            this.fill = 1 + this.fill(this.buffer, 1, this.buffer.length - 1);
             this.buffer[0] = (char) this.current;
             this.bufferIndex = 1;
             if (this.fill == 0) {
+                this.fill = 1; // the next read will reach the end of input
                 return -1;
             }
             if (this.out != null) {
@@ -883,7 +1247,7 @@ public abstract class PositionTrackingReader implements Closeable {
                     this.appendToCapture();
                     this.captureStart = 0;
                 }
-                this.fill = this.reader.read(this.buffer, 0, this.buffer.length);
+                this.fill = this.fill(this.buffer, 0, this.buffer.length);
                 this.bufferIndex = 0;
                 if (this.fill == -1) {
                     this.index++;
@@ -903,6 +1267,22 @@ public abstract class PositionTrackingReader implements Closeable {
             this.column++;
             this.current = this.buffer[this.bufferIndex++];
         }
+    }
+
+    private static class ReaderReader extends CharBufferReader {
+        final Reader reader;
+
+        ReaderReader(
+                final Reader reader, final int size, final boolean captureFullText) throws IOException {
+            super(size, captureFullText);
+            this.reader = reader;
+            this.read();
+        }
+
+        @Override
+        protected int fill(final char[] buffer, final int off, final int len) throws IOException {
+            return this.reader.read(buffer, off, len);
+        }
 
         @Override
         public void close() throws IOException {
@@ -910,14 +1290,277 @@ public abstract class PositionTrackingReader implements Closeable {
         }
     }
 
+    private static class InputStreamByteReader extends CharBufferReader {
+        final InputStream is;
+        final CharsetDecoder decoder;
+        final ByteBuffer bytes;
+
+        boolean endOfInput;
+        boolean flushed;
+
+        InputStreamByteReader(
+                final InputStream is, final int size, final boolean captureFullText) throws IOException {
+            super(size, captureFullText);
+            this.is = is;
+            this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(size);
+            this.bytes.flip();
+            this.read();
+        }
+
+        @Override
+        protected int fill(final char[] buffer, final int off, final int len) throws IOException {
+            if (this.flushed) {
+                return -1;
+            }
+            final CharBuffer chars = CharBuffer.wrap(buffer, off, len);
+            while (true) {
+                // incomplete sequences stay in the byte buffer until more input arrives
+                this.decoder.decode(this.bytes, chars, this.endOfInput);
+                if (chars.position() > off) {
+                    return chars.position() - off;
+                }
+                if (this.endOfInput) {
+                    this.decoder.flush(chars);
+                    this.flushed = true;
+                    return chars.position() > off ? chars.position() - off : -1;
+                }
+                this.bytes.compact();
+                final int read = this.is.read(
+                    this.bytes.array(), this.bytes.position(), this.bytes.remaining());
+                if (read == -1) {
+                    this.endOfInput = true;
+                } else {
+                    this.bytes.position(this.bytes.position() + read);
+                }
+                this.bytes.flip();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.is.close();
+        }
+    }
+
+    private static class MappedByteReader extends PositionTrackingReader {
+        final ByteBuffer buffer;
+        final int limit;
+
+        int position; // the byte offset after the current character
+        int currentStart; // the byte offset of the current character
+        int captureIndex;
+        int lowSurrogate;
+        int width;
+
+        MappedByteReader(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+            this.position = 0;
+            this.currentStart = 0;
+            this.lowSurrogate = -1;
+            this.read();
+        }
+
+        @Override
+        public String getFullText() {
+            final int end = this.current == -1 ? this.limit : this.position;
+            return this.decode(0, end);
+        }
+
+        @Override
+        public boolean isCapturingFullText() {
+            return true;
+        }
+
+        @Override
+        public void startCapture() {
+            if (this.capture == null) {
+                this.capture = new StringBuilder();
+            }
+            this.captureStart = this.currentStart;
+            this.captureIndex = this.index;
+        }
+
+        @Override
+        protected void appendToCapture() {
+            this.capture.append(this.decode(this.captureStart, this.currentStart));
+        }
+
+        @Override
+        protected String slice() {
+            // the index may have been rewound by endCapture(idx)
+            int remaining = this.index - this.captureIndex;
+            int end = this.captureStart;
+            while (remaining > 0 && end < this.limit) {
+                if (this.buffer.get(end) >= 0) {
+                    end++;
+                    remaining--;
+                } else {
+                    final int cp = this.decodeAt(end);
+                    end += this.width;
+                    remaining -= Character.charCount(cp);
+                }
+            }
+            return this.decode(this.captureStart, end);
+        }
+
+        @Override
+        public int peek() {
+            if (this.current == -1) {
+                return -1;
+            }
+            if (this.lowSurrogate != -1) {
+                return this.lowSurrogate;
+            }
+            if (this.position >= this.limit) {
+                return -1;
+            }
+            final byte b = this.buffer.get(this.position);
+            if (b >= 0) {
+                return b;
+            }
+            final int cp = this.decodeAt(this.position);
+            return Character.isBmpCodePoint(cp) ? cp : Character.highSurrogate(cp);
+        }
+
+        @Override
+        public void read() {
+            if (this.lowSurrogate != -1) {
+                this.index++;
+                this.column++;
+                this.current = this.lowSurrogate;
+                this.lowSurrogate = -1;
+                return;
+            }
+            if (this.position >= this.limit) {
+                if (this.current != -1) {
+                    this.currentStart = this.limit;
+                    this.index++;
+                    this.current = -1;
+                }
+                return;
+            }
+            if (this.current == '\n') {
+                this.line++;
+                this.linesSkipped++;
+                this.column = -1;
+            }
+            this.currentStart = this.position;
+            this.index++;
+            this.column++;
+            final byte b = this.buffer.get(this.position);
+            if (b >= 0) {
+                this.current = b;
+                this.position++;
+                return;
+            }
+            final int cp = this.decodeAt(this.position);
+            this.position += this.width;
+            if (Character.isBmpCodePoint(cp)) {
+                this.current = cp;
+            } else {
+                this.current = Character.highSurrogate(cp);
+                this.lowSurrogate = Character.lowSurrogate(cp);
+            }
+        }
+
+        @Override
+        public String readQuoted(final char quote) throws IOException {
+            if (this.lowSurrogate == -1) {
+                // fast path: plain ASCII up to the closing quote
+                for (int i = this.position; i < this.limit; i++) {
+                    final byte b = this.buffer.get(i);
+                    if (b == quote) {
+                        final String s = this.decode(this.position, i);
+                        final int len = i - this.position + 1;
+                        this.index += len;
+                        this.column += len;
+                        this.currentStart = i;
+                        this.position = i + 1;
+                        this.read();
+                        return s;
+                    } else if (b < 0x20 || b == '\\') {
+                        break;
+                    }
+                }
+            }
+            return super.readQuoted(quote);
+        }
+
+        private String decode(final int start, final int end) {
+            final byte[] bytes = new byte[end - start];
+            this.buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int decodeAt(final int p) {
+            final int b0 = this.buffer.get(p) & 0xff;
+            final int len;
+            int cp;
+            if (b0 >= 0xc2 && b0 <= 0xdf) {
+                len = 2;
+                cp = b0 & 0x1f;
+            } else if (b0 >= 0xe0 && b0 <= 0xef) {
+                len = 3;
+                cp = b0 & 0x0f;
+            } else if (b0 >= 0xf0 && b0 <= 0xf4) {
+                len = 4;
+                cp = b0 & 0x07;
+            } else {
+                this.width = 1;
+                return 0xfffd;
+            }
+            for (int i = 1; i < len; i++) {
+                if (p + i >= this.limit) {
+                    this.width = i;
+                    return 0xfffd;
+                }
+                final int b = this.buffer.get(p + i) & 0xff;
+                if ((b & 0xc0) != 0x80) {
+                    this.width = i;
+                    return 0xfffd;
+                }
+                cp = (cp << 6) | (b & 0x3f);
+            }
+            this.width = len;
+            if ((len == 3 && (cp < 0x800 || Character.isSurrogate((char) cp)))
+                    || (len == 4 && (cp < 0x10000 || cp > Character.MAX_CODE_POINT))) {
+                return 0xfffd;
+            }
+            return cp;
+        }
+
+        @Override
+        public void close() {}
+    }
+
     private static class DirectStringReader extends PositionTrackingReader {
-        final String s;
+        String s;
 
         DirectStringReader(final String s) {
             this.s = s;
             this.read();
         }
 
+        DirectStringReader(final String s, final int index, final int line, final int column) {
+            this.s = s;
+            this.index = index - 1;
+            this.line = line;
+            this.column = column - 1;
+            this.read();
+        }
+
+        @Override
+        public PositionTrackingReader reset(final String s) {
+            this.s = s;
+            this.resetPosition();
+            this.read();
+            return this;
+        }
+
         @Override
         public String getFullText() {
             return this.s;
@@ -945,6 +1588,101 @@ public abstract class PositionTrackingReader implements Closeable {
             return i < s.length() - 1 ? s.charAt(i + 1) : -1;
         }
 
+        @Override
+        public String readQuoted(final char quote) throws IOException {
+            return this.readQuoted(quote, null);
+        }
+
+        @Override
+        public String readQuoted(final char quote, final @Nullable KeyCache keys) throws IOException {
+            final String s = this.s;
+            final int len = s.length();
+            StringBuilder sb = null;
+            this.read();
+            while (this.current != quote) {
+                if (this.current == '\\') {
+                    if (sb == null) {
+                        sb = this.resetCapture();
+                    }
+                    this.readEscape(quote);
+                    continue;
+                } else if (this.current < 0x20) {
+                    throw this.expected("valid string character");
+                }
+                final int from = this.index;
+                int i = from + 1;
+                char c = 0;
+                while (i < len && (c = s.charAt(i)) != quote && c != '\\' && c >= 0x20) {
+                    i++;
+                }
+                if (sb == null && i < len && c == quote) {
+                    final String string = keys != null
+                        ? keys.get(s, from, i) : s.substring(from, i);
+                    this.skipRun(i - from);
+                    this.read();
+                    return string;
+                } else if (sb == null) {
+                    sb = this.resetCapture();
+                }
+                sb.append(s, from, i);
+                this.skipRun(i - from);
+            }
+            this.read();
+            if (sb == null) {
+                return "";
+            }
+            final String string = sb.toString();
+            sb.setLength(0);
+            return keys != null ? keys.get(string) : string;
+        }
+
+        // advances past a run of characters containing no line breaks
+        private void skipRun(final int n) {
+            final int i = this.index + n;
+            if (i >= this.s.length()) {
+                this.column += this.s.length() - 1 - this.index;
+                this.index = this.s.length();
+                this.current = -1;
+                return;
+            }
+            this.index = i;
+            this.column += n;
+            this.current = this.s.charAt(i);
+        }
+
+        @Override
+        public void skipWhitespaceFast() {
+            int c = this.current;
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            final String s = this.s;
+            final int last = s.length() - 1;
+            int i = this.index;
+            int line = this.line;
+            int column = this.column;
+            while (true) {
+                if (i == last) {
+                    i++;
+                    c = -1;
+                    break;
+                }
+                if (c == '\n') {
+                    line++;
+                    column = -1;
+                }
+                column++;
+                c = s.charAt(++i);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    break;
+                }
+            }
+            this.index = i;
+            this.line = line;
+            this.column = column;
+            this.current = c;
+        }
+
         @Override
         public void read() {
             if (this.index == this.s.length() - 1) {
@@ -0,0 +1,367 @@
+package xjs.data.serialization.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A writer which encodes characters as UTF-8 directly into a byte buffer,
+ * avoiding the overhead of a {@link java.nio.charset.CharsetEncoder}. Runs of
+ * ASCII characters are copied without any further checks.
+ *
+ * <p>Like {@link WritingBuffer}, this implementation is not thread-safe and
+ * deliberately deviates from the contract of Writer. In particular, calling
+ * {@link #flush} only drains the internal buffer into its destination, without
+ * flushing the destination itself.
+ *
+ * <p>Malformed surrogate pairs are replaced with <code>'?'</code>, matching
+ * the behavior of {@link java.io.OutputStreamWriter}.
+ *
+ * <p>Any of the writers provided by this library will write into this type
+ * directly, without any intermediate character buffer.
+ */
+public abstract class Utf8Writer extends Writer {
+
+    /**
+     * The default number of bytes buffered before draining the output.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final byte REPLACEMENT = '?';
+
+    protected byte[] buffer;
+    protected int fill;
+    private char highSurrogate;
+
+    protected Utf8Writer(final int bufferSize) {
+        if (bufferSize < 4) {
+            throw new IllegalArgumentException("buffer size must be at least 4 bytes");
+        }
+        this.buffer = new byte[bufferSize];
+        this.fill = 0;
+    }
+
+    /**
+     * Constructs a writer which encodes into the given stream.
+     *
+     * @param os The stream receiving the encoded bytes.
+     * @return A new {@link Utf8Writer}.
+     */
+    public static Utf8Writer fromOs(final OutputStream os) {
+        return fromOs(os, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a writer which encodes into the given stream.
+     *
+     * @param os         The stream receiving the encoded bytes.
+     * @param bufferSize The number of bytes to buffer before writing.
+     * @return A new {@link Utf8Writer}.
+     */
+    public static Utf8Writer fromOs(final OutputStream os, final int bufferSize) {
+        return new StreamWriter(os, bufferSize);
+    }
+
+    /**
+     * Constructs a writer which encodes into the given channel.
+     *
+     * @param channel The channel receiving the encoded bytes.
+     * @return A new {@link Utf8Writer}.
+     */
+    public static Utf8Writer fromChannel(final WritableByteChannel channel) {
+        return fromChannel(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a writer which encodes into the given channel.
+     *
+     * @param channel    The channel receiving the encoded bytes.
+     * @param bufferSize The number of bytes to buffer before writing.
+     * @return A new {@link Utf8Writer}.
+     */
+    public static Utf8Writer fromChannel(final WritableByteChannel channel, final int bufferSize) {
+        return new ChannelWriter(channel, bufferSize);
+    }
+
+    /**
+     * Constructs a writer which encodes into a growable buffer in memory.
+     *
+     * @return A new {@link Growable} writer.
+     */
+    public static Growable growable() {
+        return new Growable(256);
+    }
+
+    /**
+     * Constructs a writer which encodes into a growable buffer in memory.
+     *
+     * @param initialSize The initial capacity of the buffer, in bytes.
+     * @return A new {@link Growable} writer.
+     */
+    public static Growable growable(final int initialSize) {
+        return new Growable(initialSize);
+    }
+
+    /**
+     * Writes the contents of the buffer into the destination of this writer,
+     * after which the buffer may be reused.
+     *
+     * @throws IOException If the destination throws an {@link IOException}.
+     */
+    protected abstract void drain() throws IOException;
+
+    /**
+     * Ensures that at least the given number of bytes may be appended to the
+     * buffer, draining it if necessary. No request will exceed 4 bytes.
+     *
+     * @param bytes The number of bytes about to be written.
+     * @throws IOException If the destination throws an {@link IOException}.
+     */
+    protected void ensureCapacity(final int bytes) throws IOException {
+        if (this.buffer.length - this.fill < bytes) {
+            this.drain();
+            this.fill = 0;
+        }
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        if (c < 0x80 && this.highSurrogate == 0) {
+            if (this.fill == this.buffer.length) {
+                this.ensureCapacity(1);
+            }
+            this.buffer[this.fill++] = (byte) c;
+            return;
+        }
+        this.encode((char) c);
+    }
+
+    @Override
+    public void write(
+            final char @NotNull [] cbuf, final int off, final int len) throws IOException {
+        final int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (this.highSurrogate != 0 || cbuf[i] >= 0x80) {
+                this.encode(cbuf[i++]);
+                continue;
+            }
+            if (this.fill == this.buffer.length) {
+                this.ensureCapacity(1);
+            }
+            final byte[] buf = this.buffer;
+            int fill = this.fill;
+            final int limit = Math.min(end, i + buf.length - fill);
+            char c;
+            while (i < limit && (c = cbuf[i]) < 0x80) {
+                buf[fill++] = (byte) c;
+                i++;
+            }
+            this.fill = fill;
+        }
+    }
+
+    @Override
+    public void write(
+            final @NotNull String str, final int off, final int len) throws IOException {
+        final int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (this.highSurrogate != 0 || str.charAt(i) >= 0x80) {
+                this.encode(str.charAt(i++));
+                continue;
+            }
+            if (this.fill == this.buffer.length) {
+                this.ensureCapacity(1);
+            }
+            final byte[] buf = this.buffer;
+            int fill = this.fill;
+            final int limit = Math.min(end, i + buf.length - fill);
+            char c;
+            while (i < limit && (c = str.charAt(i)) < 0x80) {
+                buf[fill++] = (byte) c;
+                i++;
+            }
+            this.fill = fill;
+        }
+    }
+
+    private void encode(final char c) throws IOException {
+        this.ensureCapacity(4);
+        final byte[] buf = this.buffer;
+        if (this.highSurrogate != 0) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int cp = Character.toCodePoint(high, c);
+                buf[this.fill++] = (byte) (0xF0 | (cp >> 18));
+                buf[this.fill++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[this.fill++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[this.fill++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            buf[this.fill++] = REPLACEMENT;
+            this.encode(c);
+            return;
+        }
+        if (c < 0x80) {
+            buf[this.fill++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[this.fill++] = (byte) (0xC0 | (c >> 6));
+            buf[this.fill++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[this.fill++] = REPLACEMENT;
+        } else {
+            buf[this.fill++] = (byte) (0xE0 | (c >> 12));
+            buf[this.fill++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[this.fill++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * Drains the internal buffer but does not flush the destination. Any
+     * unpaired high surrogate is held until the next character is written.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.fill > 0) {
+            this.drain();
+            this.fill = 0;
+        }
+    }
+
+    /**
+     * Replaces any unpaired high surrogate, then drains the buffer.
+     *
+     * @throws IOException If the destination throws an {@link IOException}.
+     */
+    protected void finish() throws IOException {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+            this.ensureCapacity(1);
+            this.buffer[this.fill++] = REPLACEMENT;
+        }
+        this.flush();
+    }
+
+    private static class StreamWriter extends Utf8Writer {
+        final OutputStream os;
+
+        StreamWriter(final OutputStream os, final int bufferSize) {
+            super(bufferSize);
+            this.os = os;
+        }
+
+        @Override
+        protected void drain() throws IOException {
+            this.os.write(this.buffer, 0, this.fill);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.finish();
+            } finally {
+                this.os.close();
+            }
+        }
+    }
+
+    private static class ChannelWriter extends Utf8Writer {
+        final WritableByteChannel channel;
+        final ByteBuffer wrapper;
+
+        ChannelWriter(final WritableByteChannel channel, final int bufferSize) {
+            super(bufferSize);
+            this.channel = channel;
+            this.wrapper = ByteBuffer.wrap(this.buffer);
+        }
+
+        @Override
+        protected void drain() throws IOException {
+            this.wrapper.clear().limit(this.fill);
+            while (this.wrapper.hasRemaining()) {
+                this.channel.write(this.wrapper);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.finish();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * A {@link Utf8Writer} which accumulates every byte in memory, growing
+     * its buffer as needed. Flushing this writer has no effect.
+     */
+    public static class Growable extends Utf8Writer {
+
+        protected Growable(final int initialSize) {
+            super(Math.max(4, initialSize));
+        }
+
+        @Override
+        protected void drain() {}
+
+        @Override
+        protected void ensureCapacity(final int bytes) {
+            if (this.buffer.length - this.fill < bytes) {
+                this.buffer = Arrays.copyOf(this.buffer,
+                    Math.max(this.buffer.length * 2, this.fill + bytes));
+            }
+        }
+
+        @Override
+        public void flush() {}
+
+        /**
+         * Gets the number of bytes written so far.
+         *
+         * @return The number of bytes in the buffer.
+         */
+        public int size() {
+            return this.fill;
+        }
+
+        /**
+         * Copies every byte written so far into a new array.
+         *
+         * @return A new array containing the encoded output.
+         */
+        public byte[] toByteArray() {
+            return Arrays.copyOf(this.buffer, this.fill);
+        }
+
+        /**
+         * Wraps the bytes written so far in a buffer, without copying them.
+         * The buffer is only valid until more data is written.
+         *
+         * @return A read-only {@link ByteBuffer} of the encoded output.
+         */
+        public ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(this.buffer, 0, this.fill).asReadOnlyBuffer();
+        }
+
+        /**
+         * Discards every byte written so far, retaining the buffer.
+         */
+        public void reset() {
+            this.fill = 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -11,66 +11,142 @@ import java.io.Writer;
  * underlying writer. This implementation is not thread-safe. It deliberately deviates from the
  * contract of Writer. In particular, it does not flush or close the wrapped writer nor does it
  * ensure that the wrapped writer is open.
+ *
+ * <p>A {@link #pooled pooled} buffer borrows its array from the current thread when it is first
+ * written to, and returns it when flushed. Because each writer flushes after writing a value,
+ * repeated serializations on the same thread will share a single array.
  */
 public class WritingBuffer extends Writer {
 
-    private final Writer writer;
-    private final char[] buffer;
+    /**
+     * The default number of characters buffered before writing to the wrapped writer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private static final ThreadLocal<char[]> POOL = new ThreadLocal<>();
+
+    private Writer writer;
+    private final int bufferSize;
+    private final boolean pooled;
+    private char[] buffer;
     private int fill;
 
     public WritingBuffer(final Writer writer) {
-        this(writer, 16);
+        this(writer, DEFAULT_BUFFER_SIZE);
     }
 
     public WritingBuffer(final Writer writer, final int bufferSize) {
+        this(writer, bufferSize, false);
+    }
+
+    protected WritingBuffer(final Writer writer, final int bufferSize, final boolean pooled) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("buffer size must be positive");
+        }
         this.writer = writer;
-        this.buffer = new char[bufferSize];
+        this.bufferSize = bufferSize;
+        this.pooled = pooled;
+        this.buffer = pooled ? null : new char[bufferSize];
         this.fill = 0;
     }
 
+    /**
+     * Constructs a buffer which borrows its array from the current thread
+     * until it is flushed.
+     *
+     * @param writer     The writer being wrapped.
+     * @param bufferSize The minimum number of characters to buffer.
+     * @return A new, pooled {@link WritingBuffer}.
+     */
+    public static WritingBuffer pooled(final Writer writer, final int bufferSize) {
+        return new WritingBuffer(writer, bufferSize, true);
+    }
+
+    /**
+     * Replaces the writer being wrapped, discarding any characters which have
+     * not been flushed.
+     *
+     * @param writer The writer being wrapped.
+     */
+    public void reset(final Writer writer) {
+        this.writer = writer;
+        this.fill = 0;
+    }
+
+    private char[] acquire() {
+        char[] buffer = this.buffer;
+        if (buffer == null) {
+            buffer = POOL.get();
+            if (buffer != null && buffer.length >= this.bufferSize) {
+                POOL.set(null);
+            } else {
+                buffer = new char[this.bufferSize];
+            }
+            this.buffer = buffer;
+        }
+        return buffer;
+    }
+
     @Override
     public void write(int c) throws IOException {
-        if (this.fill > this.buffer.length - 1) {
-            this.flush();
+        final char[] buffer = this.acquire();
+        if (this.fill > buffer.length - 1) {
+            this.drain();
         }
-        this.buffer[this.fill++] = (char) c;
+        buffer[this.fill++] = (char) c;
     }
 
     @Override
     public void write(
             final char[] cbuf, final int off, final int len) throws IOException {
-        if (this.fill > this.buffer.length - len) {
-            this.flush();
-            if (len > this.buffer.length) {
+        final char[] buffer = this.acquire();
+        if (this.fill > buffer.length - len) {
+            this.drain();
+            if (len > buffer.length) {
                 this.writer.write(cbuf, off, len);
                 return;
             }
         }
-        System.arraycopy(cbuf, off, this.buffer, this.fill, len);
+        System.arraycopy(cbuf, off, buffer, this.fill, len);
         this.fill += len;
     }
 
     @Override
     public void write(
             final @NotNull String str, final int off, final int len) throws IOException {
-        if (this.fill > this.buffer.length - len) {
-            this.flush();
-            if (len > this.buffer.length) {
+        final char[] buffer = this.acquire();
+        if (this.fill > buffer.length - len) {
+            this.drain();
+            if (len > buffer.length) {
                 this.writer.write(str, off, len);
                 return;
             }
         }
-        str.getChars(off, off + len, this.buffer, this.fill);
+        str.getChars(off, off + len, buffer, this.fill);
         this.fill += len;
     }
 
+    private void drain() throws IOException {
+        if (this.fill > 0) {
+            this.writer.write(this.buffer, 0, this.fill);
+            this.fill = 0;
+        }
+    }
+
     /**
-     * Flushes the internal buffer but does not flush the wrapped writer.
+     * Flushes the internal buffer but does not flush the wrapped writer. If
+     * this buffer is pooled, its array is returned to the current thread.
      */
     @Override
     public void flush() throws IOException {
-        this.writer.write(this.buffer, 0, this.fill);
-        this.fill = 0;
+        if (this.buffer == null) {
+            return;
+        }
+        this.drain();
+        if (this.pooled) {
+            POOL.set(this.buffer);
+            this.buffer = null;
+        }
     }
 
     @Override
@@ -2,9 +2,11 @@ package xjs.data.serialization.writer;
 
 import xjs.data.JsonValue;
 import xjs.data.StringType;
+import xjs.data.serialization.util.Utf8Writer;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 public class DjsWriter extends CommentedElementWriter {
@@ -25,6 +27,28 @@ public class DjsWriter extends CommentedElementWriter {
         super(writer, options);
     }
 
+    /**
+     * Constructs a writer which encodes UTF-8 directly into the given stream.
+     *
+     * @param os     The stream receiving the encoded output.
+     * @param format Whether to format the output.
+     * @see Utf8Writer
+     */
+    public DjsWriter(final OutputStream os, final boolean format) {
+        this(Utf8Writer.fromOs(os), format);
+    }
+
+    /**
+     * Constructs a writer which encodes UTF-8 directly into the given stream.
+     *
+     * @param os      The stream receiving the encoded output.
+     * @param options The options used to format the output.
+     * @see Utf8Writer
+     */
+    public DjsWriter(final OutputStream os, final JsonWriterOptions options) {
+        this(Utf8Writer.fromOs(os), options);
+    }
+
     @Override
     protected void write() throws IOException {
         final JsonValue value = this.current();
@@ -62,7 +86,7 @@ public class DjsWriter extends CommentedElementWriter {
         switch (value.getType()) {
             case OBJECT -> this.writeObject();
             case ARRAY -> this.writeArray();
-            case NUMBER -> this.writeNumber(value.asDouble());
+            case NUMBER -> this.writeNumber(value);
             case STRING -> this.writeString(value);
             default -> this.tw.write(value.toString());
         }
@@ -88,6 +112,9 @@ public class DjsWriter extends CommentedElementWriter {
     }
 
     protected void writeArray() throws IOException {
+        if (this.writeNumberArray() || this.writeColumnArray()) {
+            return;
+        }
         this.open('[');
         while (this.current != null) {
             this.writeNextElement();
@@ -104,14 +131,12 @@ public class DjsWriter extends CommentedElementWriter {
     }
 
     @Override
-    protected void delimit() throws IOException {
-        if (this.peek != null) {
-            if (!this.format) {
-                this.tw.write(',');
-            } else if (this.allowCondense && this.getLinesAbove(this.peek()) == 0) {
-                this.tw.write(',');
-                this.tw.write(this.separator);
-            }
+    protected void writeDelimiter(final int linesAbove) throws IOException {
+        if (!this.format) {
+            this.tw.write(',');
+        } else if (this.allowCondense && linesAbove == 0) {
+            this.tw.write(',');
+            this.tw.write(this.separator);
         }
     }
 
@@ -135,6 +160,26 @@ public class DjsWriter extends CommentedElementWriter {
         }
     }
 
+    @Override
+    protected void writeColumnKey(final String key) throws IOException {
+        this.writeColumnString(key, this.getKeyType(key));
+    }
+
+    @Override
+    protected void writeColumnString(final String value) throws IOException {
+        this.writeColumnString(value, StringType.selectValue(value));
+    }
+
+    private void writeColumnString(
+            final String value, final StringType type) throws IOException {
+        if (type == StringType.MULTI) {
+            // members of each row are at level + 2, so their text is one level deeper
+            this.writeMulti(value, this.level + 3, this.nextLineMulti);
+        } else {
+            this.writeString(value, type);
+        }
+    }
+
     protected StringType getKeyType(final String key) {
         return StringType.selectKey(key);
     }
@@ -2,24 +2,31 @@ package xjs.data.serialization.writer;
 
 import org.jetbrains.annotations.Nullable;
 import xjs.data.JsonArray.Element;
+import xjs.data.JsonColumnArray;
 import xjs.data.JsonContainer;
+import xjs.data.JsonNumber;
+import xjs.data.JsonNumberArray;
 import xjs.data.JsonObject;
 import xjs.data.JsonObject.Member;
 import xjs.data.JsonReference;
 import xjs.data.JsonString;
+import xjs.data.JsonType;
 import xjs.data.JsonValue;
 import xjs.data.StringType;
 import xjs.data.serialization.JsonContext;
 import xjs.data.serialization.util.BufferedStack;
+import xjs.data.serialization.util.DoubleFormatter;
+import xjs.data.serialization.util.Utf8Writer;
 import xjs.data.serialization.util.WritingBuffer;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * A basic writer type providing a writer and some formatting options.
@@ -29,8 +36,12 @@ public abstract class ElementWriter implements ValueWriter {
     protected static final Iterator<? extends Element> EMPTY_ITERATOR =
         Collections.emptyIterator();
 
+    private static final int ESCAPE_TABLE_SIZE = 128;
+    private static final char[][] DOUBLE_QUOTE_ESCAPES = createEscapeTable('"');
+    private static final char[][] SINGLE_QUOTE_ESCAPES = createEscapeTable('\'');
+
     protected final boolean format;
-    protected final Writer tw;
+    protected Writer tw;
     protected final boolean allowCondense;
     protected final boolean bracesSameLine;
     protected final boolean nestedSameLine;
@@ -44,6 +55,9 @@ public abstract class ElementWriter implements ValueWriter {
     protected final boolean smartSpacing;
     protected final boolean nextLineMulti;
     protected final String separator;
+    protected final char[] numberBuffer = new char[DoubleFormatter.MAX_CHARS];
+    private final int bufferSize;
+    private final boolean pooledBuffer;
 
     protected final BufferedStack.OfTwo<
         Element, Iterator<? extends Element>> stack;
@@ -61,7 +75,9 @@ public abstract class ElementWriter implements ValueWriter {
 
     protected ElementWriter(final Writer writer, final boolean format) {
         this.format = format;
-        this.tw = new WritingBuffer(writer);
+        this.bufferSize = WritingBuffer.DEFAULT_BUFFER_SIZE;
+        this.pooledBuffer = true;
+        this.tw = buffer(writer, this.bufferSize, this.pooledBuffer);
         this.eol = JsonContext.getEol();
         this.allowCondense = true;
         this.bracesSameLine = true;
@@ -85,7 +101,9 @@ public abstract class ElementWriter implements ValueWriter {
 
     protected ElementWriter(final Writer writer, final JsonWriterOptions options) {
         this.format = true;
-        this.tw = new WritingBuffer(writer);
+        this.bufferSize = options.getBufferSize();
+        this.pooledBuffer = options.isPooledBuffer();
+        this.tw = buffer(writer, this.bufferSize, this.pooledBuffer);
         this.eol = options.getEol();
         this.allowCondense = options.isAllowCondense();
         this.bracesSameLine = options.isBracesSameLine();
@@ -103,6 +121,43 @@ public abstract class ElementWriter implements ValueWriter {
         this.level = 0;
     }
 
+    private static Writer buffer(final Writer writer, final int size, final boolean pooled) {
+        if (writer instanceof Utf8Writer) {
+            return writer; // byte sinks are already buffered
+        }
+        return pooled ? WritingBuffer.pooled(writer, size) : new WritingBuffer(writer, size);
+    }
+
+    /**
+     * Prepares this writer to write into a new destination, reusing its
+     * buffer and stack where possible. Any output which has not yet been
+     * flushed is discarded.
+     *
+     * @param writer The writer receiving the output.
+     */
+    public void reset(final Writer writer) {
+        if (this.tw instanceof WritingBuffer buffer && !(writer instanceof Utf8Writer)) {
+            buffer.reset(writer);
+        } else {
+            this.tw = buffer(writer, this.bufferSize, this.pooledBuffer);
+        }
+        this.stack.clear();
+        this.iterator = null;
+        this.parent = null;
+        this.clear();
+        this.level = 0;
+    }
+
+    /**
+     * Prepares this writer to encode UTF-8 directly into a new stream.
+     *
+     * @param os The stream receiving the encoded output.
+     * @see Utf8Writer
+     */
+    public void reset(final OutputStream os) {
+        this.reset(Utf8Writer.fromOs(os));
+    }
+
     /**
      * Appends a {@link JsonValue} of <em>any kind</em> into the writer being
      * wrapped by this object.
@@ -464,39 +519,254 @@ public abstract class ElementWriter implements ValueWriter {
 
     protected void delimit() throws IOException {
         if (this.peek != null) {
-            this.tw.write(',');
-            if (this.allowCondense && this.getLinesAbove(this.peek()) == 0) {
-                this.tw.write(this.separator);
+            this.writeDelimiter(this.getLinesAbove(this.peek()));
+        }
+    }
+
+    protected void writeDelimiter(final int linesAbove) throws IOException {
+        this.tw.write(',');
+        if (this.allowCondense && linesAbove == 0) {
+            this.tw.write(this.separator);
+        }
+    }
+
+    protected void writeNumber(final JsonValue number) throws IOException {
+        if (number instanceof JsonNumber) {
+            final JsonNumber n = (JsonNumber) number;
+            if (n.isLong()) {
+                final char[] buf = this.numberBuffer;
+                this.tw.write(buf, 0, DoubleFormatter.format(n.asLong(), buf, 0));
+                return;
+            } else if (n.isDecimal()) {
+                this.tw.write(n.getText());
+                return;
             }
         }
+        this.writeNumber(number.asDouble());
     }
 
     protected void writeNumber(final double decimal) throws IOException {
-        final long integer = (long) decimal;
-        if (integer == decimal) {
-            this.tw.write(Long.toString(integer));
+        final char[] buf = this.numberBuffer;
+        this.tw.write(buf, 0, DoubleFormatter.format(decimal, buf, 0));
+    }
+
+    /**
+     * Writes the current value directly from its primitives if it is a
+     * {@link JsonNumberArray} which can be written without boxing any of its
+     * elements. The output is identical to that of writing each element.
+     *
+     * @return <code>true</code>, if the array was written.
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    protected boolean writeNumberArray() throws IOException {
+        if (!(this.current() instanceof JsonNumberArray numbers)
+                || numbers.isEmpty()
+                || numbers.hasComments()
+                || !numbers.isUniform()) {
+            return false;
+        }
+        final int size = numbers.size();
+        final int linesAbove = numbers.getElementLinesAbove();
+        final boolean condensed = this.allowCondense && linesAbove == 0;
+        final char[] buf = this.numberBuffer;
+        this.tw.write('[');
+        if (this.format && condensed && size > 1) {
+            this.tw.write(this.separator);
+        }
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                this.writeDelimiter(linesAbove);
+            }
+            if (this.format) {
+                this.writeLines(this.getNumberLinesAbove(linesAbove, i, condensed), this.level + 1);
+            }
+            if (numbers.isBoxed(i)) {
+                this.writeNumber(numbers.getReference(i).getOnly());
+            } else if (numbers.isInteger(i)) {
+                this.tw.write(buf, 0, DoubleFormatter.format(numbers.getLong(i), buf, 0));
+            } else {
+                this.writeNumber(numbers.getDouble(i));
+            }
+        }
+        if (this.format) {
+            final int lines = this.getNumberLinesTrailing(numbers.getLinesTrailing(), condensed);
+            if (lines > 0) {
+                this.writeLines(lines, this.level);
+            } else if (condensed) {
+                this.tw.write(this.separator);
+            }
+        }
+        this.tw.write(']');
+        return true;
+    }
+
+    // equivalent to getActualLinesAbove for an element inside the current array
+    private int getNumberLinesAbove(final int lines, final int index, final boolean condensed) {
+        if (lines < 0) {
+            return index == 0 ? Math.max(1, this.defaultSpacing - 1) : this.defaultSpacing;
+        } else if (!this.allowCondense) {
+            return Math.max(1, lines);
+        } else if (condensed) {
+            return Math.min(lines, this.maxSpacing);
+        } else if (index == 0) {
+            return Math.max(Math.min(lines, this.maxSpacing - 1), this.minSpacing - 1);
+        }
+        return Math.max(Math.min(lines, this.maxSpacing), this.minSpacing);
+    }
+
+    // equivalent to getActualLinesTrailing after the last element
+    private int getNumberLinesTrailing(final int lines, final boolean condensed) {
+        if (lines < 0) {
+            return condensed ? 0 : Math.max(1, this.defaultSpacing - 1);
+        } else if (condensed) {
+            return Math.min(lines, this.maxSpacing);
+        }
+        return Math.max(Math.min(lines, this.maxSpacing - 1), this.minSpacing - 1);
+    }
+
+    /**
+     * Writes the current value directly from its columns if it is a {@link
+     * JsonColumnArray} which can be written without creating an object for
+     * any row. The output is identical to that of writing each row.
+     *
+     * @return <code>true</code>, if the array was written.
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    protected boolean writeColumnArray() throws IOException {
+        if (!(this.current() instanceof JsonColumnArray table)
+                || table.isEmpty()
+                || table.keys().isEmpty()
+                || table.hasComments()
+                || !table.isFlat()) {
+            return false;
+        }
+        final List<String> keys = table.keys();
+        final int size = table.size();
+        this.tw.write('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                this.writeDelimiter(-1);
+            }
+            if (this.format) {
+                this.writeLines(this.getNumberLinesAbove(-1, i, false), this.level + 1);
+            }
+            this.tw.write('{');
+            for (int j = 0; j < keys.size(); j++) {
+                if (j > 0) {
+                    this.writeDelimiter(-1);
+                }
+                if (this.format) {
+                    this.writeLines(this.getNumberLinesAbove(-1, j, false), this.level + 2);
+                }
+                this.writeColumnKey(keys.get(j));
+                this.tw.write(':');
+                if (this.format) {
+                    this.tw.write(this.separator);
+                }
+                this.writeCell(table, i, j);
+            }
+            if (this.format) {
+                this.writeLines(this.getNumberLinesTrailing(-1, false), this.level + 1);
+            }
+            this.tw.write('}');
+        }
+        if (this.format) {
+            this.writeLines(this.getNumberLinesTrailing(table.getLinesTrailing(), false), this.level);
+        }
+        this.tw.write(']');
+        return true;
+    }
+
+    private void writeCell(final JsonColumnArray table, final int row, final int column) throws IOException {
+        if (table.isNull(row, column)) {
+            this.tw.write("null");
             return;
         }
-        String res = BigDecimal.valueOf(decimal).toEngineeringString();
-        if (res.endsWith(".0")) {
-            res = res.substring(0, res.length() - 2);
-        } else if (res.contains("E")) {
-            res = Double.toString(decimal).replace("E", "e");
+        final JsonType type = table.getColumnType(column);
+        if (type == JsonType.NUMBER) {
+            if (table.isInteger(row, column)) {
+                final char[] buf = this.numberBuffer;
+                this.tw.write(buf, 0, DoubleFormatter.format(table.getLong(row, column), buf, 0));
+            } else {
+                this.writeNumber(table.getDouble(row, column));
+            }
+        } else if (type == JsonType.STRING) {
+            this.writeColumnString(table.getString(row, column));
+        } else if (type == JsonType.BOOLEAN) {
+            this.tw.write(table.getBoolean(row, column) ? "true" : "false");
+        } else {
+            final JsonValue value = table.getValue(row, column);
+            if (value.isNumber()) {
+                this.writeNumber(value);
+            } else if (value.isString()) {
+                this.writeColumnString(value.asString());
+            } else {
+                this.tw.write(value.toString());
+            }
         }
-        this.tw.write(res);
+    }
+
+    /**
+     * Writes a key from the columns of a {@link JsonColumnArray}. Such keys
+     * are always written inside of a row, two levels below the array.
+     *
+     * @param key The key being written.
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    protected void writeColumnKey(final String key) throws IOException {
+        this.writeQuoted(key, '"');
+    }
+
+    /**
+     * Writes a string from the columns of a {@link JsonColumnArray}. Such
+     * strings never have a {@link StringType} of their own.
+     *
+     * @param value The string being written.
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    protected void writeColumnString(final String value) throws IOException {
+        this.writeQuoted(value, '"');
     }
 
     protected void writeQuoted(final String text, final char quote) throws IOException {
-        this.tw.write(quote);
-        this.tw.write(escapeQuoted(text, quote));
-        this.tw.write(quote);
+        final char[][] escapes = getEscapeTable(quote);
+        if (escapes == null) {
+            this.tw.write(quote);
+            this.tw.write(escapeQuoted(text, quote));
+            this.tw.write(quote);
+            return;
+        }
+        final Writer tw = this.tw;
+        final int len = text.length();
+        tw.write(quote);
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            final char c = text.charAt(i);
+            if (c < ESCAPE_TABLE_SIZE && escapes[c] != null) {
+                if (i > start) {
+                    tw.write(text, start, i - start);
+                }
+                final char[] escaped = escapes[c];
+                tw.write(escaped, 0, escaped.length);
+                start = i + 1;
+            }
+        }
+        if (start < len) {
+            tw.write(text, start, len - start);
+        }
+        tw.write(quote);
     }
 
     protected static String escapeQuoted(final String text, char quote) {
         if (text == null) return null;
 
+        final char[][] escapes = getEscapeTable(quote);
         for (int i = 0; i < text.length(); i++) {
-            if (getEscapedChar(text.charAt(i), quote) != null) {
+            final char c = text.charAt(i);
+            final boolean escaped = escapes != null
+                ? c < ESCAPE_TABLE_SIZE && escapes[c] != null
+                : getEscapedChar(c, quote) != null;
+            if (escaped) {
                 final StringBuilder sb = new StringBuilder();
                 if (i > 0) sb.append(text, 0, i);
                 return doEscapeString(sb, text, i, quote);
@@ -523,7 +793,11 @@ public abstract class ElementWriter implements ValueWriter {
     protected static @Nullable String getEscapedChar(
             final char c, final char quote) {
         if (c == quote) {
-            return "\\" + quote;
+            switch (quote) {
+                case '"': return "\\\"";
+                case '\'': return "\\'";
+                default: return "\\" + quote;
+            }
         }
         switch (c) {
             case '\t': return "\\t";
@@ -536,10 +810,42 @@ public abstract class ElementWriter implements ValueWriter {
         }
     }
 
+    /**
+     * Gets a lookup table containing the escape sequence for each ASCII
+     * character in a string surrounded by the given quote.
+     *
+     * @param quote The quote surrounding the string.
+     * @return The table, or else <code>null</code> for any unusual quote.
+     */
+    protected static @Nullable char[][] getEscapeTable(final char quote) {
+        switch (quote) {
+            case '"': return DOUBLE_QUOTE_ESCAPES;
+            case '\'': return SINGLE_QUOTE_ESCAPES;
+            default: return null;
+        }
+    }
+
+    private static char[][] createEscapeTable(final char quote) {
+        final char[][] table = new char[ESCAPE_TABLE_SIZE][];
+        table['\t'] = new char[] { '\\', 't' };
+        table['\n'] = new char[] { '\\', 'n' };
+        table['\r'] = new char[] { '\\', 'r' };
+        table['\f'] = new char[] { '\\', 'f' };
+        table['\b'] = new char[] { '\\', 'b' };
+        table['\\'] = new char[] { '\\', '\\' };
+        table[quote] = new char[] { '\\', quote };
+        return table;
+    }
+
     protected void writeMulti(final String value) throws IOException {
         final int level = this.current instanceof Member
             ? this.level + 1 : this.level;
-        if (this.shouldNextLineMulti()) {
+        this.writeMulti(value, level, this.shouldNextLineMulti());
+    }
+
+    protected void writeMulti(
+            final String value, final int level, final boolean nextLine) throws IOException {
+        if (nextLine) {
             this.nl(level);
         }
         this.tw.write("'''");
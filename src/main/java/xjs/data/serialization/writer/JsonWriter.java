@@ -1,9 +1,11 @@
 package xjs.data.serialization.writer;
 
 import xjs.data.JsonValue;
+import xjs.data.serialization.util.Utf8Writer;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 
 public class JsonWriter extends ElementWriter {
@@ -24,6 +26,28 @@ public class JsonWriter extends ElementWriter {
         super(writer, options);
     }
 
+    /**
+     * Constructs a writer which encodes UTF-8 directly into the given stream.
+     *
+     * @param os     The stream receiving the encoded output.
+     * @param format Whether to format the output.
+     * @see Utf8Writer
+     */
+    public JsonWriter(final OutputStream os, final boolean format) {
+        this(Utf8Writer.fromOs(os), format);
+    }
+
+    /**
+     * Constructs a writer which encodes UTF-8 directly into the given stream.
+     *
+     * @param os      The stream receiving the encoded output.
+     * @param options The options used to format the output.
+     * @see Utf8Writer
+     */
+    public JsonWriter(final OutputStream os, final JsonWriterOptions options) {
+        this(Utf8Writer.fromOs(os), options);
+    }
+
     @Override
     protected void write() throws IOException {
         this.writeAbove();
@@ -41,7 +65,7 @@ public class JsonWriter extends ElementWriter {
                 this.writeArray();
                 break;
             case NUMBER:
-                this.writeNumber(value.asDouble());
+                this.writeNumber(value);
                 break;
             case STRING:
                 this.writeQuoted(value.asString(), '"');
@@ -70,6 +94,9 @@ public class JsonWriter extends ElementWriter {
     }
 
     protected void writeArray() throws IOException {
+        if (this.writeNumberArray() || this.writeColumnArray()) {
+            return;
+        }
         this.open('[');
         while (this.current != null) {
             this.writeNextElement();
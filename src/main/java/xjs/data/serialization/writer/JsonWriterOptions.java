@@ -3,6 +3,7 @@ package xjs.data.serialization.writer;
 import org.jetbrains.annotations.ApiStatus;
 import xjs.data.JsonValue;
 import xjs.data.serialization.JsonContext;
+import xjs.data.serialization.util.WritingBuffer;
 
 import java.util.Arrays;
 
@@ -31,6 +32,8 @@ public class JsonWriterOptions {
     private int defaultSpacing = 1;
     private boolean smartSpacing = false;
     private boolean nextLineMulti = true;
+    private int bufferSize = WritingBuffer.DEFAULT_BUFFER_SIZE;
+    private boolean pooledBuffer = true;
 
     /**
      * Construct a new instance with default settings.
@@ -57,6 +60,8 @@ public class JsonWriterOptions {
         this.defaultSpacing = source.defaultSpacing;
         this.smartSpacing = source.smartSpacing;
         this.nextLineMulti = source.nextLineMulti;
+        this.bufferSize = source.bufferSize;
+        this.pooledBuffer = source.pooledBuffer;
     }
 
     /**
@@ -652,4 +657,60 @@ public class JsonWriterOptions {
         this.nextLineMulti = nextLineMulti;
         return this;
     }
+
+    /**
+     * Gets the number of characters buffered by the writer before they are
+     * written into the output.
+     *
+     * <p>Larger buffers result in fewer writes to the output. Any single
+     * write which exceeds this size will bypass the buffer entirely.
+     *
+     * @return The size of the buffer, in characters.
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Sets the number of characters buffered by the writer.
+     *
+     * @param bufferSize The size of the buffer, in characters.
+     * @return <code>this</code>, for method chaining.
+     * @throws IllegalArgumentException If the size is not positive.
+     * @see #getBufferSize()
+     */
+    public JsonWriterOptions setBufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Indicates whether the writer should borrow its buffer from the current
+     * thread, instead of allocating a new buffer.
+     *
+     * <p>The buffer is only held while a value is being written, which means
+     * any number of writers on the same thread may share it in turn. This
+     * avoids allocating a new buffer for every small value being serialized.
+     *
+     * @return <code>true</code>, if the buffer is pooled.
+     * @see WritingBuffer#pooled
+     */
+    public boolean isPooledBuffer() {
+        return this.pooledBuffer;
+    }
+
+    /**
+     * Sets whether the writer should borrow its buffer from the current thread.
+     *
+     * @param pooledBuffer Whether to pool the buffer.
+     * @return <code>this</code>, for method chaining.
+     * @see #isPooledBuffer()
+     */
+    public JsonWriterOptions setPooledBuffer(final boolean pooledBuffer) {
+        this.pooledBuffer = pooledBuffer;
+        return this;
+    }
 }
@@ -0,0 +1,94 @@
+package xjs.data.serialization.writer;
+
+import xjs.data.JsonReference;
+import xjs.data.JsonValue;
+import xjs.data.JsonArray.Element;
+import xjs.data.serialization.util.Utf8Writer;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Variant of {@link JsonWriter} which appends newline-delimited JSON, i.e.
+ * one condensed value per line.
+ *
+ * <p>Every record is appended through the same buffer, which is only
+ * flushed into the wrapped writer when it fills up, or when {@link #flush}
+ * or {@link #close} is called.
+ *
+ * <pre>{@code
+ *   try (final NdJsonWriter writer = new NdJsonWriter(file)) {
+ *     for (final JsonValue record : records) {
+ *       writer.write(record);
+ *     }
+ *   }
+ * }</pre>
+ */
+public class NdJsonWriter extends JsonWriter {
+    protected int records;
+
+    public NdJsonWriter(final File file) throws IOException {
+        this(new FileWriter(file));
+    }
+
+    public NdJsonWriter(final Writer writer) {
+        super(writer, false);
+    }
+
+    public NdJsonWriter(final OutputStream os) {
+        this(Utf8Writer.fromOs(os));
+    }
+
+    /**
+     * Appends a single record to the output, followed by a newline character.
+     *
+     * @param value The record being serialized.
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    @Override
+    public void write(final JsonValue value) throws IOException {
+        this.current = new Element(0, new JsonReference(value));
+        this.write();
+        this.tw.write('\n');
+        this.records++;
+    }
+
+    /**
+     * Appends every value in the given iterable as a separate record.
+     *
+     * @param values The records being serialized.
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    public void writeAll(final Iterable<? extends JsonValue> values) throws IOException {
+        for (final JsonValue value : values) {
+            this.write(value);
+        }
+    }
+
+    /**
+     * Gets the number of records written by this object.
+     *
+     * @return The number of records written.
+     */
+    public int getRecords() {
+        return this.records;
+    }
+
+    /**
+     * Flushes any buffered records into the wrapped writer.
+     *
+     * @throws IOException If the underlying writer throws an {@link IOException}.
+     */
+    public void flush() throws IOException {
+        this.tw.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.tw.flush();
+        super.close();
+    }
+}
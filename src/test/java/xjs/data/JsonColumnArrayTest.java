@@ -0,0 +1,247 @@
+package xjs.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class JsonColumnArrayTest {
+
+    @Test
+    public void from_copiesEachRow() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertEquals(List.of("name", "price", "sale"), table.keys());
+        assertEquals(3, table.size());
+        assertEquals("b", table.get(1).asObject().get("name").asString());
+        assertEquals(2.5, table.get(1).asObject().get("price").asDouble());
+    }
+
+    @Test
+    public void from_withDifferentKeys_throwsException() {
+        final JsonArray array = new JsonArray()
+            .add(new JsonObject().add("a", 1).add("b", 2))
+            .add(new JsonObject().add("b", 2).add("a", 1));
+        assertFalse(JsonColumnArray.canConvert(array));
+        assertThrows(UnsupportedOperationException.class, () -> JsonColumnArray.from(array));
+    }
+
+    @Test
+    public void from_withOtherValues_throwsException() {
+        final JsonArray array = new JsonArray().add(new JsonObject().add("a", 1)).add(1);
+        assertFalse(JsonColumnArray.canConvert(array));
+        assertThrows(UnsupportedOperationException.class, () -> JsonColumnArray.from(array));
+    }
+
+    @Test
+    public void from_withDuplicateKeys_throwsException() {
+        final JsonArray array = new JsonArray()
+            .add(new JsonObject().add("a", 1).add("a", 2));
+        assertFalse(JsonColumnArray.canConvert(array));
+        assertThrows(UnsupportedOperationException.class, () -> JsonColumnArray.from(array));
+    }
+
+    @Test
+    public void new_withDuplicateKeys_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new JsonColumnArray("a", "b", "a"));
+    }
+
+    @Test
+    public void from_doesNotRetainFormatting() {
+        final JsonArray array = new JsonArray()
+            .add(new JsonObject().add("a", Json.value(1).setLinesAbove(2), "comment"));
+        final JsonColumnArray table = JsonColumnArray.from(array);
+        assertEquals(-1, table.get(0).asObject().get("a").getLinesAbove());
+        assertFalse(table.get(0).asObject().get("a").hasComments());
+    }
+
+    @Test
+    public void getColumnType_describesEachColumn() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertEquals(JsonType.STRING, table.getColumnType(0));
+        assertEquals(JsonType.NUMBER, table.getColumnType(1));
+        assertEquals(JsonType.BOOLEAN, table.getColumnType(2));
+    }
+
+    @Test
+    public void getColumnType_withMixedValues_returnsNull() {
+        final JsonColumnArray table = new JsonColumnArray("a");
+        table.addIfRecord(new JsonObject().add("a", 1));
+        table.addIfRecord(new JsonObject().add("a", "text"));
+        assertNull(table.getColumnType(0));
+        assertEquals(1, table.getLong(0, 0));
+        assertEquals("text", table.getString(1, 0));
+    }
+
+    @Test
+    public void getColumnType_whenFirstValueIsNull_usesNextValue() {
+        final JsonColumnArray table = new JsonColumnArray("a");
+        table.addIfRecord(new JsonObject().add("a", JsonLiteral.jsonNull()));
+        assertEquals(JsonType.NULL, table.getColumnType(0));
+        table.addIfRecord(new JsonObject().add("a", 2));
+        assertEquals(JsonType.NUMBER, table.getColumnType(0));
+        assertTrue(table.isNull(0, 0));
+        assertEquals(2, table.getLong(1, 0));
+    }
+
+    @Test
+    public void get_returnsSameReference() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertFalse(table.isBoxed(0));
+        assertSame(table.getReference(0), table.getReference(0));
+        assertTrue(table.isBoxed(0));
+        assertFalse(table.isBoxed(1));
+    }
+
+    @Test
+    public void get_sharesKeysBetweenRows() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertTrue(table.get(0).asObject().hasSameShape(table.get(2).asObject()));
+    }
+
+    @Test
+    public void getDouble_readsBoxedRows() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        table.get(0).asObject().set("price", 10);
+        assertEquals(10, table.getDouble(0, 1));
+        assertEquals(2.5, table.getDouble(1, 1));
+    }
+
+    @Test
+    public void getString_withOtherValue_throwsException() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertThrows(UnsupportedOperationException.class, () -> table.getString(0, 1));
+    }
+
+    @Test
+    public void sum_doesNotBoxRows() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertEquals(7.5, table.sum("price"));
+        assertFalse(table.isBoxed(0));
+    }
+
+    @Test
+    public void sum_ignoresNulls() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        table.addIfRecord(new JsonObject().add("name", "d").add("price", JsonLiteral.jsonNull()).add("sale", false));
+        assertEquals(7.5, table.sum("price"));
+    }
+
+    @Test
+    public void minAndMax_readEveryNumber() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertEquals(OptionalDouble.of(1), table.min("price"));
+        assertEquals(OptionalDouble.of(4), table.max("price"));
+        assertEquals(OptionalDouble.empty(), new JsonColumnArray("price").max("price"));
+    }
+
+    @Test
+    public void sum_withUnknownKey_throwsException() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertThrows(IllegalArgumentException.class, () -> table.sum("missing"));
+    }
+
+    @Test
+    public void filterNumbers_copiesMatchingRows() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        final JsonColumnArray filtered = table.filterNumbers("price", p -> p > 2);
+        assertEquals(2, filtered.size());
+        assertEquals("b", filtered.getString(0, 0));
+        assertEquals("c", filtered.getString(1, 0));
+        assertFalse(table.isBoxed(1));
+    }
+
+    @Test
+    public void filterStrings_copiesMatchingRows() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        final JsonColumnArray filtered = table.filterStrings("name", n -> n.equals("a"));
+        assertEquals(1, filtered.size());
+        assertEquals(1, filtered.getLong(0, 1));
+    }
+
+    @Test
+    public void equals_matchesRegularArray() {
+        final JsonArray regular = records();
+        final JsonColumnArray table = JsonColumnArray.from(regular);
+        assertEquals(regular, table);
+        assertEquals(table, regular);
+        assertEquals(regular.hashCode(), table.hashCode());
+    }
+
+    @Test
+    public void equals_doesNotBoxRows() {
+        final JsonColumnArray a = JsonColumnArray.from(records());
+        final JsonColumnArray b = JsonColumnArray.from(records());
+        assertEquals(a, b);
+        assertFalse(a.isBoxed(0));
+        assertFalse(b.isBoxed(0));
+    }
+
+    @Test
+    public void addIfRecord_rejectsOtherKeys() {
+        final JsonColumnArray table = new JsonColumnArray("a");
+        assertFalse(table.addIfRecord(new JsonObject().add("b", 1)));
+        assertFalse(table.addIfRecord(Json.value(1)));
+        assertTrue(table.addIfRecord(new JsonObject().add("a", 1)));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void insert_shiftsColumns() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        table.insert(0, new JsonObject().add("name", "z"));
+        assertTrue(table.isBoxed(0));
+        assertEquals("a", table.getString(1, 0));
+        assertEquals(4, table.getLong(3, 1));
+    }
+
+    @Test
+    public void remove_shiftsColumns() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        table.remove(0);
+        assertEquals("b", table.getString(0, 0));
+        assertEquals(4, table.getLong(1, 1));
+        assertTrue(table.getBoolean(1, 2));
+    }
+
+    @Test
+    public void iteratorRemove_removesRow() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        final Iterator<JsonValue> iterator = table.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(2, table.size());
+        assertEquals(6.5, table.sum("price"));
+    }
+
+    @Test
+    public void copy_recursive_isIndependent() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        final JsonColumnArray copy = table.copy(JsonCopy.RECURSIVE);
+        copy.get(0).asObject().set("name", "z");
+        assertEquals("a", table.getString(0, 0));
+        assertEquals("z", copy.getString(0, 0));
+    }
+
+    @Test
+    public void isFlat_whenRowIsBoxed_returnsFalse() {
+        final JsonColumnArray table = JsonColumnArray.from(records());
+        assertTrue(table.isFlat());
+        table.get(1);
+        assertFalse(table.isFlat());
+    }
+
+    private static JsonArray records() {
+        return new JsonArray()
+            .add(new JsonObject().add("name", "a").add("price", 1).add("sale", false))
+            .add(new JsonObject().add("name", "b").add("price", 2.5).add("sale", true))
+            .add(new JsonObject().add("name", "c").add("price", 4).add("sale", true));
+    }
+}
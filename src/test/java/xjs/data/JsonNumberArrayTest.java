@@ -0,0 +1,155 @@
+package xjs.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class JsonNumberArrayTest {
+
+    @Test
+    public void get_boxesEachNumber() {
+        final JsonNumberArray array = new JsonNumberArray().add(1).add(2.5);
+        assertTrue(((JsonNumber) array.get(0)).isLong());
+        assertEquals(1, array.get(0).asLong());
+        assertEquals(2.5, array.get(1).asDouble());
+    }
+
+    @Test
+    public void get_returnsSameReference() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1, 2 });
+        assertFalse(array.isBoxed(0));
+        assertSame(array.getReference(0), array.getReference(0));
+        assertTrue(array.isBoxed(0));
+        assertFalse(array.isBoxed(1));
+    }
+
+    @Test
+    public void get_tracksAccess_onBoxedReference() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1 });
+        array.get(0);
+        assertTrue(array.getReference(0).isAccessed());
+    }
+
+    @Test
+    public void getDouble_doesNotBoxNumbers() {
+        final JsonNumberArray array = new JsonNumberArray(new double[] { 1.5, 2.5 });
+        assertEquals(2.5, array.getDouble(1));
+        assertFalse(array.isBoxed(1));
+    }
+
+    @Test
+    public void getLong_preservesLargeIntegers() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { Long.MAX_VALUE });
+        assertEquals(Long.MAX_VALUE, array.getLong(0));
+        assertEquals(Long.MAX_VALUE, array.get(0).asLong());
+    }
+
+    @Test
+    public void doubleStream_readsEveryNumber() {
+        final JsonNumberArray array = new JsonNumberArray().add(1).add(2.5).add(3);
+        assertEquals(6.5, array.doubleStream().sum());
+    }
+
+    @Test
+    public void toDoubleArray_readsBoxedNumbers() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1, 2 });
+        array.set(1, 4.5);
+        assertArrayEquals(new double[] { 1, 4.5 }, array.toDoubleArray());
+    }
+
+    @Test
+    public void toDoubleArray_withOtherValues_throwsException() {
+        final JsonNumberArray array = new JsonNumberArray().add(1);
+        array.add("text");
+        assertThrows(UnsupportedOperationException.class, array::toDoubleArray);
+    }
+
+    @Test
+    public void equals_matchesRegularArray() {
+        final JsonArray regular = new JsonArray().add(1).add(2.5);
+        final JsonNumberArray numbers = new JsonNumberArray().add(1).add(2.5);
+        assertEquals(regular, numbers);
+        assertEquals(numbers, regular);
+        assertEquals(regular.hashCode(), numbers.hashCode());
+    }
+
+    @Test
+    public void equals_doesNotBoxNumbers() {
+        final JsonNumberArray a = new JsonNumberArray(new long[] { 1, 2 });
+        final JsonNumberArray b = new JsonNumberArray(new long[] { 1, 2 });
+        assertEquals(a, b);
+        assertFalse(a.isBoxed(0));
+        assertFalse(b.isBoxed(0));
+    }
+
+    @Test
+    public void addIfNumber_rejectsOtherValues() {
+        final JsonNumberArray array = new JsonNumberArray();
+        assertFalse(array.addIfNumber(Json.value("1")));
+        assertTrue(array.addIfNumber(Json.value(1)));
+        assertEquals(1, array.size());
+    }
+
+    @Test
+    public void addIfNumber_withDifferentFormatting_boxesNumber() {
+        final JsonNumberArray array = new JsonNumberArray();
+        array.addIfNumber(Json.value(1).setLinesAbove(1));
+        array.addIfNumber(Json.value(2).setLinesAbove(1));
+        array.addIfNumber(Json.value(3).setLinesAbove(2));
+        assertFalse(array.isBoxed(1));
+        assertTrue(array.isBoxed(2));
+        assertEquals(1, array.get(1).getLinesAbove());
+        assertEquals(2, array.get(2).getLinesAbove());
+    }
+
+    @Test
+    public void insert_shiftsPrimitives() {
+        final JsonNumberArray array = new JsonNumberArray().add(1).add(2.5);
+        array.insert(0, Json.value("a"));
+        assertEquals("a", array.get(0).asString());
+        assertEquals(1, array.getLong(1));
+        assertEquals(2.5, array.getDouble(2));
+    }
+
+    @Test
+    public void remove_shiftsPrimitives() {
+        final JsonNumberArray array = new JsonNumberArray().add(1).add(2.5).add(3);
+        array.remove(0);
+        assertEquals(2.5, array.getDouble(0));
+        assertTrue(array.isInteger(1));
+        assertEquals(3, array.getLong(1));
+    }
+
+    @Test
+    public void iteratorRemove_removesNumber() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1, 2, 3 });
+        final Iterator<JsonValue> iterator = array.iterator();
+        iterator.next();
+        iterator.remove();
+        assertArrayEquals(new long[] { 2, 3 }, array.toLongArray());
+    }
+
+    @Test
+    public void copy_recursive_isIndependent() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1, 2 });
+        final JsonNumberArray copy = array.copy(JsonCopy.RECURSIVE);
+        copy.set(0, 5);
+        assertEquals(1, array.getLong(0));
+        assertEquals(5, copy.getLong(0));
+    }
+
+    @Test
+    public void isUniform_whenBoxedNumberHasComment_returnsFalse() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1, 2 });
+        assertTrue(array.isUniform());
+        array.get(1).setComment("comment");
+        assertFalse(array.isUniform());
+    }
+}
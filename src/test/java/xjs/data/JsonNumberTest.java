@@ -0,0 +1,74 @@
+package xjs.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class JsonNumberTest {
+
+    @Test
+    public void asLong_isExact_beyondDoublePrecision() {
+        assertEquals(Long.MAX_VALUE, Json.value(Long.MAX_VALUE).asLong());
+    }
+
+    @Test
+    public void unwrap_returnsDouble() {
+        assertEquals(1.0, Json.value(1).unwrap());
+        assertEquals(1.5, Json.value(1.5).unwrap());
+        assertEquals(1.5, new JsonNumber(new BigDecimal("1.50")).unwrap());
+    }
+
+    @Test
+    public void unwrapExact_preservesRepresentation() {
+        assertEquals(1L, Json.value(1).unwrapExact());
+        assertEquals(1.5, Json.value(1.5).unwrapExact());
+        assertEquals(new BigDecimal("1.50"), new JsonNumber(new BigDecimal("1.50")).unwrapExact());
+    }
+
+    @Test
+    public void toList_unwrapsNumbersAsDoubles() {
+        final List<Object> list = Json.array(1, 2).toList();
+        assertEquals(List.of(1.0, 2.0), list);
+        assertEquals("1.0", Json.value(1).toString());
+    }
+
+    @Test
+    public void matches_ignoresRepresentation() {
+        assertEquals(Json.value(1), Json.value(1.0));
+        assertEquals(Json.value(1).hashCode(), Json.value(1.0).hashCode());
+        assertEquals(Json.value(2.5), new JsonNumber(new BigDecimal("2.50")));
+    }
+
+    @Test
+    public void matches_distinguishesIntegers_withSameDouble() {
+        assertNotEquals(Json.value(9007199254740993L), Json.value(9007199254740992L));
+        assertNotEquals(Json.value(9007199254740993L), Json.value(9007199254740992.0));
+    }
+
+    @Test
+    public void any_wrapsIntegralTypes_exactly() {
+        assertTrue(((JsonNumber) Json.any(Long.MAX_VALUE)).isLong());
+        assertTrue(((JsonNumber) Json.any(BigInteger.TEN.pow(30))).isDecimal());
+        assertFalse(((JsonNumber) Json.any(1.5f)).isLong());
+    }
+
+    @Test
+    public void toString_printsLong_withoutFraction() {
+        assertEquals("9007199254740993", Json.value(9007199254740993L).toString(JsonFormat.JSON));
+    }
+
+    @Test
+    public void toString_printsDecimal_verbatim() {
+        final String text = "123456789012345678901234567890.5";
+        final JsonValue number = JsonNumber.fromText(text);
+        assertEquals(text, number.toString(JsonFormat.JSON));
+        assertEquals(text, number.toString(JsonFormat.DJS));
+    }
+}
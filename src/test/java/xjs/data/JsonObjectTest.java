@@ -5,6 +5,9 @@ import xjs.data.Json;
 import xjs.data.JsonObject;
 import xjs.data.JsonValue;
 
+import java.util.Iterator;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -98,4 +101,148 @@ public final class JsonObjectTest {
         assertThrows(UnsupportedOperationException.class, () -> object.add("k2", "v2"));
         assertThrows(UnsupportedOperationException.class, () -> object.set("key", false));
     }
+
+    @Test
+    public void get_findsMembersBeyondInitialCapacity() {
+        final JsonObject object = new JsonObject();
+        for (int i = 0; i < 1_000; i++) {
+            object.add("k" + i, i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, object.get("k" + i).asInt());
+        }
+        assertFalse(object.has("k1000"));
+    }
+
+    @Test
+    public void get_returnsLastDuplicate() {
+        final JsonObject object =
+            new JsonObject().add("a", 1).add("b", 2).add("a", 3);
+        assertEquals(3, object.get("a").asInt());
+        assertEquals(2, object.indexOf("a"));
+    }
+
+    @Test
+    public void remove_exposesPreviousDuplicate() {
+        final JsonObject object =
+            new JsonObject().add("a", 1).add("b", 2).add("a", 3);
+        object.remove("a");
+        assertEquals(1, object.get("a").asInt());
+        assertEquals(0, object.indexOf("a"));
+        object.remove("a");
+        assertFalse(object.has("a"));
+        assertEquals(0, object.indexOf("b"));
+    }
+
+    @Test
+    public void remove_shiftsSubsequentIndices() {
+        final JsonObject object = new JsonObject();
+        for (int i = 0; i < 300; i++) {
+            object.add("k" + i, i);
+        }
+        object.remove("k0");
+        for (int i = 1; i < 300; i++) {
+            assertEquals(i - 1, object.indexOf("k" + i));
+        }
+    }
+
+    @Test
+    public void iteratorRemove_updatesIndex() {
+        final JsonObject object =
+            new JsonObject().add("a", 1).add("b", 2).add("c", 3);
+        final Iterator<JsonObject.Member> iterator = object.iterator();
+        iterator.next();
+        iterator.remove();
+        assertFalse(object.has("a"));
+        assertEquals(0, object.indexOf("b"));
+        assertEquals(1, object.indexOf("c"));
+    }
+
+    @Test
+    public void frozenObject_isNotAffectedByOriginal() {
+        final JsonObject object = new JsonObject().add("a", 1);
+        final JsonObject frozen = (JsonObject) object.freeze();
+        object.remove("a").add("b", 2);
+        assertTrue(frozen.has("a"));
+        assertFalse(frozen.has("b"));
+    }
+
+    @Test
+    public void removeAllKeys_preservesInsertionOrder() {
+        final JsonObject object =
+            new JsonObject().add("a", 1).add("b", 2).add("c", 3).add("d", 4);
+        object.removeAllKeys(List.of("c", "a"));
+        assertEquals(List.of("b", "d"), object.keys());
+        assertEquals(0, object.indexOf("b"));
+        assertEquals(1, object.indexOf("d"));
+    }
+
+    @Test
+    public void removeAllKeys_removesLastDuplicatePerKey() {
+        final JsonObject object =
+            new JsonObject().add("a", 1).add("b", 2).add("a", 3).add("a", 4);
+        object.removeAllKeys(List.of("a", "a"));
+        assertEquals(List.of("a", "b"), object.keys());
+        assertEquals(1, object.get("a").asInt());
+    }
+
+    @Test
+    public void removeAllKeys_ignoresMissingKeys() {
+        final JsonObject object = new JsonObject().add("a", 1);
+        object.removeAllKeys(List.of("x", "y"));
+        assertEquals(List.of("a"), object.keys());
+    }
+
+    @Test
+    public void add_withSameKeys_sharesShape() {
+        final JsonObject a = new JsonObject().add("x", 1).add("y", 2);
+        final JsonObject b = new JsonObject().add("x", 3).add("y", 4);
+        assertTrue(a.hasSameShape(b));
+        assertEquals(1, b.indexOf("y"));
+    }
+
+    @Test
+    public void add_inDifferentOrder_doesNotShareShape() {
+        final JsonObject a = new JsonObject().add("x", 1).add("y", 2);
+        final JsonObject b = new JsonObject().add("y", 3).add("x", 4);
+        assertFalse(a.hasSameShape(b));
+    }
+
+    @Test
+    public void setKey_onSharedObject_doesNotAffectOtherObjects() {
+        final JsonObject a = new JsonObject().add("x", 1).add("y", 2);
+        final JsonObject b = new JsonObject().add("x", 3).add("y", 4);
+        a.setKey(0, "z");
+        assertEquals(List.of("z", "y"), a.keys());
+        assertEquals(List.of("x", "y"), b.keys());
+        assertEquals(0, b.indexOf("x"));
+        assertEquals(-1, b.indexOf("z"));
+    }
+
+    @Test
+    public void remove_transitionsToShapeOfRemainingKeys() {
+        final JsonObject a = new JsonObject().add("x", 1).add("y", 2).add("z", 3);
+        final JsonObject b = new JsonObject().add("x", 4).add("z", 5);
+        a.remove("y");
+        assertTrue(a.hasSameShape(b));
+        assertEquals(1, a.indexOf("z"));
+    }
+
+    @Test
+    public void copy_sharesShape() {
+        final JsonObject object = new JsonObject().add("x", 1).add("y", 2);
+        assertTrue(object.hasSameShape(object.copy(JsonCopy.RECURSIVE)));
+    }
+
+    @Test
+    public void add_beyondMaxKeys_ownsKeys() {
+        final JsonObject object = new JsonObject();
+        for (int i = 0; i <= ObjectShape.MAX_KEYS; i++) {
+            object.add("k" + i, i);
+        }
+        assertFalse(object.isShared());
+        assertEquals(ObjectShape.MAX_KEYS, object.indexOf("k" + ObjectShape.MAX_KEYS));
+        object.add("last", 0);
+        assertEquals(ObjectShape.MAX_KEYS + 1, object.indexOf("last"));
+    }
 }
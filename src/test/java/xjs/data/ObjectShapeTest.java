@@ -0,0 +1,58 @@
+package xjs.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ObjectShapeTest {
+
+    @Test
+    public void add_returnsSameShape_forSameKey() {
+        final ObjectShape shape = ObjectShape.EMPTY.add("shape_test_a");
+        assertNotNull(shape);
+        assertSame(shape, ObjectShape.EMPTY.add("shape_test_a"));
+        assertEquals(List.of("shape_test_a"), shape.keys);
+    }
+
+    @Test
+    public void of_followsTransitions() {
+        final ObjectShape first = ObjectShape.EMPTY.add("shape_test_b");
+        assertNotNull(first);
+        final ObjectShape second = first.add("shape_test_c");
+        assertSame(second, ObjectShape.of(List.of("shape_test_b", "shape_test_c")));
+    }
+
+    @Test
+    public void add_indexesLastDuplicate() {
+        final ObjectShape shape = ObjectShape.of(List.of("shape_test_d", "shape_test_d"));
+        assertNotNull(shape);
+        assertEquals(1, shape.table.get("shape_test_d"));
+    }
+
+    @Test
+    public void add_beyondMaxTransitions_returnsNull() {
+        final ObjectShape root = ObjectShape.EMPTY.add("shape_test_e");
+        assertNotNull(root);
+        // held strongly, so that no transition can be purged
+        final ObjectShape[] retained = new ObjectShape[ObjectShape.MAX_TRANSITIONS];
+        for (int i = 0; i < ObjectShape.MAX_TRANSITIONS; i++) {
+            retained[i] = root.add("k" + i);
+            assertNotNull(retained[i]);
+        }
+        assertNull(root.add("overflow"));
+        assertSame(retained[0], root.add("k0"));
+    }
+
+    @Test
+    public void keys_areUnmodifiable() {
+        final ObjectShape shape = ObjectShape.EMPTY.add("shape_test_f");
+        assertNotNull(shape);
+        assertThrows(UnsupportedOperationException.class, () -> shape.keys.add("x"));
+    }
+}
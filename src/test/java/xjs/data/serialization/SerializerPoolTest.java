@@ -0,0 +1,82 @@
+package xjs.data.serialization;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import xjs.data.JsonArray;
+import xjs.data.JsonFormat;
+import xjs.data.JsonObject;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SerializerPoolTest {
+
+    @BeforeAll
+    static void setup() {
+        JsonContext.setEol("\n");
+    }
+
+    @AfterAll
+    static void teardown() {
+        JsonContext.setEol(System.getProperty("line.separator"));
+    }
+
+    @Test
+    public void parseJson_reusesParser_forEachInput() {
+        assertTrue(new JsonArray().add(1).add(2)
+            .matches(SerializerPool.parseJson("[1,2]")));
+        assertTrue(new JsonObject().add("a", true)
+            .matches(SerializerPool.parseJson("{\"a\":true}")));
+    }
+
+    @Test
+    public void parseDjs_reusesParser_forEachInput() {
+        assertTrue(new JsonObject().add("a", 1)
+            .matches(SerializerPool.parseDjs("a:1")));
+        assertTrue(new JsonArray().add("b")
+            .matches(SerializerPool.parseDjs("['b']")));
+    }
+
+    @Test
+    public void parseJson_afterSyntaxError_parsesNewInput() {
+        assertThrows(SyntaxException.class, () -> SerializerPool.parseJson("{\"a\":"));
+        assertTrue(new JsonArray().add(3)
+            .matches(SerializerPool.parseJson("[3]")));
+    }
+
+    @Test
+    public void toString_matchesRegularOutput_inEveryFormat() {
+        final JsonValue value = new JsonObject()
+            .add("a", 1)
+            .add("b", new JsonArray().add("c").add(2.5));
+        for (final JsonFormat format : JsonFormat.values()) {
+            assertEquals(value.toString(format), SerializerPool.toString(value, format));
+            assertEquals(value.toString(format), SerializerPool.toString(value, format));
+        }
+    }
+
+    @Test
+    public void toBytes_encodesUtf8() {
+        final JsonValue value = new JsonArray().add("\u00e9");
+        assertEquals("[\"\u00e9\"]",
+            new String(SerializerPool.toBytes(value, JsonFormat.JSON), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toString_whenEolChanges_usesNewEol() {
+        final JsonValue value = new JsonArray().add(1).add(2);
+        try {
+            JsonContext.setEol("\r\n");
+            assertEquals(value.toString(JsonFormat.JSON_FORMATTED),
+                SerializerPool.toString(value, JsonFormat.JSON_FORMATTED));
+        } finally {
+            JsonContext.setEol("\n");
+        }
+    }
+}
@@ -2,15 +2,21 @@ package xjs.data.serialization.parser;
 
 import org.junit.jupiter.api.Test;
 import xjs.data.JsonArray;
+import xjs.data.JsonNumber;
 import xjs.data.JsonObject;
 import xjs.data.JsonValue;
 import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.PositionTrackingReader;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -46,6 +52,28 @@ public abstract class CommonParserTest {
         assertEquals(12.3e4, this.parse("12.3e4").asDouble());
     }
 
+    @Test
+    public final void parse_readsLargeInteger_exactly() throws IOException {
+        assertEquals(9007199254740993L, this.parse("9007199254740993").asLong());
+        assertEquals(Long.MIN_VALUE, this.parse("-9223372036854775808").asLong());
+    }
+
+    @Test
+    public final void parse_preservesTextOfPreciseNumbers() throws IOException {
+        final String text = "3.14159265358979323846264338327950288";
+        assertEquals(text, this.parse(text).intoString());
+        assertEquals(new BigDecimal(text), ((JsonNumber) this.parse(text)).asBigDecimal());
+    }
+
+    @Test
+    public final void parse_readsExponentsAndLeadingZeros_asDoubles() throws IOException {
+        for (final String text : List.of("1.7976931348623157E308", "0.000000000000000000001", "-0.0000000000000000000012345e-2")) {
+            final JsonNumber number = (JsonNumber) this.parse(text);
+            assertFalse(number.isDecimal(), text);
+            assertEquals(Double.parseDouble(text), number.asDouble());
+        }
+    }
+
     @Test
     public final void parse_readsQuotedString() throws IOException {
         assertEquals("Hello, World!", this.parse("\"Hello, World!\"").asString());
@@ -120,5 +148,90 @@ public abstract class CommonParserTest {
             () -> this.parse("\"\\y\""));
     }
 
+    @Test
+    public final void parse_fromMappedFile_matchesStringInput() throws IOException {
+        final String json = "{\"a\":[1,2.5,\"\\t\u00e9t\u00e9 \uD83D\uDE00\"],\n\"b\":{\"c\":null}}";
+        final Path tmp = Files.createTempFile("parser", ".json");
+        tmp.toFile().deleteOnExit();
+        Files.writeString(tmp, json);
+        assertEquals(this.parse(json), this.parse(PositionTrackingReader.fromPath(tmp)));
+    }
+
+    @Test
+    public final void parse_withPaths_readsOnlySelectedValues() throws IOException {
+        final JsonValue parsed = this.parse(
+            "{\"server\":{\"port\":8080,\"host\":\"[}\"},\"db\":{\"url\":\"u\"}}",
+            PathSelection.of("server.port"));
+        assertEquals(new JsonObject().add("server", new JsonObject().add("port", 8080)),
+            parsed.unformatted());
+    }
+
+    @Test
+    public final void parse_withWildcardPaths_readsEveryElement() throws IOException {
+        final JsonValue parsed = this.parse(
+            "{\"pools\":[{\"size\":1,\"name\":\"a\"},{\"size\":2,\"x\":[[],{}]}]}",
+            PathSelection.of("pools[*].size"));
+        final JsonArray expected = new JsonArray()
+            .add(new JsonObject().add("size", 1))
+            .add(new JsonObject().add("size", 2));
+        assertEquals(new JsonObject().add("pools", expected), parsed.unformatted());
+    }
+
+    @Test
+    public final void parse_withWildcardPaths_omitsUnmatchedContainers() throws IOException {
+        final JsonValue parsed = this.parse(
+            "{\"server\":{\"port\":8080},\"db\":{\"url\":\"u\"},\"arr\":[[1,2]],\"empty\":{}}",
+            PathSelection.of("*.port", "arr[*]"));
+        final JsonObject expected = new JsonObject()
+            .add("server", new JsonObject().add("port", 8080))
+            .add("arr", new JsonArray().add(new JsonArray().add(1).add(2)));
+        assertEquals(expected, parsed.unformatted());
+        assertEquals(new JsonObject(), this.parse("{\"a\":{\"b\":[]}}", PathSelection.of("*.c")).unformatted());
+    }
+
+    @Test
+    public final void parse_withPaths_readsEntireSubtree() throws IOException {
+        final JsonValue parsed = this.parse(
+            "[1,{\"a\":[2,3]},4]", PathSelection.of("[1]"));
+        assertEquals(new JsonArray().add(new JsonObject().add("a", new JsonArray().add(2).add(3))),
+            parsed.unformatted());
+    }
+
+    @Test
+    public final void parse_withPaths_skipsValuesOfDifferentShape() throws IOException {
+        final JsonValue parsed = this.parse(
+            "{\"a\":1,\"b\":{\"c\":2}}", PathSelection.of("a.c", "b.c"));
+        assertEquals(new JsonObject().add("b", new JsonObject().add("c", 2)),
+            parsed.unformatted());
+    }
+
+    @Test
+    public final void parse_withPaths_doesNotTolerate_unbalancedContainers() {
+        assertThrows(SyntaxException.class,
+            () -> this.parse("{\"a\":[1,2}", PathSelection.of("b")));
+    }
+
+    @Test
+    public final void parseUnformatted_matchesUnformattedCopy() throws IOException {
+        final String json = "\n{\n\n  \"a\": 1,\n  \"b\":\n    [ 2,\n\n 3 ],\n\n  \"c\": { \"d\": null }\n\n}\n";
+        final JsonValue parsed = this.parseUnformatted(json);
+        assertEquals(this.parse(json).unformatted(), parsed);
+        assertEquals(-1, parsed.getLinesAbove());
+        assertEquals(-1, parsed.asObject().get("b").getLinesBetween());
+    }
+
+    @Test
+    public final void parseUnformatted_reportsLineNumbers() {
+        final SyntaxException e = assertThrows(SyntaxException.class,
+            () -> this.parseUnformatted("{\n\n  \"a\": 1,\n  \"b\" 2\n}"));
+        assertEquals(3, e.getLine());
+    }
+
     protected abstract JsonValue parse(final String json) throws IOException;
+
+    protected abstract JsonValue parseUnformatted(final String json) throws IOException;
+
+    protected abstract JsonValue parse(final String json, final PathSelection paths) throws IOException;
+
+    protected abstract JsonValue parse(final PositionTrackingReader reader) throws IOException;
 }
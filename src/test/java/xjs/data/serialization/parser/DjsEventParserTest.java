@@ -0,0 +1,206 @@
+package xjs.data.serialization.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import xjs.data.exception.SyntaxException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static xjs.data.serialization.parser.JsonEventParserTest.build;
+import static xjs.data.serialization.parser.JsonEventParserTest.readAll;
+
+public final class DjsEventParserTest {
+
+    @Test
+    public void next_readsOpenRoot() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("a: 1\nb: 2");
+        assertEquals(JsonEvent.START_OBJECT, parser.next());
+        assertEquals(JsonEvent.KEY, parser.next());
+        assertEquals("a", parser.getString());
+        assertEquals(JsonEvent.VALUE_NUMBER, parser.next());
+        assertEquals(JsonEvent.KEY, parser.next());
+        assertEquals("b", parser.getString());
+        assertEquals(JsonEvent.VALUE_NUMBER, parser.next());
+        assertEquals(JsonEvent.END_OBJECT, parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void next_readsEmptyDocument_asOpenRoot() throws IOException {
+        assertEquals(List.of(JsonEvent.START_OBJECT, JsonEvent.END_OBJECT),
+            readAll(new DjsEventParser("  # nothing here\n")));
+    }
+
+    @Test
+    public void next_readsSingleValue() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("'hello'");
+        assertEquals(JsonEvent.VALUE_STRING, parser.next());
+        assertEquals("hello", parser.getString());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void next_readsSingleNumber() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("-12.5");
+        assertEquals(JsonEvent.VALUE_NUMBER, parser.next());
+        assertEquals(-12.5, parser.getDouble());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void next_skipsComments() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("""
+            // line
+            [ # hash
+              1 /* block */, 2
+            ]
+            """);
+        assertEquals(List.of(JsonEvent.START_ARRAY, JsonEvent.VALUE_NUMBER,
+            JsonEvent.VALUE_NUMBER, JsonEvent.END_ARRAY), readAll(parser));
+    }
+
+    @Test
+    public void next_readsUnquotedValues() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("[.5, 1., yes]");
+        parser.next();
+        parser.next();
+        assertEquals(0.5, parser.getDouble());
+        parser.next();
+        assertEquals(1.0, parser.getDouble());
+        assertThrows(SyntaxException.class, parser::next);
+    }
+
+    @Test
+    public void next_readsMultilineStrings() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("k: '''\n  a\n  b\n  '''");
+        parser.next();
+        parser.next();
+        assertEquals(JsonEvent.VALUE_STRING, parser.next());
+        assertEquals("a\nb", parser.getString());
+    }
+
+    @Test
+    public void skipChildren_ignoresBracketsInCommentsAndStrings() throws IOException {
+        final DjsEventParser parser = new DjsEventParser("""
+            a: {
+              b: ']}' # }
+              c: '''
+                }
+                '''
+              /* } */
+            }
+            d: true
+            """);
+        parser.next();
+        parser.next();
+        parser.next();
+        parser.skipChildren();
+        assertEquals(JsonEvent.KEY, parser.next());
+        assertEquals("d", parser.getString());
+        assertEquals(JsonEvent.VALUE_TRUE, parser.next());
+        assertEquals(JsonEvent.END_OBJECT, parser.next());
+    }
+
+    @Test
+    public void next_matchesTreeParser() throws IOException {
+        final String djs = """
+            # header
+            a: [ 1, 2.5, -3e2, 'x', "y", true, false, null ]
+            b: {
+              c: {}
+              d: [],
+            }
+            e: '''
+              multi
+              '''
+            """;
+        assertTrue(new DjsParser(djs).parse().matches(build(new DjsEventParser(djs))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "a: 1\nb: 2",
+        "a: 1, b: 2,",
+        "{ a: 1, b: [1, 2, 3] }",
+        "[\n  1\n  2\n  3\n]",
+        "[1, 'b', \"c\"]",
+        "k: null\nn: false",
+        "a: { b: { c: [ {}, [], [[]] ] } }",
+        "  -1.5e3  ",
+        "'single'",
+        "true",
+        "/* block */ a: /* in */ 1 // eol\nb: 2 # eol\n\n# footer",
+        "x: 'it\\'s'\ny: \"\\u00e9\\n\\t\"",
+        "m: '''\n  line 1\n    line 2\n  '''\nn: 0.25",
+        "'quoted key': 1\n\"other\": -0",
+    })
+    public void next_matchesTreeParser_onCorpus(final String djs) throws IOException {
+        assertTrue(new DjsParser(djs).parse().matches(build(new DjsEventParser(djs))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[a, b]",
+        "k: unquoted value",
+        "{ a: 1 ",
+        "a: 1 b",
+        "'open",
+    })
+    public void next_rejectsCorpus_likeTreeParser(final String djs) {
+        assertThrows(SyntaxException.class, () -> new DjsParser(djs).parse());
+        assertThrows(SyntaxException.class, () -> readAll(new DjsEventParser(djs)));
+    }
+
+    @Test
+    public void next_fromFile_matchesTreeParser() throws IOException {
+        final Path tmp = Files.createTempFile("xjs", ".djs");
+        try {
+            Files.writeString(tmp, "# header\na: [1, 'two', { three: 3 }]\nb: '''\n  multi\n  '''\n");
+            assertTrue(new DjsParser(tmp.toFile()).parse()
+                .matches(build(new DjsEventParser(tmp.toFile()))));
+        } finally {
+            Files.delete(tmp);
+        }
+    }
+
+    @Test
+    public void new_withMissingFile_throwsException() {
+        final File missing = new File("missing.djs");
+        assertThrows(FileNotFoundException.class, () -> new DjsEventParser(missing));
+    }
+
+    @Test
+    public void next_doesNotTolerate_missingDelimiters() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new DjsEventParser("[1 2]")));
+    }
+
+    @Test
+    public void next_doesNotTolerate_leadingDelimiters() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new DjsEventParser("[,1]")));
+    }
+
+    @Test
+    public void next_doesNotTolerate_octalNumbers() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new DjsEventParser("[01]")));
+    }
+
+    @Test
+    public void next_doesNotTolerate_unclosedComments() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new DjsEventParser("[1 /* oops")));
+    }
+}
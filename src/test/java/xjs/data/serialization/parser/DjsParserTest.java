@@ -5,9 +5,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import xjs.data.comments.CommentType;
 import xjs.data.JsonArray;
+import xjs.data.JsonNumber;
 import xjs.data.JsonObject;
 import xjs.data.JsonValue;
 import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.JsonContext;
+import xjs.data.serialization.util.KeyCache;
+import xjs.data.serialization.util.PositionTrackingReader;
 import xjs.data.serialization.writer.JsonWriter;
 
 import java.io.IOException;
@@ -15,6 +19,8 @@ import java.io.StringWriter;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -124,6 +130,15 @@ public final class DjsParserTest extends CommonParserTest {
         assertEquals("0\n 1\n  2", this.parse(text).asObject().getAsserted("multi").asString());
     }
 
+    @ParameterizedTest
+    @CsvSource({"1.7976931348623157E308", "0.000000000000000000001", "1e-7", "0.000123456789012345678", "3.14159265358979323846"})
+    public void parse_readsNumbers_likeJsonParser(final String text) throws IOException {
+        final JsonValue json = new JsonParser(text).parse();
+        final JsonValue djs = this.parse(text);
+        assertEquals(json.isNumber() && ((JsonNumber) json).isDecimal(), ((JsonNumber) djs).isDecimal());
+        assertEquals(json.toString(), djs.toString());
+    }
+
     @ParameterizedTest
     @CsvSource({"/*header*/", "#header", "//header"})
     public void parse_preservesHeaderComment_atTopOfFile(final String comment) {
@@ -242,8 +257,113 @@ public final class DjsParserTest extends CommonParserTest {
         assertEquals(expected.replace("\r", ""), sw.toString().replace("\r", ""));
     }
 
+    @Test
+    public void parse_withPaths_skipsCommentsAndMultilineStrings() {
+        final String djs = """
+            # header
+            a: {
+              b: '''
+                }
+                '''
+              /* ] */
+            }
+            c: 1 # kept
+            """;
+        final JsonValue parsed = new DjsParser(djs).parse(PathSelection.of("c"));
+        assertEquals(new JsonObject().add("c", 1), parsed.unformatted());
+    }
+
+    @Test
+    public void parse_withKeyCache_sharesKeyInstances() {
+        final JsonArray records = new DjsParser("[{id:1},{'id':2}]")
+            .setKeyCache(new KeyCache()).parse().asArray();
+        assertSame(records.get(0).asObject().keys().get(0),
+            records.get(1).asObject().keys().get(0));
+    }
+
+    @Test
+    public void reset_parsesNewInput() {
+        final DjsParser parser = new DjsParser("a:1,b:2");
+        parser.parse();
+        parser.reset("[1,2,3]");
+        assertTrue(new JsonArray().add(1).add(2).add(3).matches(parser.parse()));
+    }
+
+    @Test
+    public void reset_afterSyntaxError_parsesNewInput() {
+        final DjsParser parser = new DjsParser("{a:[1,{b:");
+        assertThrows(SyntaxException.class, parser::parse);
+        parser.reset("k:'v'");
+        assertTrue(new JsonObject().add("k", "v").matches(parser.parse()));
+    }
+
+    @Test
+    public void reset_preservesCommentsInNewInput() {
+        final DjsParser parser = new DjsParser("# first\nk:'v'");
+        parser.parse();
+        parser.reset("# second\nk:'v'");
+        assertEquals("second",
+            parser.parse().asObject().get(0).getComment(CommentType.HEADER));
+    }
+
+    @Test
+    public void parse_ignoringComments_createsNoCommentData() {
+        final JsonObject object = new DjsParser(
+            "# header\na: 1 // eol\n/* block */\nb: [ 2 # interior\n ]\n# footer", true)
+            .parse().asObject();
+        assertFalse(object.hasComments());
+        assertFalse(object.get("a").hasComments());
+        assertFalse(object.get("b").hasComments());
+        assertTrue(new JsonObject().add("a", 1).add("b", new JsonArray().add(2)).matches(object));
+    }
+
+    @Test
+    public void parse_ignoringComments_preservesLineCounts() {
+        final String commented = "# header\n\na: 1 # eol\n// above\nb: 2\n\n/*\n * block\n */\nc: 3";
+        final String stripped = "\na: 1\nb: 2\n\nc: 3";
+        final JsonObject expected = this.parse(stripped).asObject();
+        final JsonObject actual = new DjsParser(commented, true).parse().asObject();
+        assertEquals(expected.getLinesAbove(), actual.getLinesAbove());
+        for (final String key : expected.keys()) {
+            assertEquals(expected.get(key).getLinesAbove(), actual.get(key).getLinesAbove(), key);
+        }
+    }
+
+    @Test
+    public void parse_whenContextIgnoresComments_skipsComments() {
+        JsonContext.setIgnoreComments(true);
+        try {
+            assertFalse(this.parse("# header\nk: 'v'").asObject().get(0).hasComments());
+        } finally {
+            JsonContext.setIgnoreComments(false);
+        }
+    }
+
+    @Test
+    public void parseUnformatted_discardsComments() {
+        final JsonValue parsed = new DjsParser("# header\na: 1 // eol\nb: [ 2 ] /* block */").parseUnformatted();
+        assertEquals(new JsonObject().add("a", 1).add("b", new JsonArray().add(2)), parsed);
+    }
+
     @Override
     protected JsonValue parse(final String json) {
         return new DjsParser(json).parse();
     }
+
+    @Override
+    protected JsonValue parseUnformatted(final String json) {
+        return new DjsParser(json).parseUnformatted();
+    }
+
+    @Override
+    protected JsonValue parse(final String json, final PathSelection paths) {
+        return new DjsParser(json).parse(paths);
+    }
+
+    @Override
+    protected JsonValue parse(final PositionTrackingReader reader) throws IOException {
+        try (final DjsParser parser = new DjsParser(reader)) {
+            return parser.parse();
+        }
+    }
 }
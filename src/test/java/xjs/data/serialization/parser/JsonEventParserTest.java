@@ -0,0 +1,211 @@
+package xjs.data.serialization.parser;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.Json;
+import xjs.data.JsonArray;
+import xjs.data.JsonObject;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class JsonEventParserTest {
+
+    @Test
+    public void next_emitsEventsInOrder() throws IOException {
+        final List<JsonEvent> expected = List.of(
+            JsonEvent.START_OBJECT,
+            JsonEvent.KEY, JsonEvent.START_ARRAY,
+            JsonEvent.VALUE_NUMBER, JsonEvent.VALUE_STRING, JsonEvent.VALUE_TRUE,
+            JsonEvent.VALUE_FALSE, JsonEvent.VALUE_NULL, JsonEvent.END_ARRAY,
+            JsonEvent.KEY, JsonEvent.START_OBJECT, JsonEvent.END_OBJECT,
+            JsonEvent.END_OBJECT);
+        assertEquals(expected,
+            readAll(new JsonEventParser("{\"a\":[1,\"s\",true,false,null],\"b\":{}}")));
+    }
+
+    @Test
+    public void next_returnsNull_atEndOfInput() throws IOException {
+        final JsonEventParser parser = new JsonEventParser(" 1 ");
+        assertEquals(JsonEvent.VALUE_NUMBER, parser.next());
+        assertNull(parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void getString_returnsKeysAndStrings() throws IOException {
+        final JsonEventParser parser = new JsonEventParser("{\"key\":\"value\"}");
+        parser.next();
+        parser.next();
+        assertEquals("key", parser.getString());
+        parser.next();
+        assertEquals("value", parser.getString());
+    }
+
+    @Test
+    public void new_withMissingFile_throwsException() {
+        final File missing = new File("missing.json");
+        assertThrows(FileNotFoundException.class, () -> new JsonEventParser(missing));
+        assertThrows(FileNotFoundException.class, () -> new JsonEventParser(missing, 64));
+    }
+
+    @Test
+    public void new_withInvalidBufferSize_throwsException() throws IOException {
+        final Path tmp = Files.createTempFile("xjs", ".json");
+        try {
+            Files.writeString(tmp, "[1, 2]");
+            assertThrows(RuntimeException.class, () -> new JsonEventParser(tmp.toFile(), -1));
+            assertThrows(RuntimeException.class, () -> new DjsEventParser(tmp.toFile(), -1));
+        } finally {
+            Files.delete(tmp);
+        }
+    }
+
+    @Test
+    public void getLong_readsIntegersExactly() throws IOException {
+        final JsonEventParser parser = new JsonEventParser("[123456789012345678,-42]");
+        parser.next();
+        parser.next();
+        assertTrue(parser.isIntegral());
+        assertEquals(123456789012345678L, parser.getLong());
+        parser.next();
+        assertEquals(-42, parser.getInt());
+    }
+
+    @Test
+    public void getDouble_readsDecimals() throws IOException {
+        final JsonEventParser parser = new JsonEventParser("[1.5e3,-0]");
+        parser.next();
+        parser.next();
+        assertFalse(parser.isIntegral());
+        assertEquals(1500.0, parser.getDouble());
+        parser.next();
+        assertEquals(-0.0, parser.getDouble());
+    }
+
+    @Test
+    public void getString_onNumber_throwsException() throws IOException {
+        final JsonEventParser parser = new JsonEventParser("1");
+        parser.next();
+        assertThrows(UnsupportedOperationException.class, parser::getString);
+    }
+
+    @Test
+    public void skipChildren_fastForwardsToEndOfContainer() throws IOException {
+        final JsonEventParser parser =
+            new JsonEventParser("{\"a\":{\"b\":[1,\"}]\",{}]},\"c\":2}");
+        parser.next();
+        parser.next();
+        assertEquals(JsonEvent.START_OBJECT, parser.next());
+        parser.skipChildren();
+        assertEquals(JsonEvent.END_OBJECT, parser.getEvent());
+        assertEquals(1, parser.getDepth());
+        assertEquals(JsonEvent.KEY, parser.next());
+        assertEquals("c", parser.getString());
+        assertEquals(JsonEvent.VALUE_NUMBER, parser.next());
+        assertEquals(2, parser.getInt());
+        assertEquals(JsonEvent.END_OBJECT, parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void getDepth_tracksOpenContainers() throws IOException {
+        final JsonEventParser parser = new JsonEventParser("[[1]]");
+        parser.next();
+        assertEquals(1, parser.getDepth());
+        parser.next();
+        assertEquals(2, parser.getDepth());
+        parser.next();
+        parser.next();
+        assertEquals(1, parser.getDepth());
+    }
+
+    @Test
+    public void next_matchesTreeParser() throws IOException {
+        final String json = """
+            {
+              "a": [1, 2.5, -3e2, "\\u00e9\\n", true, false, null],
+              "b": { "c": {}, "d": [] },
+              "e": ""
+            }
+            """;
+        assertTrue(new JsonParser(json).parse().matches(build(new JsonEventParser(json))));
+    }
+
+    @Test
+    public void next_doesNotTolerate_trailingCommas() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new JsonEventParser("[1,2,]")));
+    }
+
+    @Test
+    public void next_doesNotTolerate_unbalancedContainers() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new JsonEventParser("{\"a\":[1}")));
+    }
+
+    @Test
+    public void next_doesNotTolerate_trailingText() {
+        assertThrows(SyntaxException.class,
+            () -> readAll(new JsonEventParser("{} {}")));
+    }
+
+    static List<JsonEvent> readAll(final JsonEventParser parser) throws IOException {
+        final List<JsonEvent> events = new ArrayList<>();
+        JsonEvent event;
+        while ((event = parser.next()) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    static JsonValue build(final JsonEventParser parser) throws IOException {
+        final JsonValue value = buildValue(parser, parser.next());
+        assertNull(parser.next());
+        return value;
+    }
+
+    private static JsonValue buildValue(
+            final JsonEventParser parser, final JsonEvent event) throws IOException {
+        switch (event) {
+            case START_OBJECT:
+                final JsonObject object = new JsonObject();
+                while (parser.next() == JsonEvent.KEY) {
+                    final String key = parser.getString();
+                    object.add(key, buildValue(parser, parser.next()));
+                }
+                return object;
+            case START_ARRAY:
+                final JsonArray array = new JsonArray();
+                JsonEvent next;
+                while (!(next = parser.next()).isEnd()) {
+                    array.add(buildValue(parser, next));
+                }
+                return array;
+            case VALUE_STRING:
+                return Json.value(parser.getString());
+            case VALUE_NUMBER:
+                return Json.value(parser.getDouble());
+            case VALUE_TRUE:
+                return Json.value(true);
+            case VALUE_FALSE:
+                return Json.value(false);
+            case VALUE_NULL:
+                return Json.value((String) null);
+            default:
+                throw new AssertionError("unexpected event: " + event);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package xjs.data.serialization.parser;
 
 import org.junit.jupiter.api.Test;
+import xjs.data.JsonArray;
+import xjs.data.JsonNumberArray;
+import xjs.data.JsonObject;
 import xjs.data.JsonValue;
 import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.KeyCache;
+import xjs.data.serialization.util.PositionTrackingReader;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class JsonParserTest extends CommonParserTest {
 
@@ -34,8 +46,138 @@ public final class JsonParserTest extends CommonParserTest {
             () -> this.parse("{hello:\"world\"}"));
     }
 
+    @Test
+    public void parseLazy_matchesEagerParse() throws IOException {
+        final String json = "{\n  \"a\": [1, {\"b\": \"]}\"}, []],\n\n  \"c\": {\"d\": null}\n}";
+        assertEquals(new JsonParser(json).parse(), new JsonParser(json).parseLazy());
+    }
+
+    @Test
+    public void parseLazy_defersNestedContainers() throws IOException {
+        final JsonObject parsed = new JsonParser("{\"a\":{\"b\":1},\"c\":[2]}").parseLazy().asObject();
+        assertEquals(List.of("a", "c"), parsed.keys());
+        assertEquals(1, parsed.get("a").asObject().get("b").asInt());
+        assertEquals(1, parsed.get("c").asArray().size());
+    }
+
+    @Test
+    public void parseLazy_toleratesMutation() throws IOException {
+        final JsonObject parsed = new JsonParser("{\"a\":1,\"b\":2}").parseLazy().asObject();
+        parsed.remove("a").add("c", 3);
+        assertEquals(new JsonObject().add("b", 2).add("c", 3), parsed.unformatted());
+    }
+
+    @Test
+    public void parseLazy_fromStream_matchesEagerParse() throws IOException {
+        final String json = "[1,[2,[3]],{\"a\":\"\u00e9\"}]";
+        final PositionTrackingReader reader = PositionTrackingReader.fromIs(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(new JsonParser(json).parse(), new JsonParser(reader).parseLazy());
+    }
+
+    @Test
+    public void parseLazy_reportsErrors_whenContainerIsLoaded() throws IOException {
+        final JsonObject parsed = new JsonParser("{\"a\":{\"b\":tru},\"c\":1}").parseLazy().asObject();
+        assertEquals(1, parsed.get("c").asInt());
+        final JsonObject a = parsed.get("a").asObject();
+        assertThrows(SyntaxException.class, a::size);
+    }
+
+    @Test
+    public void parseLazy_doesNotTolerate_unbalancedContainers() {
+        assertThrows(SyntaxException.class,
+            () -> new JsonParser("{\"a\":[1}").parseLazy());
+    }
+
+    @Test
+    public void parse_withKeyCache_sharesKeyInstances() throws IOException {
+        final KeyCache keys = new KeyCache();
+        final JsonArray records = new JsonParser("[{\"id\":1},{\"id\":2}]")
+            .setKeyCache(keys).parse().asArray();
+        assertSame(records.get(0).asObject().keys().get(0),
+            records.get(1).asObject().keys().get(0));
+    }
+
+    @Test
+    public void parse_withKeyCache_unescapesKeys() throws IOException {
+        final JsonValue parsed = new JsonParser("{\"a\\tb\":1,\"c\":2}")
+            .setKeyCache(new KeyCache()).parse();
+        assertEquals(List.of("a\tb", "c"), parsed.asObject().keys());
+    }
+
+    @Test
+    public void parse_numericArray_storesPrimitives() throws IOException {
+        final JsonValue parsed = new JsonParser("[1, 2.5, -3]").parse();
+        assertTrue(parsed instanceof JsonNumberArray);
+        assertFalse(((JsonNumberArray) parsed).isBoxed(0));
+        assertTrue(new JsonArray().add(1).add(2.5).add(-3).matches(parsed));
+    }
+
+    @Test
+    public void parse_mixedArray_isRegularArray() throws IOException {
+        final JsonValue parsed = new JsonParser("[1, 2, \"3\"]").parse();
+        assertFalse(parsed instanceof JsonNumberArray);
+        assertTrue(new JsonArray().add(1).add(2).add("3").matches(parsed));
+    }
+
+    @Test
+    public void parse_withoutNumberArrays_isRegularArray() throws IOException {
+        final JsonValue parsed = new JsonParser("[1, 2]").setNumberArrays(false).parse();
+        assertFalse(parsed instanceof JsonNumberArray);
+    }
+
+    @Test
+    public void parseUnformatted_numericArray_storesPrimitives() throws IOException {
+        final JsonValue parsed = new JsonParser("[[1,2],[3.5]]").parseUnformatted();
+        final JsonValue inner = parsed.asArray().getReference(1).getOnly();
+        assertTrue(inner instanceof JsonNumberArray);
+        assertEquals(3.5, ((JsonNumberArray) inner).getDouble(0));
+    }
+
+    @Test
+    public void reset_parsesNewInput() throws IOException {
+        final JsonParser parser = new JsonParser("[1,2]");
+        parser.parse();
+        parser.reset("{\"a\":true}");
+        assertTrue(new JsonObject().add("a", true).matches(parser.parse()));
+    }
+
+    @Test
+    public void reset_afterSyntaxError_parsesNewInput() throws IOException {
+        final JsonParser parser = new JsonParser("[1,");
+        assertThrows(SyntaxException.class, parser::parse);
+        parser.reset("[3]");
+        assertTrue(new JsonArray().add(3).matches(parser.parse()));
+    }
+
+    @Test
+    public void reset_restartsPositionTracking() throws IOException {
+        final JsonParser parser = new JsonParser("\n\n[]");
+        parser.parse();
+        parser.reset("[1,]");
+        final SyntaxException e = assertThrows(SyntaxException.class, parser::parse);
+        assertEquals(0, e.getLine());
+    }
+
     @Override
     protected JsonValue parse(final String json) throws IOException {
         return new JsonParser(json).parse();
     }
+
+    @Override
+    protected JsonValue parseUnformatted(final String json) throws IOException {
+        return new JsonParser(json).parseUnformatted();
+    }
+
+    @Override
+    protected JsonValue parse(final String json, final PathSelection paths) throws IOException {
+        return new JsonParser(json).parse(paths);
+    }
+
+    @Override
+    protected JsonValue parse(final PositionTrackingReader reader) throws IOException {
+        try (final JsonParser parser = new JsonParser(reader)) {
+            return parser.parse();
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package xjs.data.serialization.parser;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.JsonArray;
+import xjs.data.JsonObject;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NdJsonParserTest {
+
+    @Test
+    public void next_readsConsecutiveRecords() throws IOException {
+        final NdJsonParser parser = new NdJsonParser("{\"a\":1}\n[2]\n\"3\"\n");
+        assertEquals(new JsonObject().add("a", 1), parser.next().unformatted());
+        assertEquals(new JsonArray().add(2), parser.next().unformatted());
+        assertEquals("3", parser.next().asString());
+        assertNull(parser.next());
+        assertEquals(3, parser.getRecord());
+    }
+
+    @Test
+    public void next_ignoresBlankLines() throws IOException {
+        final NdJsonParser parser = new NdJsonParser("\n1\r\n\n  \n2");
+        assertEquals(1, parser.next().asInt());
+        assertEquals(2, parser.next().asInt());
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void parse_readsAllRecordsIntoArray() throws IOException {
+        assertEquals(new JsonArray().add(1).add(true).add(new JsonObject()),
+            new NdJsonParser("1\ntrue\n{}").parse().unformatted());
+    }
+
+    @Test
+    public void stream_yieldsEachRecord() {
+        final List<Integer> values = new NdJsonParser("1\n2\n3\n").stream()
+            .map(JsonValue::asInt)
+            .collect(Collectors.toList());
+        assertEquals(List.of(1, 2, 3), values);
+    }
+
+    @Test
+    public void parse_withPaths_projectsEachRecord() throws IOException {
+        final JsonValue parsed = new NdJsonParser("{\"a\":1,\"b\":2}\n{\"a\":3,\"c\":[4]}")
+            .parse(PathSelection.of("a"));
+        assertEquals(new JsonArray().add(new JsonObject().add("a", 1)).add(new JsonObject().add("a", 3)),
+            parsed.unformatted());
+    }
+
+    @Test
+    public void next_reportsRecordAndOffset_inSyntaxException() throws IOException {
+        final NdJsonParser parser = new NdJsonParser("{\"a\":1}\n{\"a\":}\n");
+        parser.next();
+        final SyntaxException e = assertThrows(SyntaxException.class, parser::next);
+        assertEquals(2, e.getRecord());
+        assertEquals(8, e.getOffset());
+        assertEquals(1, e.getLine());
+    }
+
+    @Test
+    public void next_doesNotTolerate_multipleValuesPerLine() {
+        final NdJsonParser parser = new NdJsonParser("1 2\n");
+        assertThrows(SyntaxException.class, parser::next);
+    }
+}
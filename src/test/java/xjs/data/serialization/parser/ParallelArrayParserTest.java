@@ -0,0 +1,103 @@
+package xjs.data.serialization.parser;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.JsonFormat;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ParallelArrayParserTest {
+
+    @Test
+    public void parse_preservesOrderAndFormatting() throws IOException {
+        final String json = "[\n  {\"a\": [1, {\"b\": \"],\\\"\"}]},\n\n  2\n  , 3,\n  \"x\"\n\n]";
+        final JsonValue expected = new JsonParser(json).parse();
+        final JsonValue actual = new ParallelArrayParser(json).setChunkSize(1).parse();
+        assertEquals(expected, actual);
+        assertEquals(expected.toString(JsonFormat.JSON_FORMATTED), actual.toString(JsonFormat.JSON_FORMATTED));
+    }
+
+    @Test
+    public void parse_preservesRootWhitespace() throws IOException {
+        final String json = "\n\n[1,\n2\n\n]\n";
+        final JsonValue expected = new JsonParser(json).parse();
+        final JsonValue actual = new ParallelArrayParser(json).setChunkSize(1).parse();
+        assertEquals(2, actual.getLinesAbove());
+        assertEquals(expected.getLinesAbove(), actual.getLinesAbove());
+        assertEquals(expected.asArray().getLinesTrailing(), actual.asArray().getLinesTrailing());
+    }
+
+    @Test
+    public void parse_onCustomExecutor_matchesSequentialParser() throws IOException {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1_000; i++) {
+            sb.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"]}");
+        }
+        final String json = sb.append("]").toString();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(new JsonParser(json).parse(),
+                new ParallelArrayParser(json).setExecutor(executor).setChunkSize(100).parse());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parse_whenRootIsNotArray_parsesSequentially() throws IOException {
+        final String json = "{\"a\":[1,2,3]}";
+        assertEquals(new JsonParser(json).parse(), new ParallelArrayParser(json).setChunkSize(1).parse());
+    }
+
+    @Test
+    public void parse_reportsGlobalPosition_inSyntaxException() {
+        final String json = "[1,\n2,\n{\"a\" 1}]";
+        final SyntaxException expected =
+            assertThrows(SyntaxException.class, () -> new JsonParser(json).parse());
+        final SyntaxException actual =
+            assertThrows(SyntaxException.class, () -> new ParallelArrayParser(json).setChunkSize(1).parse());
+        assertEquals(expected.getMessage(), actual.getMessage());
+        assertEquals(2, actual.getLine());
+    }
+
+    @Test
+    public void parse_doesNotTolerate_trailingComma() {
+        assertThrows(SyntaxException.class, () -> new ParallelArrayParser("[1,\n2,]").setChunkSize(1).parse());
+    }
+
+    @Test
+    public void parse_withDjs_preservesComments() throws IOException {
+        final String djs = "[\n  # header\n  { a: 1, b: 'x' },\n\n  '''\n  multi\n  ''',\n"
+            + "  // c\n  [1, 2] # eol\n  3,\n  \"s,]\",\n  4\n]\n";
+        final JsonValue expected = new DjsParser(djs).parse();
+        final JsonValue actual = new ParallelArrayParser(djs).setDjs(true).setChunkSize(1).parse();
+        assertEquals(expected, actual);
+        assertEquals(expected.toString(JsonFormat.DJS_FORMATTED), actual.toString(JsonFormat.DJS_FORMATTED));
+    }
+
+    @Test
+    public void parse_withDjs_preservesRootWhitespace() throws IOException {
+        final String djs = "\n\n[\n  1,\n  2\n  # interior\n]\n\n";
+        final JsonValue expected = new DjsParser(djs).parse();
+        final JsonValue actual = new ParallelArrayParser(djs).setDjs(true).setChunkSize(1).parse();
+        assertEquals(expected.getLinesAbove(), actual.getLinesAbove());
+        assertEquals(expected.getComments(), actual.getComments());
+        assertEquals(expected.toString(JsonFormat.DJS_FORMATTED), actual.toString(JsonFormat.DJS_FORMATTED));
+    }
+
+    @Test
+    public void parse_withDjs_reportsGlobalPosition_inSyntaxException() {
+        final String djs = "[1,\n2,\n3 4]";
+        final SyntaxException expected =
+            assertThrows(SyntaxException.class, () -> new DjsParser(djs).parse());
+        final SyntaxException actual = assertThrows(SyntaxException.class,
+            () -> new ParallelArrayParser(djs).setDjs(true).setChunkSize(1).parse());
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+}
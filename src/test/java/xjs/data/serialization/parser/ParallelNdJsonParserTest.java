@@ -0,0 +1,153 @@
+package xjs.data.serialization.parser;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.JsonValue;
+import xjs.data.exception.SyntaxException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public final class ParallelNdJsonParserTest {
+
+    @Test
+    public void stream_whenOrdered_matchesSequentialParser() {
+        final String text = records(500);
+        final List<JsonValue> expected = new NdJsonParser(text).stream()
+            .map(JsonValue::unformatted)
+            .collect(Collectors.toList());
+        final List<JsonValue> actual = new ParallelNdJsonParser(text)
+            .setChunkSize(64)
+            .stream()
+            .map(JsonValue::unformatted)
+            .collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void forEach_whenUnordered_deliversEveryRecord() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Integer> ids = new ArrayList<>();
+            new ParallelNdJsonParser(records(500))
+                .setExecutor(executor)
+                .setChunkSize(64)
+                .setMaxPendingChunks(3)
+                .setOrdered(false)
+                .forEach(v -> ids.add(v.asObject().get("id").asInt()));
+            ids.sort(null);
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, ids);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void stream_readsUtf8Buffer() {
+        final String text = "\"\u00e9\"\n\"\ud83d\ude00\"\n\"a\"\n";
+        final List<String> values = new ParallelNdJsonParser(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)))
+            .setChunkSize(1)
+            .stream()
+            .map(JsonValue::asString)
+            .collect(Collectors.toList());
+        assertEquals(List.of("\u00e9", "\ud83d\ude00", "a"), values);
+    }
+
+    @Test
+    public void stream_readsMappedFile() throws IOException {
+        final Path tmp = Files.createTempFile("xjs", ".ndjson");
+        try {
+            Files.writeString(tmp, records(100));
+            final long count = new ParallelNdJsonParser(tmp).setChunkSize(128).stream().count();
+            assertEquals(100, count);
+        } finally {
+            Files.delete(tmp);
+        }
+    }
+
+    @Test
+    public void iterator_reportsGlobalPosition_inSyntaxException() {
+        final String text = "1\n2\n\n3\n4\n{\"a\":}\n5\n";
+        final ParallelNdJsonParser parser = new ParallelNdJsonParser(text).setChunkSize(4);
+        final SyntaxException e = assertThrows(SyntaxException.class, () -> parser.forEach(v -> {}));
+        assertEquals(5, e.getLine());
+        assertEquals(5, e.getRecord());
+        assertEquals(text.indexOf('{'), e.getOffset());
+    }
+
+    @Test
+    public void iterator_reportsGlobalOffset_inUtf8Buffer() {
+        final String text = "\"\ud83d\ude00\u00e9\"\n{\"a\":}\n";
+        final ParallelNdJsonParser parser =
+            new ParallelNdJsonParser(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))).setChunkSize(1);
+        final SyntaxException e = assertThrows(SyntaxException.class, () -> parser.forEach(v -> {}));
+        assertEquals(1, e.getLine());
+        assertEquals(2, e.getRecord());
+        assertEquals(text.indexOf('{'), e.getOffset());
+    }
+
+    @Test
+    public void forEach_whenUnordered_propagatesError() {
+        final String text = "1\n" + "[".repeat(200_000) + "\n2\n";
+        final ParallelNdJsonParser parser = new ParallelNdJsonParser(text).setChunkSize(1).setOrdered(false);
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+            assertThrows(StackOverflowError.class, () -> parser.forEach(v -> {})));
+    }
+
+    @Test
+    public void forEach_whenOrdered_propagatesError() {
+        final String text = "1\n" + "[".repeat(200_000) + "\n2\n";
+        final ParallelNdJsonParser parser = new ParallelNdJsonParser(text).setChunkSize(1);
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () ->
+            assertThrows(StackOverflowError.class, () -> parser.forEach(v -> {})));
+    }
+
+    @Test
+    public void iterator_afterRejectedChunk_resumesParsing() {
+        final AtomicInteger submitted = new AtomicInteger();
+        final Executor executor = task -> {
+            if (submitted.incrementAndGet() == 2) {
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        };
+        final Iterator<JsonValue> iterator = new ParallelNdJsonParser(records(10))
+            .setExecutor(executor)
+            .setChunkSize(1)
+            .setMaxPendingChunks(1)
+            .iterator();
+        assertThrows(RejectedExecutionException.class, iterator::hasNext);
+        final List<Integer> ids = new ArrayList<>();
+        iterator.forEachRemaining(v -> ids.add(v.asObject().get("id").asInt()));
+        assertEquals(10, ids.size());
+        assertEquals(9, (int) ids.get(9));
+    }
+
+    private static String records(final int count) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("{\"id\":").append(i).append(",\"tags\":[\"a\",\"b\"],\"ok\":true}\n");
+        }
+        return sb.toString();
+    }
+}
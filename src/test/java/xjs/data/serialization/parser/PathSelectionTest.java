@@ -0,0 +1,39 @@
+package xjs.data.serialization.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class PathSelectionTest {
+
+    @Test
+    public void of_compilesDottedKeysAndIndices() {
+        final PathSelection.Node root = PathSelection.of("a.b[2].c").getRoot();
+        final PathSelection.Node c =
+            root.getMember("a").getMember("b").getElement(2).getMember("c");
+        assertNotNull(c);
+        assertTrue(c.isSelected());
+        assertNull(root.getMember("b"));
+    }
+
+    @Test
+    public void of_mergesWildcardsIntoExactMatches() {
+        final PathSelection.Node root = PathSelection.of("[*].a", "[0].b").getRoot();
+        assertTrue(root.getElement(0).getMember("a").isSelected());
+        assertTrue(root.getElement(0).getMember("b").isSelected());
+        assertTrue(root.getElement(1).getMember("a").isSelected());
+        assertNull(root.getElement(1).getMember("b"));
+    }
+
+    @Test
+    public void of_doesNotTolerate_malformedPaths() {
+        assertThrows(IllegalArgumentException.class, () -> PathSelection.of(""));
+        assertThrows(IllegalArgumentException.class, () -> PathSelection.of("a."));
+        assertThrows(IllegalArgumentException.class, () -> PathSelection.of("a..b"));
+        assertThrows(IllegalArgumentException.class, () -> PathSelection.of("a[x]"));
+        assertThrows(IllegalArgumentException.class, () -> PathSelection.of("a[1"));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import xjs.data.comments.CommentStyle;
 import xjs.data.StringType;
 import xjs.data.exception.SyntaxException;
+import xjs.data.serialization.util.PositionTrackingReader;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -287,6 +288,22 @@ public final class DjsTokenizerTest {
         assertEquals(1, stream.source.size());
     }
     
+    @Test
+    public void stream_ignoringComments_skipsEveryComment() {
+        final String reference = "# a\n1 // b\n/* c\n */ 2 /* d */";
+        final TokenStream stream = DjsTokenizer.stream(
+            PositionTrackingReader.fromString(reference), true).preserveOutput().readToEnd();
+        assertEquals(List.of(TokenType.NUMBER, TokenType.BREAK, TokenType.NUMBER),
+            stream.viewTokens().stream().map(Token::type).toList());
+    }
+
+    @Test
+    public void stream_ignoringComments_doesNotTolerate_unclosedBlockComment() {
+        final TokenStream stream =
+            DjsTokenizer.stream(PositionTrackingReader.fromString("1 /* a"), true);
+        assertThrows(SyntaxException.class, stream::readToEnd);
+    }
+
     private static Token single(final String reference) {
         try {
             return new DjsTokenizer(reference, false).next();
@@ -0,0 +1,63 @@
+package xjs.data.serialization.util;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class DoubleFormatterTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 0", "-0.0, 0", "1234, 1234", "-1.5, -1.5", "0.1, 0.1", "0.001, 0.001",
+        "0.0001, 0.00010", "0.0000015, 0.0000015", "1e-7, 1.0e-7", "1.25e-10, 1.25e-10",
+        "10000000.5, 10000000.5", "1e20, 1.0e20", "9.3e18, 9.3e18", "1e23, 1.0e23",
+        "4.9e-324, 4.9e-324", "1.7976931348623157e308, 1.7976931348623157e308",
+        "9223372036854775807, 9223372036854775807", "-9223372036854775808, -9223372036854775808"})
+    public void format_followsWriterConventions(final double value, final String expected) {
+        assertEquals(expected, DoubleFormatter.toString(value));
+    }
+
+    @RepeatedTest(100)
+    public void format_roundTrips_withShortestDigits() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100; i++) {
+            final double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                final String s = DoubleFormatter.toString(d);
+                assertEquals(d, Double.parseDouble(s), s);
+                if ((long) d != d) {
+                    assertTrue(countDigits(s) <= countDigits(Double.toString(d)), s);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void format_writesLongs() {
+        final char[] buf = new char[DoubleFormatter.MAX_CHARS];
+        assertEquals("-9223372036854775808",
+            new String(buf, 0, DoubleFormatter.format(Long.MIN_VALUE, buf, 0)));
+        assertEquals("0", new String(buf, 0, DoubleFormatter.format(0L, buf, 0)));
+    }
+
+    @Test
+    public void format_rejectsInfiniteAndNaN() {
+        assertThrows(NumberFormatException.class, () -> DoubleFormatter.toString(Double.NaN));
+        assertThrows(NumberFormatException.class,
+            () -> DoubleFormatter.toString(Double.POSITIVE_INFINITY));
+    }
+
+    private static int countDigits(final String s) {
+        final int e = s.toLowerCase().indexOf('e');
+        final String digits = (e < 0 ? s : s.substring(0, e)).replaceAll("[^0-9]", "")
+            .replaceAll("^0+", "").replaceAll("0+$", "");
+        return Math.max(1, digits.length());
+    }
+}
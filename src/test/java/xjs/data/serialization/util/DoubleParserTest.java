@@ -0,0 +1,55 @@
+package xjs.data.serialization.util;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DoubleParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0", "-0", "0.0", "1e-400", "1e400", "4.9e-324", "2.4703282292062327e-324",
+        "2.4703282292062328e-324", "2.2250738585072011e-308", "1.7976931348623157e308",
+        "1.7976931348623159e308", "9007199254740993", "9999999999999999999", "1e23",
+        "0.000000000000000000000000000000000001", "123456789012345678901234567890"})
+    public void parseDouble_matchesParseDouble_atEdgeCases(final String s) {
+        assertBitsEqual(s);
+    }
+
+    @RepeatedTest(100)
+    public void parseDouble_matchesParseDouble_forRandomBits() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100; i++) {
+            final double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                assertBitsEqual(Double.toString(d));
+                assertBitsEqual(new BigDecimal(d).toString());
+            }
+        }
+    }
+
+    @Test
+    public void parseDouble_rejectsInvalidNumbers() {
+        assertThrows(NumberFormatException.class, () -> DoubleParser.parseDouble("1e"));
+        assertThrows(NumberFormatException.class, () -> DoubleParser.parseDouble("-"));
+        assertThrows(NumberFormatException.class, () -> DoubleParser.parseDouble("1.2.3"));
+    }
+
+    @Test
+    public void toDouble_scalesSignificand() {
+        assertEquals(12.5, DoubleParser.toDouble(125, -1, false));
+        assertEquals(-3e100, DoubleParser.toDouble(3, 100, true));
+    }
+
+    private static void assertBitsEqual(final String s) {
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(s)),
+            Double.doubleToRawLongBits(DoubleParser.parseDouble(s)), s);
+    }
+}
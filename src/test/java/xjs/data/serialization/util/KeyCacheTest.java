@@ -0,0 +1,75 @@
+package xjs.data.serialization.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class KeyCacheTest {
+
+    @Test
+    public void get_fromString_returnsSameInstance() {
+        final KeyCache keys = new KeyCache();
+        final String source = "\"id\":1,\"id\":2";
+        final String first = keys.get(source, 1, 3);
+
+        assertEquals("id", first);
+        assertSame(first, keys.get(source, 8, 10));
+    }
+
+    @Test
+    public void get_fromBuffer_returnsSameInstance() {
+        final KeyCache keys = new KeyCache();
+        final char[] source = "name,name".toCharArray();
+        final String first = keys.get(source, 0, 4);
+
+        assertEquals("name", first);
+        assertSame(first, keys.get(source, 5, 9));
+        assertSame(first, keys.get("name", 0, 4));
+    }
+
+    @Test
+    public void get_fromAllocatedKey_returnsCanonicalInstance() {
+        final KeyCache keys = new KeyCache();
+        final String first = keys.get(new String("key"));
+
+        assertSame(first, keys.get(new String("key")));
+    }
+
+    @Test
+    public void get_withCollisions_returnsEqualKeys() {
+        final KeyCache keys = new KeyCache(1, KeyCache.DEFAULT_MAX_LENGTH);
+        final String source = "abcabc";
+
+        assertEquals("a", keys.get(source, 0, 1));
+        assertEquals("b", keys.get(source, 1, 2));
+        assertEquals("bc", keys.get(source.toCharArray(), 4, 6));
+        assertEquals("a", keys.get(source, 3, 4));
+    }
+
+    @Test
+    public void get_longKeys_areNotCached() {
+        final KeyCache keys = new KeyCache(16, 2);
+        final String source = "abc abc";
+        final String first = keys.get(source, 0, 3);
+
+        assertEquals("abc", first);
+        assertNotSame(first, keys.get(source, 4, 7));
+    }
+
+    @Test
+    public void clear_discardsKeys() {
+        final KeyCache keys = new KeyCache();
+        final String first = keys.get("key key", 0, 3);
+        keys.clear();
+
+        assertNotSame(first, keys.get("key key", 4, 7));
+    }
+
+    @Test
+    public void new_withInvalidCapacity_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyCache(0, 8));
+    }
+}
@@ -18,6 +18,8 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -117,6 +119,16 @@ public final class PositionTrackingReaderTest {
         }
     }
 
+    @Test
+    public void reader_decodesMultiByteSequencesAcrossBuffers() throws IOException {
+        final String text = "a\u00e9\u20ac\uD83D\uDE00".repeat(100);
+        final Sample sample = new Sample(text, MINIMUM_BUFFER);
+        for (final PositionTrackingReader reader : sample.getAllReaders()) {
+            assertEquals(text, parseFullText(reader),
+                reader.getClass().getSimpleName());
+        }
+    }
+
     @Test
     public void readIf_doesNotAdvanceOnMismatch() throws IOException {
         final Sample sample = new Sample("abc", NORMAL_BUFFER);
@@ -289,6 +301,16 @@ public final class PositionTrackingReaderTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"-0", "0.1", "1e23", "4.9e-324", "1.7976931348623159e308", "123456789012345678901234.5e-3"})
+    public void readNumber_matchesParseDouble(final String number) throws IOException {
+        final Sample sample = new Sample(number, MINIMUM_BUFFER);
+        for (final PositionTrackingReader reader : sample.getAllReaders()) {
+            assertEquals(Double.parseDouble(number), reader.readNumber(),
+                reader.getClass().getSimpleName());
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(chars = {'"', '\"'})
     public void readQuoted_readsFullQuote(final char quote) throws IOException {
@@ -311,6 +333,43 @@ public final class PositionTrackingReaderTest {
         }
     }
 
+    @Test
+    public void readQuoted_readsLongRuns_acrossBuffers() throws IOException {
+        final String run = Sample.generateString(MEDIUM_STRING, 0).replace("\"", "");
+        final String text = '"' + run + "\\n" + run + "\\\"\\u00e9" + run + '"';
+        final String expected = run + '\n' + run + "\"\u00e9" + run;
+        for (final int bufferSize : BUFFER_SIZES) {
+            final Sample sample = new Sample(text + " x", bufferSize);
+            for (final PositionTrackingReader reader : sample.getAllReaders()) {
+                assertEquals(expected, reader.readQuoted('"'),
+                    reader.getClass().getSimpleName());
+                assertEquals(' ', reader.current,
+                    reader.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    public void readQuoted_tracksPositionAfterQuote() throws IOException {
+        final Sample sample = new Sample("\"abc\\tdef\" x", MINIMUM_BUFFER);
+        for (final PositionTrackingReader reader : sample.getAllReaders()) {
+            assertEquals("abc\tdef", reader.readQuoted('"'));
+            assertEquals(10, reader.index, reader.getClass().getSimpleName());
+            assertEquals(10, reader.column, reader.getClass().getSimpleName());
+            assertEquals(0, reader.line, reader.getClass().getSimpleName());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"abc", "\"abc\\t", "\"abc\ndef\""})
+    public void readQuoted_rejectsUnterminatedString(final String text) {
+        final Sample sample = new Sample(text, MINIMUM_BUFFER);
+        for (final PositionTrackingReader reader : sample.getAllReaders()) {
+            assertThrows(SyntaxException.class, () -> reader.readQuoted('"'),
+                reader.getClass().getSimpleName());
+        }
+    }
+
     @Test
     public void readBlockComment_readsExpandedBlock() throws IOException {
         final String text = """
@@ -648,7 +707,8 @@ public final class PositionTrackingReaderTest {
         }
 
         List<PositionTrackingReader> getAllReaders() {
-            return List.of(this.getStringReader(), this.getCharBufferedReader(), this.getReaderReader());
+            return List.of(this.getStringReader(), this.getCharBufferedReader(),
+                this.getByteDecodingReader(), this.getReaderReader(), this.getMappedReader());
         }
 
         PositionTrackingReader getStringReader() {
@@ -663,6 +723,14 @@ public final class PositionTrackingReaderTest {
             }
         }
 
+        PositionTrackingReader getByteDecodingReader() {
+            try {
+                return PositionTrackingReader.fromIs(this.getInputStream(), this.bufferSize, true, true);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         InputStream getInputStream() {
             return new ByteArrayInputStream(this.text.getBytes(StandardCharsets.UTF_8));
         }
@@ -678,5 +746,16 @@ public final class PositionTrackingReaderTest {
         Reader getReader() {
             return new StringReader(this.text);
         }
+
+        PositionTrackingReader getMappedReader() {
+            try {
+                final Path tmp = Files.createTempFile("reader", ".djs");
+                tmp.toFile().deleteOnExit();
+                Files.writeString(tmp, this.text);
+                return PositionTrackingReader.fromPath(tmp);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 }
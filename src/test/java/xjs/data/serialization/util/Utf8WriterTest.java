@@ -0,0 +1,77 @@
+package xjs.data.serialization.util;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.Json;
+import xjs.data.JsonFormat;
+import xjs.data.JsonValue;
+import xjs.data.serialization.writer.JsonWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class Utf8WriterTest {
+
+    private static final String SAMPLE = "ascii \u00e9\u00df \u20ac\u4e2d \ud83d\ude00 end";
+
+    @Test
+    public void write_encodesUtf8_likeStandardEncoder() throws IOException {
+        final Utf8Writer.Growable writer = Utf8Writer.growable(4);
+        writer.write(SAMPLE);
+        assertArrayEquals(SAMPLE.getBytes(StandardCharsets.UTF_8), writer.toByteArray());
+    }
+
+    @Test
+    public void write_toStream_withSmallBuffer_encodesEveryCharacter() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (final Utf8Writer writer = Utf8Writer.fromOs(os, 4)) {
+            writer.write(SAMPLE.toCharArray());
+            writer.write('!');
+        }
+        assertEquals(SAMPLE + "!", os.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_toChannel_encodesEveryCharacter() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (final Utf8Writer writer = Utf8Writer.fromChannel(Channels.newChannel(os), 5)) {
+            writer.write(SAMPLE);
+        }
+        assertEquals(SAMPLE, os.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_joinsSurrogatePairs_acrossCalls() throws IOException {
+        final Utf8Writer.Growable writer = Utf8Writer.growable();
+        writer.write('\ud83d');
+        writer.write("\ude00");
+        assertEquals("\ud83d\ude00", new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_replacesUnpairedSurrogates() throws IOException {
+        final Utf8Writer.Growable writer = Utf8Writer.growable();
+        writer.write("a\ude00b\ud83dc");
+        assertEquals("a?b?c", new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void jsonWriter_toStream_matchesToString() throws IOException {
+        final JsonValue value = Json.parse("{\"a\":[1,2.5,\"\u00e9\"],\"b\":{\"c\":null}}");
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new JsonWriter(os, true).write(value);
+        assertEquals(value.toString(JsonFormat.JSON_FORMATTED), os.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void toBytes_matchesEncodedString() {
+        final JsonValue value = Json.parse("{\"key\":\"\u4e2d\u6587\",\"n\":[1,2,3]}");
+        for (final JsonFormat format : JsonFormat.values()) {
+            assertArrayEquals(value.toString(format).getBytes(StandardCharsets.UTF_8), value.toBytes(format));
+        }
+    }
+}
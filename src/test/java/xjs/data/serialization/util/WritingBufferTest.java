@@ -0,0 +1,60 @@
+package xjs.data.serialization.util;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.Json;
+import xjs.data.JsonValue;
+import xjs.data.serialization.writer.JsonWriterOptions;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class WritingBufferTest {
+
+    @Test
+    public void write_withSmallBuffer_preservesOrder() throws IOException {
+        final StringWriter sw = new StringWriter();
+        final WritingBuffer buffer = new WritingBuffer(sw, 4);
+        buffer.write("ab");
+        buffer.write('c');
+        buffer.write("defghij");
+        buffer.write("klm".toCharArray(), 0, 3);
+        buffer.flush();
+        assertEquals("abcdefghijklm", sw.toString());
+    }
+
+    @Test
+    public void pooled_whenInterleaved_doesNotShareArray() throws IOException {
+        final StringWriter sw1 = new StringWriter();
+        final StringWriter sw2 = new StringWriter();
+        final WritingBuffer b1 = WritingBuffer.pooled(sw1, 16);
+        final WritingBuffer b2 = WritingBuffer.pooled(sw2, 16);
+        b1.write("first");
+        b2.write("second");
+        b1.write("!");
+        b1.flush();
+        b2.flush();
+        b1.write("again");
+        b1.flush();
+        assertEquals("first!again", sw1.toString());
+        assertEquals("second", sw2.toString());
+    }
+
+    @Test
+    public void pooled_whenSerializingRepeatedly_producesSameOutput() {
+        final JsonValue value = Json.parse("{\"a\":[1,2,3],\"b\":\"text\"}");
+        final JsonWriterOptions unpooled = new JsonWriterOptions().setPooledBuffer(false).setBufferSize(8);
+        final String expected = value.toString(unpooled);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected, value.toString(new JsonWriterOptions()));
+        }
+    }
+
+    @Test
+    public void new_rejectsEmptyBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> new WritingBuffer(new StringWriter(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new JsonWriterOptions().setBufferSize(0));
+    }
+}
@@ -7,7 +7,9 @@ import xjs.data.comments.CommentStyle;
 import xjs.data.comments.CommentType;
 import xjs.data.Json;
 import xjs.data.JsonArray;
+import xjs.data.JsonColumnArray;
 import xjs.data.JsonCopy;
+import xjs.data.JsonNumberArray;
 import xjs.data.JsonObject;
 import xjs.data.JsonString;
 import xjs.data.JsonValue;
@@ -15,9 +17,13 @@ import xjs.data.StringType;
 import xjs.data.serialization.JsonContext;
 import xjs.data.serialization.parser.DjsParser;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public final class DjsWriterTest {
 
@@ -66,6 +72,11 @@ public final class DjsWriterTest {
         assertEquals("\"test\"", write(new JsonString("test", StringType.DOUBLE)));
     }
 
+    @Test
+    public void write_escapesSingleQuotedString() {
+        assertEquals("'a\\'b\"c\\r'", write(new JsonString("a'b\"c\r", StringType.SINGLE)));
+    }
+
     @Test
     public void write_printsMultiString() {
         assertEquals("'''\nl1\nl2\n'''", write(new JsonString("l1\nl2", StringType.MULTI)));
@@ -483,6 +494,46 @@ public final class DjsWriterTest {
         assertEquals("k: '{quoted}'", write(value, new JsonWriterOptions().setOmitQuotes(true)));
     }
 
+    @Test
+    public void reset_writesIntoNewStream() throws IOException {
+        final DjsWriter writer = new DjsWriter(new StringWriter(), false);
+        writer.write(new JsonObject().add("a", 1).add("b", 2));
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        writer.reset(os);
+        writer.write(new JsonArray().add("\u00e9"));
+
+        assertEquals("['\u00e9']", os.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void write_numberArray_matchesRegularArray() {
+        final JsonNumberArray numbers = new JsonNumberArray(new double[] { 1.5, 2 });
+        final JsonArray regular = new JsonArray().add(1.5).add(2.0);
+        assertEquals(write(regular), write(numbers));
+        assertEquals(write(regular.condense()), write(numbers.condense()));
+    }
+
+    @Test
+    public void write_columnArray_matchesRegularArray() {
+        final JsonArray regular = new JsonArray()
+            .add(new JsonObject().add("a", 1.5).add("b c", "d"))
+            .add(new JsonObject().add("a", 2).add("b c", "e\nf"));
+        final JsonColumnArray columns = JsonColumnArray.from(regular);
+        assertEquals(write(regular), write(columns));
+        assertEquals(write(regular, null), write(columns, null));
+        assertFalse(columns.isBoxed(0));
+    }
+
+    @Test
+    public void write_columnArray_inObject_indentsMultiString() {
+        final JsonArray regular = new JsonArray()
+            .add(new JsonObject().add("a", new JsonString("l1\nl2", StringType.MULTI)));
+        final JsonObject expected = new JsonObject().add("k", regular);
+        final JsonObject actual = new JsonObject().add("k", JsonColumnArray.from(regular));
+        assertEquals(write(expected), write(actual));
+    }
+
     private static String write(final JsonValue value) {
         return write(value, new JsonWriterOptions());
     }
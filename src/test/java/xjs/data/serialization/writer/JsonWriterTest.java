@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import xjs.data.Json;
 import xjs.data.JsonArray;
+import xjs.data.JsonColumnArray;
+import xjs.data.JsonNumberArray;
 import xjs.data.JsonObject;
 import xjs.data.JsonValue;
 import xjs.data.serialization.JsonContext;
@@ -14,6 +16,7 @@ import java.io.IOException;
 import java.io.StringWriter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public final class JsonWriterTest {
 
@@ -57,6 +60,11 @@ public final class JsonWriterTest {
         assertEquals("\"test\"", write(Json.value("test")));
     }
 
+    @Test
+    public void write_escapesQuotedString() {
+        assertEquals("\"a\\\"b\\\\c\\n\\td'e\"", write(Json.value("a\"b\\c\n\td'e")));
+    }
+
     @Test
     public void write_printsEmptyArray() {
         assertEquals("[]", write(new JsonArray()));
@@ -258,6 +266,54 @@ public final class JsonWriterTest {
         assertEquals(expected, write(value, new JsonWriterOptions().setSmartSpacing(true)));
     }
 
+    @Test
+    public void reset_writesIntoNewDestination() throws IOException {
+        final StringWriter first = new StringWriter();
+        final JsonWriter writer = new JsonWriter(first, false);
+        writer.write(new JsonArray().add(1).add(2));
+
+        final StringWriter second = new StringWriter();
+        writer.reset(second);
+        writer.write(new JsonObject().add("a", true));
+
+        assertEquals("[1,2]", first.toString());
+        assertEquals("{\"a\":true}", second.toString());
+    }
+
+    @Test
+    public void write_numberArray_matchesRegularArray() throws IOException {
+        final String json = "{\n  \"a\": [ 1, 2.5, -3 ],\n  \"b\": [\n    4,\n    5\n  ]\n}";
+        final JsonValue numbers = new JsonParser(json).parse();
+        final JsonValue regular = new JsonParser(json).setNumberArrays(false).parse();
+        assertEquals(write(regular), write(numbers));
+        assertEquals(write(regular, null), write(numbers, null));
+    }
+
+    @Test
+    public void write_numberArray_doesNotBoxNumbers() {
+        final JsonNumberArray array = new JsonNumberArray(new long[] { 1, 2, 3 });
+        assertEquals("[\n  1,\n  2,\n  3\n]", write(array));
+        assertFalse(array.isBoxed(0));
+    }
+
+    @Test
+    public void write_columnArray_matchesRegularArray() throws IOException {
+        final String json = "{\n  \"a\": [\n    {\n      \"b\": 1,\n      \"c\": \"d\",\n      \"e\": null\n    }\n  ]\n}";
+        final JsonObject regular = new JsonParser(json).parse().asObject();
+        final JsonObject columns =
+            new JsonObject().add("a", JsonColumnArray.from(regular.get("a").asArray()));
+        assertEquals(write(regular), write(columns));
+        assertEquals(write(regular, null), write(columns, null));
+    }
+
+    @Test
+    public void write_columnArray_doesNotBoxRows() {
+        final JsonColumnArray table = new JsonColumnArray("a", "b");
+        table.addIfRecord(new JsonObject().add("a", 1).add("b", true));
+        assertEquals("[\n  {\n    \"a\": 1,\n    \"b\": true\n  }\n]", write(table));
+        assertFalse(table.isBoxed(0));
+    }
+
     private static String write(final JsonValue value) {
         return write(value, new JsonWriterOptions());
     }
@@ -0,0 +1,60 @@
+package xjs.data.serialization.writer;
+
+import org.junit.jupiter.api.Test;
+import xjs.data.Json;
+import xjs.data.JsonArray;
+import xjs.data.JsonObject;
+import xjs.data.JsonValue;
+import xjs.data.serialization.parser.NdJsonParser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class NdJsonWriterTest {
+
+    @Test
+    public void write_appendsOneRecordPerLine() throws IOException {
+        final StringWriter sw = new StringWriter();
+        try (final NdJsonWriter writer = new NdJsonWriter(sw)) {
+            writer.write(new JsonObject().add("a", 1).add("b", "x\ny"));
+            writer.write(new JsonArray().add(1).add(2));
+            writer.write(Json.value(true));
+            assertEquals(3, writer.getRecords());
+        }
+        assertEquals("{\"a\":1,\"b\":\"x\\ny\"}\n[1,2]\ntrue\n", sw.toString());
+    }
+
+    @Test
+    public void write_condensesFormattedValues() throws IOException {
+        final StringWriter sw = new StringWriter();
+        try (final NdJsonWriter writer = new NdJsonWriter(sw)) {
+            writer.write(Json.parse("{\n  \"a\": [\n    1,\n    2\n  ]\n}"));
+        }
+        assertEquals("{\"a\":[1,2]}\n", sw.toString());
+    }
+
+    @Test
+    public void write_buffersRecordsUntilFlushed() throws IOException {
+        final StringWriter sw = new StringWriter();
+        final NdJsonWriter writer = new NdJsonWriter(sw);
+        writer.write(Json.value(1));
+        assertEquals("", sw.toString());
+        writer.flush();
+        assertEquals("1\n", sw.toString());
+    }
+
+    @Test
+    public void writeAll_roundTripsThroughParser() throws IOException {
+        final List<JsonValue> records = List.of(
+            new JsonObject().add("id", 1), new JsonObject().add("id", 2));
+        final StringWriter sw = new StringWriter();
+        try (final NdJsonWriter writer = new NdJsonWriter(sw)) {
+            writer.writeAll(records);
+        }
+        assertEquals(new JsonArray().add(records.get(0)).add(records.get(1)),
+            new NdJsonParser(sw.toString()).parse().unformatted());
+    }
+}
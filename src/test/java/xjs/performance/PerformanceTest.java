@@ -8,15 +8,18 @@ import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Threads;
 import xjs.data.Json;
 import xjs.data.JsonCopy;
+import xjs.data.JsonObject;
 import xjs.data.JsonValue;
 import xjs.data.exception.SyntaxException;
 import xjs.data.serialization.token.DjsTokenizer;
-import xjs.performance.experimental.util.ExperimentalInputStreamByteReader;
 import xjs.data.serialization.parser.JsonParser;
 import xjs.data.serialization.parser.DjsParser;
+import xjs.data.serialization.parser.ParallelArrayParser;
 import xjs.data.serialization.token.TokenStream;
+import xjs.data.serialization.util.DoubleFormatter;
 import xjs.data.serialization.util.PositionTrackingReader;
 import xjs.data.serialization.writer.JsonWriter;
+import xjs.data.serialization.writer.JsonWriterOptions;
 import xjs.data.serialization.writer.DjsWriter;
 
 import java.io.ByteArrayInputStream;
@@ -25,7 +28,11 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringWriter;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("UnusedReturnValue")
@@ -113,6 +120,19 @@ public class PerformanceTest {
     private static final String READER_INPUT_SAMPLE =
         DJS_SAMPLE.repeat(10);
 
+    private static final String LARGE_JSON_SAMPLE =
+        "{\"data\":[" + String.join(",", Collections.nCopies(1_000, JSON_SAMPLE)) + "],\"meta\":{\"id\":1}}";
+
+    private static final String LARGE_ARRAY_SAMPLE =
+        "[" + String.join(",\n", Collections.nCopies(20_000, JSON_SAMPLE)) + "]";
+    private static final String NUMBER_SAMPLE = generateNumbers(10_000);
+    private static final double[] DOUBLE_SAMPLE =
+        Arrays.stream(NUMBER_SAMPLE.split(",")).mapToDouble(Double::parseDouble).toArray();
+    private static final JsonValue NUMBER_WRITING_SAMPLE = Json.parse("[" + NUMBER_SAMPLE + "]");
+    private static final JsonObject SMALL_OBJECT_SAMPLE = generateObject(10);
+    private static final JsonObject MEDIUM_OBJECT_SAMPLE = generateObject(1_000);
+    private static final JsonObject LARGE_OBJECT_SAMPLE = generateObject(100_000);
+
     public static void main(final String[] args) throws Exception {
         LocalBenchmarkRunner.runIfEnabled();
     }
@@ -226,7 +246,7 @@ public class PerformanceTest {
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
     public String byteBufferSample_smallestBuffer() {
         try (final PositionTrackingReader reader =
-                new ExperimentalInputStreamByteReader(getReadingSampleIS(), 8, true)) {
+                 PositionTrackingReader.fromIs(getReadingSampleIS(), 8, true, true)) {
             return reader.readToEnd();
         } catch (final IOException ignored) {
             throw new AssertionError("unreachable");
@@ -241,7 +261,7 @@ public class PerformanceTest {
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
     public String byteBufferSample_mediumBuffer() {
         try (final PositionTrackingReader reader =
-                 new ExperimentalInputStreamByteReader(getReadingSampleIS(), 128, true)) {
+                 PositionTrackingReader.fromIs(getReadingSampleIS(), 128, true, true)) {
             return reader.readToEnd();
         } catch (final IOException ignored) {
             throw new AssertionError("unreachable");
@@ -256,7 +276,7 @@ public class PerformanceTest {
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
     public String byteBufferSample_normalBuffer() throws IOException {
         try (final PositionTrackingReader reader =
-                 new ExperimentalInputStreamByteReader(getReadingSampleIS(), 1024, true)) {
+                 PositionTrackingReader.fromIs(getReadingSampleIS(), 1024, true, true)) {
             return reader.readToEnd();
         } catch (final IOException ignored) {
             throw new AssertionError("unreachable");
@@ -381,4 +401,371 @@ public class PerformanceTest {
         return new ByteArrayInputStream(
             READER_INPUT_SAMPLE.getBytes(StandardCharsets.UTF_8));
     }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue objectLookup_smallObject() {
+        return SMALL_OBJECT_SAMPLE.get(randomKey(10));
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue objectLookup_mediumObject() {
+        return MEDIUM_OBJECT_SAMPLE.get(randomKey(1_000));
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue objectLookup_largeObject() {
+        return LARGE_OBJECT_SAMPLE.get(randomKey(100_000));
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonObject objectBuilding_smallObject() {
+        return generateObject(10);
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonObject objectBuilding_mediumObject() {
+        return generateObject(1_000);
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonObject objectBuilding_largeObject() {
+        return generateObject(100_000);
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue largeJsonLookup_eager() {
+        try (final JsonParser parser = new JsonParser(LARGE_JSON_SAMPLE)) {
+            return parser.parse().asObject().get("meta").asObject().get("id");
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue largeJsonLookup_lazy() {
+        try (final JsonParser parser = new JsonParser(LARGE_JSON_SAMPLE)) {
+            return parser.parseLazy().asObject().get("meta").asObject().get("id");
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue largeArrayParsing_sequential() {
+        try (final JsonParser parser = new JsonParser(LARGE_ARRAY_SAMPLE)) {
+            return parser.parse();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue largeArrayParsing_parallel() {
+        try (final ParallelArrayParser parser = new ParallelArrayParser(LARGE_ARRAY_SAMPLE)) {
+            return parser.parse();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue largeArrayParsing_unformatted() {
+        try (final JsonParser parser = new JsonParser(LARGE_ARRAY_SAMPLE)) {
+            return parser.parseUnformatted();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue djsFormattedParsing() {
+        try (final DjsParser parser = new DjsParser(READER_INPUT_SAMPLE)) {
+            return parser.parse();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue djsUnformattedParsing() {
+        try (final DjsParser parser = new DjsParser(READER_INPUT_SAMPLE)) {
+            return parser.parseUnformatted();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public JsonValue djsUnformattedParsing_ignoringComments() {
+        try (final DjsParser parser = new DjsParser(READER_INPUT_SAMPLE, true)) {
+            return parser.parseUnformatted();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double numberParsing_readNumber() {
+        try (final PositionTrackingReader reader = PositionTrackingReader.fromString(NUMBER_SAMPLE)) {
+            double sum = 0;
+            do {
+                sum += reader.readNumber();
+            } while (reader.readIf(','));
+            return sum;
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double numberParsing_parseDouble() {
+        try (final PositionTrackingReader reader = PositionTrackingReader.fromString(NUMBER_SAMPLE)) {
+            double sum = 0;
+            do {
+                reader.startCapture();
+                reader.readIf('-');
+                reader.readAllDigits();
+                reader.readDecimal();
+                reader.readExponent();
+                sum += Double.parseDouble(reader.endCapture());
+            } while (reader.readIf(','));
+            return sum;
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int numberWriting_doubleFormatter() {
+        final char[] buf = new char[DoubleFormatter.MAX_CHARS];
+        int length = 0;
+        for (final double d : DOUBLE_SAMPLE) {
+            length += DoubleFormatter.format(d, buf, 0);
+        }
+        return length;
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int numberWriting_bigDecimal() {
+        int length = 0;
+        for (final double d : DOUBLE_SAMPLE) {
+            final long integer = (long) d;
+            if (integer == d) {
+                length += Long.toString(integer).length();
+                continue;
+            }
+            String res = BigDecimal.valueOf(d).toEngineeringString();
+            if (res.endsWith(".0")) {
+                res = res.substring(0, res.length() - 2);
+            } else if (res.contains("E")) {
+                res = Double.toString(d).replace("E", "e");
+            }
+            length += res.length();
+        }
+        return length;
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String numberWriting_jsonWriter() {
+        try (final StringWriter sw = new StringWriter();
+             final JsonWriter writer = new JsonWriter(sw, false)) {
+            writer.write(NUMBER_WRITING_SAMPLE);
+            return sw.toString();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String smallDocumentWriting_pooledBuffer() {
+        return writeWithOptions(SMALL_OBJECT_SAMPLE, new JsonWriterOptions());
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String smallDocumentWriting_unpooledBuffer() {
+        return writeWithOptions(SMALL_OBJECT_SAMPLE, new JsonWriterOptions().setPooledBuffer(false));
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String smallDocumentWriting_tinyBuffer() {
+        return writeWithOptions(SMALL_OBJECT_SAMPLE, new JsonWriterOptions().setPooledBuffer(false).setBufferSize(16));
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String largeDocumentWriting_defaultBuffer() {
+        return writeWithOptions(LARGE_OBJECT_SAMPLE, new JsonWriterOptions());
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String largeDocumentWriting_tinyBuffer() {
+        return writeWithOptions(LARGE_OBJECT_SAMPLE, new JsonWriterOptions().setPooledBuffer(false).setBufferSize(16));
+    }
+
+    @Enabled(false)
+    @Benchmark
+    @Fork(2)
+    @Threads(4)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String largeDocumentWriting_largeBuffer() {
+        return writeWithOptions(LARGE_OBJECT_SAMPLE, new JsonWriterOptions().setBufferSize(65536));
+    }
+
+    private static JsonObject generateObject(final int size) {
+        final JsonObject object = new JsonObject();
+        for (int i = 0; i < size; i++) {
+            object.add("key" + i, i);
+        }
+        return object;
+    }
+
+    private static String generateNumbers(final int size) {
+        final Random random = new Random(0);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            switch (i % 3) {
+                case 0 -> sb.append(random.nextInt(1_000_000));
+                case 1 -> sb.append(random.nextDouble() * 360 - 180);
+                default -> sb.append(random.nextGaussian() * 1e-3);
+            }
+        }
+        return sb.toString().replace('E', 'e');
+    }
+
+    private static String writeWithOptions(final JsonValue value, final JsonWriterOptions options) {
+        try (final StringWriter sw = new StringWriter();
+             final JsonWriter writer = new JsonWriter(sw, options)) {
+            writer.write(value);
+            return sw.toString();
+        } catch (final IOException ignored) {
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    private static String randomKey(final int size) {
+        return "key" + (int) (Math.random() * size);
+    }
 }